@@ -0,0 +1,183 @@
+package de.word_light.document_builder.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Class defining the thread pools documents are rendered on.
+ *
+ * @since 0.1.0
+ */
+@Configuration
+@Log4j2
+public class ExecutorConfig {
+
+    /** 0 or less uses one thread per available processor */
+    @Value("${BATCH_THREAD_POOL_SIZE}")
+    private int BATCH_THREAD_POOL_SIZE;
+
+    @Value("${BATCH_QUEUE_CAPACITY}")
+    private int BATCH_QUEUE_CAPACITY;
+
+    /** 0 or less uses one thread per available processor */
+    @Value("${BUILD_THREAD_POOL_SIZE}")
+    private int BUILD_THREAD_POOL_SIZE;
+
+    @Value("${BUILD_QUEUE_CAPACITY}")
+    private int BUILD_QUEUE_CAPACITY;
+
+    /** 0 or less uses one thread per available processor */
+    @Value("${RENDER_THREAD_POOL_SIZE}")
+    private int RENDER_THREAD_POOL_SIZE;
+
+    @Value("${RENDER_QUEUE_CAPACITY}")
+    private int RENDER_QUEUE_CAPACITY;
+
+    /** 0 or less uses one thread per available processor */
+    @Value("${JOB_THREAD_POOL_SIZE}")
+    private int JOB_THREAD_POOL_SIZE;
+
+    @Value("${JOB_QUEUE_CAPACITY}")
+    private int JOB_QUEUE_CAPACITY;
+
+
+    /**
+     * Fixed size pool for batch builds. If the queue is full, the submitting thread renders the document itself, which
+     * slows down submission of further documents instead of piling them up.
+     *
+     * @return executor for rendering documents of batch requests
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService batchExecutor() {
+
+        int poolSize = getPoolSize(this.BATCH_THREAD_POOL_SIZE);
+
+        log.info("Starting batch executor with " + poolSize + " threads...");
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize,
+                                                             poolSize,
+                                                             0,
+                                                             TimeUnit.MILLISECONDS,
+                                                             new ArrayBlockingQueue<>(this.BATCH_QUEUE_CAPACITY),
+                                                             new CustomizableThreadFactory("batch-"),
+                                                             new ThreadPoolExecutor.CallerRunsPolicy());
+
+        return ExecutorServiceMetrics.monitor(Metrics.globalRegistry, executor, "batch");
+    }
+
+
+    /**
+     * Fixed size pool for single document builds, so only a limited number of documents is held in memory at once. If the
+     * queue is full, further builds are rejected and counted as 'executor.rejected'.<p>
+     * 
+     * Queue depth ('executor.queued') and wait time ('executor.idle') are recorded as well.
+     *
+     * @return executor for rendering documents of single build requests
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService buildExecutor() {
+
+        int poolSize = getPoolSize(this.BUILD_THREAD_POOL_SIZE);
+
+        log.info("Starting build executor with " + poolSize + " threads...");
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize,
+                                                             poolSize,
+                                                             0,
+                                                             TimeUnit.MILLISECONDS,
+                                                             new ArrayBlockingQueue<>(this.BUILD_QUEUE_CAPACITY),
+                                                             new CustomizableThreadFactory("build-"),
+                                                             getRejectionHandler("build"));
+
+        return ExecutorServiceMetrics.monitor(Metrics.globalRegistry, executor, "build");
+    }
+
+
+    /**
+     * Fixed size pool for header, footer and body chunks of documents rendered in parallel, shared by all build, batch and
+     * job threads. If the queue is full, the rendering thread renders the part itself, so parallel renders never wait for
+     * each other.
+     *
+     * @return executor for rendering parts of very large documents
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService renderExecutor() {
+
+        int poolSize = getPoolSize(this.RENDER_THREAD_POOL_SIZE);
+
+        log.info("Starting render executor with " + poolSize + " threads...");
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize,
+                                                             poolSize,
+                                                             0,
+                                                             TimeUnit.MILLISECONDS,
+                                                             new ArrayBlockingQueue<>(this.RENDER_QUEUE_CAPACITY),
+                                                             new CustomizableThreadFactory("render-"),
+                                                             new ThreadPoolExecutor.CallerRunsPolicy());
+
+        return ExecutorServiceMetrics.monitor(Metrics.globalRegistry, executor, "render");
+    }
+
+
+    /**
+     * Fixed size pool for background build jobs. Kept apart from the build executor, so long running jobs don't block
+     * synchronous builds. If the queue is full, further jobs are rejected and counted as 'executor.rejected'.
+     *
+     * @return executor for rendering documents of build jobs
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService jobExecutor() {
+
+        int poolSize = getPoolSize(this.JOB_THREAD_POOL_SIZE);
+
+        log.info("Starting job executor with " + poolSize + " threads...");
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize,
+                                                             poolSize,
+                                                             0,
+                                                             TimeUnit.MILLISECONDS,
+                                                             new ArrayBlockingQueue<>(this.JOB_QUEUE_CAPACITY),
+                                                             new CustomizableThreadFactory("job-"),
+                                                             getRejectionHandler("job"));
+
+        return ExecutorServiceMetrics.monitor(Metrics.globalRegistry, executor, "job");
+    }
+
+
+    /**
+     * @param executorName tag of the 'executor.rejected' counter
+     * @return handler counting and throwing {@link RejectedExecutionException} if the queue is full
+     */
+    private RejectedExecutionHandler getRejectionHandler(String executorName) {
+
+        Counter numRejected = Counter.builder("executor.rejected")
+                                     .tag("name", executorName)
+                                     .register(Metrics.globalRegistry);
+
+        return (runnable, threadPoolExecutor) -> {
+            numRejected.increment();
+            throw new RejectedExecutionException("Queue of " + executorName + " executor is full.");
+        };
+    }
+
+
+    private int getPoolSize(int configuredPoolSize) {
+
+        return configuredPoolSize > 0 ? configuredPoolSize : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,37 @@
+package de.word_light.document_builder.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import de.word_light.document_builder.utils.BuildMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+
+/**
+ * Class marking the start of every request, so handlers can record how long json binding and validation took.
+ *
+ * @since 0.1.0
+ * @see BuildMetrics#recordBinding(HttpServletRequest)
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+
+        // runs before the request body is read
+        registry.addInterceptor(new HandlerInterceptor() {
+
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+                request.setAttribute(BuildMetrics.REQUEST_START_ATTRIBUTE, System.nanoTime());
+
+                return true;
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package de.word_light.document_builder.config;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import de.word_light.document_builder.exception.ApiException;
+
+
+/**
+ * Class decompressing request bodies sent with {@code Content-Encoding: gzip}, before they are read by any message converter.
+ * Applies to every {@code @RequestBody} and {@code @RequestPart} that is not a file, so large documents can be uploaded
+ * compressed to '/buildAndWrite', '/buildBatch' or as 'layout' part of the multipart endpoints.<p>
+ *
+ * Bodies are inflated while being read, never as a whole. Any other encoding than gzip is rejected with 415.
+ *
+ * @since 0.1.0
+ */
+@ControllerAdvice
+public class RequestDecompressionAdvice extends RequestBodyAdviceAdapter {
+
+    /** max number of bytes a compressed request body may be inflated to */
+    @Value("${DECOMPRESSED_REQUEST_MAX_BYTES}")
+    private long DECOMPRESSED_REQUEST_MAX_BYTES;
+
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+
+        return true;
+    }
+
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType, Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+
+        String contentEncoding = inputMessage.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+
+        // case: not compressed
+        if (contentEncoding == null || contentEncoding.isBlank() || contentEncoding.trim().equalsIgnoreCase("identity"))
+            return inputMessage;
+
+        if (!contentEncoding.trim().equalsIgnoreCase("gzip") && !contentEncoding.trim().equalsIgnoreCase("x-gzip"))
+            throw new ApiException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Content encoding '" + contentEncoding + "' is not supported, use 'gzip'.");
+
+        // headers describe the compressed body
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(inputMessage.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+
+        InputStream body = new LimitedInputStream(new GZIPInputStream(inputMessage.getBody()), this.DECOMPRESSED_REQUEST_MAX_BYTES);
+
+        return new HttpInputMessage() {
+
+            @Override
+            public InputStream getBody() {
+
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+
+                return headers;
+            }
+        };
+    }
+
+
+    /**
+     * Stream failing once more than a max number of bytes have been read, so a small compressed body cannot be inflated
+     * without bounds.
+     *
+     * @since 0.1.0
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+
+        private long numBytesRead;
+
+
+        LimitedInputStream(InputStream in, long maxBytes) {
+
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+
+        @Override
+        public int read() throws IOException {
+
+            int b = super.read();
+            if (b != -1)
+                count(1);
+
+            return b;
+        }
+
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+
+            int numBytes = super.read(b, off, len);
+            if (numBytes > 0)
+                count(numBytes);
+
+            return numBytes;
+        }
+
+
+        private void count(int numBytes) throws IOException {
+
+            this.numBytesRead += numBytes;
+
+            if (this.numBytesRead > this.maxBytes)
+                throw new IOException("Decompressed request body is larger than " + this.maxBytes + " bytes.");
+        }
+    }
+}
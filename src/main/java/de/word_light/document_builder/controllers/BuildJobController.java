@@ -0,0 +1,135 @@
+package de.word_light.document_builder.controllers;
+
+import static org.springframework.http.HttpStatus.ACCEPTED;
+
+import java.util.HashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import de.word_light.document_builder.documentBuilder.OutputProfile;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.services.BuildJob;
+import de.word_light.document_builder.services.BuildJobService;
+import de.word_light.document_builder.services.BuiltDocument;
+import de.word_light.document_builder.utils.BuildMetrics;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * REST controller building documents in the background. Unlike {@link DocumentController} not session scoped, jobs are
+ * identified by their id.
+ *
+ * @since 0.1.0
+ */
+@RestController
+@RequestMapping("${MAPPING}/jobs")
+@Validated
+@Log4j2
+@Tag(name = "Document build jobs")
+public class BuildJobController {
+
+    /** max seconds a status request waits for the job to finish */
+    @Value("${JOB_MAX_WAIT_SECONDS}")
+    private long JOB_MAX_WAIT_SECONDS;
+
+    @Autowired
+    private BuildJobService buildJobService;
+
+
+    /**
+     * Start building given document in the background. Pictures have to be part of the wrapper.
+     *
+     * @param wrapper wrapper object containing all document information
+     * @param outputProfile compression of the .docx file
+     * @return the queued job, containing the id to request the status and download with
+     */
+    @PostMapping
+    @ResponseStatus(ACCEPTED)
+    @Operation(summary = "Start building a document in the background. Responds with the job immediately.")
+    public BuildJob submit(@RequestBody @Valid DocumentWrapper wrapper, @RequestParam(name = "outputProfile", defaultValue = "DEFAULT") OutputProfile outputProfile, HttpServletRequest request) {
+
+        BuildMetrics.recordBinding(request);
+
+        if (wrapper.getPictures() == null)
+            wrapper.setPictures(new HashMap<>());
+
+        return this.buildJobService.submit(wrapper, outputProfile);
+    }
+
+
+    /**
+     * Get the status of a job. If {@code waitSeconds} is greater than 0, the response is delayed until the job has finished
+     * or {@code waitSeconds} have passed (long poll). Doesn't hold a servlet thread while waiting.
+     *
+     * @param jobId id of the job
+     * @param waitSeconds max seconds to wait for the job to finish, capped at {@code JOB_MAX_WAIT_SECONDS}
+     * @return the job
+     */
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get the status of a build job. Set 'waitSeconds' to wait for the job to finish.")
+    public DeferredResult<BuildJob> getJob(@PathVariable String jobId, @RequestParam(name = "waitSeconds", defaultValue = "0") @Min(value = 0, message = "'waitSeconds' cannot be negative.") long waitSeconds) {
+
+        BuildJob job = this.buildJobService.getJob(jobId);
+
+        long timeoutMillis = Math.min(waitSeconds, this.JOB_MAX_WAIT_SECONDS) * 1000;
+
+        // respond with current status on timeout
+        DeferredResult<BuildJob> result = new DeferredResult<>(timeoutMillis, job);
+
+        if (timeoutMillis == 0 || job.isFinished())
+            result.setResult(job);
+
+        else
+            job.getCompletion().thenAccept(result::setResult);
+
+        return result;
+    }
+
+
+    /**
+     * Stream the built document of a job. The document can be downloaded until the job expires.
+     *
+     * @param jobId id of the job
+     * @return {@link StreamingResponseBody} of document with correct headers for download
+     */
+    @GetMapping(path = "/{jobId}/download", produces = {"application/octet-stream", "application/json"})
+    @Operation(summary = "Download the .docx file of a finished build job.")
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable String jobId) {
+
+        log.info("Downloading document of build job " + jobId + "...");
+
+        BuildJob job = this.buildJobService.getJob(jobId);
+        BuiltDocument builtDocument = this.buildJobService.getBuiltDocument(jobId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + job.getFileName());
+        headers.add(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
+
+        return ResponseEntity.ok()
+                            .headers(headers)
+                            .contentLength(builtDocument.getLength())
+                            .contentType(MediaType.parseMediaType("application/octet-stream"))
+                            .body(builtDocument::writeTo);
+    }
+}
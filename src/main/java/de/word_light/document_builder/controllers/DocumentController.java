@@ -7,12 +7,19 @@ import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -21,28 +28,51 @@ import org.springframework.security.web.csrf.CsrfToken;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.annotation.SessionScope;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import de.word_light.document_builder.documentBuilder.DocumentBuilder;
+import de.word_light.document_builder.documentBuilder.FragmentCache;
+import de.word_light.document_builder.documentBuilder.MergeLayout;
+import de.word_light.document_builder.documentBuilder.OutputProfile;
 import de.word_light.document_builder.documentBuilder.PictureUtils;
+import de.word_light.document_builder.documentBuilder.StreamedTable;
 import de.word_light.document_builder.documentParts.BasicParagraph;
 import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.documentParts.ParagraphEdit;
 import de.word_light.document_builder.exception.ApiException;
 import de.word_light.document_builder.exception.ApiExceptionFormat;
 import de.word_light.document_builder.exception.ApiExceptionHandler;
+import de.word_light.document_builder.exception.ServiceUnavailableException;
+import de.word_light.document_builder.services.BuiltDocument;
+import de.word_light.document_builder.services.DocumentBuildService;
+import de.word_light.document_builder.services.MergeRowReader;
+import de.word_light.document_builder.services.MergeRowReader.MergeRowFormat;
+import de.word_light.document_builder.services.StreamedContentReader;
+import de.word_light.document_builder.services.TableRowReader;
+import de.word_light.document_builder.utils.BuildMetrics;
 import de.word_light.document_builder.utils.Utils;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.log4j.Log4j2;
 
@@ -60,16 +90,35 @@ import lombok.extern.log4j.Log4j2;
 @Tag(name = "Document builder logic")
 public class DocumentController {
 
+    private static final String BATCH_FILE_NAME = "documents.zip";
+
     @Value("${ENV}")
     private String ENV;
 
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private DocumentBuildService documentBuildService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // methods reading or replacing the session's document are synchronized, so overlapping requests of a session don't race
     private DocumentWrapper documentWrapper = new DocumentWrapper();
 
-    private File file;
+    private BuiltDocument builtDocument;
+
+    /** compression of the last call to '/buildAndWrite', used for edits as well */
+    private OutputProfile outputProfile = OutputProfile.DEFAULT;
+
+    /** rendered fragments of the last version of {@code this.documentWrapper} */
+    private FragmentCache fragmentCache = new FragmentCache();
 
 
     /**
-     * Builds word document, writes to .docx file. <p>
+     * Builds word document, writes to .docx file. Always uses the same writer as edits do, sothat following edits only render
+     * what has changed. <p>
      * 
      * Assuming that: <p>
      * first {@link BasicParagraph} is the header <p>
@@ -78,61 +127,107 @@ public class DocumentController {
      * 
      * @param documentWrapper wrapper object containing all document information
      * @param bindingResult for handling bad requests
+     * @param outputProfile compression of the .docx file
      */
     @PostMapping("/buildAndWrite")
     @Operation(summary = "Build document and write to .docx.")
-    public ApiExceptionFormat buildAndWrite(@RequestBody @Valid DocumentWrapper wrapper, BindingResult bindingResult, @RequestHeader Map<String, String> headers) {
+    public synchronized ApiExceptionFormat buildAndWrite(@RequestBody @Valid DocumentWrapper wrapper, BindingResult bindingResult, @RequestHeader Map<String, String> headers, @RequestParam(name = "outputProfile", defaultValue = "DEFAULT") OutputProfile outputProfile, HttpServletRequest request) {
+
+        BuildMetrics.recordBinding(request);
 
         // pictures may have been uploaded before
         wrapper.setPictures(this.documentWrapper.getPictures());
 
+        // build docx, filling the fragment cache for edits
+        FragmentCache fragmentCache = new FragmentCache();
+        BuiltDocument builtDocument = this.documentBuildService.writeIncrementally(wrapper, fragmentCache, outputProfile);
+
+        if (this.builtDocument != null)
+            this.builtDocument.delete();
+
         this.documentWrapper = wrapper;
+        this.fragmentCache = fragmentCache;
+        this.outputProfile = outputProfile;
+        this.builtDocument = builtDocument;
+
+        return ApiExceptionHandler.returnPrettySuccess(OK);
+    }
+
+
+    /**
+     * Apply paragraph edits to the document of the last call to '/buildAndWrite' and write it to .docx again. Only
+     * paragraphs and tables that changed since the last edit are rendered again. <p>
+     * 
+     * If the edited document is invalid or fails to be written, nothing is changed.
+     * 
+     * @param edits to apply in given order
+     */
+    @PatchMapping("/buildAndWrite")
+    @Operation(summary = "Apply paragraph edits to the last built document and write to .docx. Needs a call to '/buildAndWrite' first.")
+    public synchronized ApiExceptionFormat editAndWrite(@RequestBody @NotNull(message = "'edits' cannot be null.") List<@Valid @NotNull(message = "'paragraphEdit' cannot be null") ParagraphEdit> edits) {
+
+        // case: no document created yet or already downloaded
+        if (this.documentWrapper == null || this.builtDocument == null || !this.builtDocument.exists())
+            throw new ApiException(HttpStatus.CONFLICT, "Failed to edit document. No document created yet.");
 
-        // build docx
-        File file = buildAndWriteDocument();
+        DocumentWrapper editedWrapper = this.documentWrapper.withEdits(edits);
 
-        this.file = file;
+        Set<ConstraintViolation<DocumentWrapper>> violations = this.validator.validate(editedWrapper);
+        if (!violations.isEmpty())
+            throw new ConstraintViolationException(violations);
+
+        BuiltDocument editedDocument = this.documentBuildService.writeIncrementally(editedWrapper, this.fragmentCache, this.outputProfile);
+
+        // replace last version
+        this.builtDocument.delete();
+
+        this.documentWrapper = editedWrapper;
+        this.builtDocument = editedDocument;
 
         return ApiExceptionHandler.returnPrettySuccess(OK);
     }
 
 
     /**
-     * Convert given file to stream and delete file afterwards.<p>
+     * Stream the built document and delete it afterwards.<p>
      * 
-     * Deletes {@link #file} and clears {@code this.documentWrapper.getPictures()} after download (successful or not).
+     * Deletes {@link #builtDocument} and clears {@code this.documentWrapper.getPictures()} after download (successful or not).
+     * The document is detached from the session once the download starts, so it cannot be edited or downloaded again.
      * 
-     * @param file to download
-     * @param fileName to use for downloaded file
-     * @return {@link StreamingResponseBody} of file with correct headers for download
+     * @param pdf true if document should be converted to pdf before download
+     * @return {@link StreamingResponseBody} of document with correct headers for download
      */
     @PostMapping(path = "/download", produces = {"application/octet-stream", "application/json"})
     @Operation(summary = "Download existing .docx or .pdf file. Needs a call to '/buildAndWrite' first.")
-    public ResponseEntity<StreamingResponseBody> downloadDocument(@RequestParam(name = "pdf") boolean pdf) {
+    public synchronized ResponseEntity<StreamingResponseBody> downloadDocument(@RequestParam(name = "pdf") boolean pdf) {
 
         log.info("Downloading document...");
 
         // case: no document created yet
-        if (this.documentWrapper == null || this.file == null || !this.file.exists()) 
+        if (this.documentWrapper == null || this.builtDocument == null || !this.builtDocument.exists()) 
             throw new ApiException(HttpStatus.CONFLICT, "Failed to download document. No document created yet.");
         
         // INFO: disabled in prod until I find a way to install ms word on linux
         // case: pdf
         if (pdf && !ENV.equals("prod"))
-            file = convertDocxToPdf(file);
+            this.builtDocument = new BuiltDocument(convertDocxToPdf(this.builtDocument));
+
+        BuiltDocument builtDocument = this.builtDocument;
+        Map<String, byte[]> pictures = this.documentWrapper.getPictures();
+        this.builtDocument = null;
 
         try {
             return ResponseEntity.ok()
                                 .headers(getDownloadHeaders(this.documentWrapper.getFileName()))
-                                .contentLength(file.length())
+                                .contentLength(builtDocument.getLength())
                                 .contentType(MediaType.parseMediaType("application/octet-stream"))
                                 .body(os -> {
                                     try {
-                                        Files.copy(file.toPath(), os);
+                                        builtDocument.writeTo(os);
 
                                     } finally {
-                                        file.delete();
-                                        this.documentWrapper.getPictures().clear();
+                                        builtDocument.delete();
+                                        pictures.clear();
                                     }
                                 });
 
@@ -142,6 +237,147 @@ public class DocumentController {
     }
 
 
+    /**
+     * Build all given documents in parallel and stream them back as one zip. Independent of the session's document, so
+     * pictures have to be part of each wrapper.
+     * 
+     * @param wrappers documents to build. File names are used as zip entry names
+     * @param outputProfile compression of the .docx files
+     * @return {@link StreamingResponseBody} of the zip with correct headers for download
+     */
+    @PostMapping(path = "/buildBatch", produces = {"application/zip", "application/json"})
+    @Operation(summary = "Build multiple documents and download them as zip of .docx files.")
+    public ResponseEntity<StreamingResponseBody> buildBatch(@RequestBody @NotEmpty(message = "'wrappers' cannot be empty.") List<@Valid @NotNull(message = "'wrapper' cannot be null") DocumentWrapper> wrappers, @RequestParam(name = "outputProfile", defaultValue = "DEFAULT") OutputProfile outputProfile, HttpServletRequest request) {
+
+        BuildMetrics.recordBinding(request);
+
+        wrappers.forEach(wrapper -> {
+            if (wrapper.getPictures() == null)
+                wrapper.setPictures(new HashMap<>());
+        });
+
+        return ResponseEntity.ok()
+                            .headers(getDownloadHeaders(BATCH_FILE_NAME))
+                            .contentType(MediaType.parseMediaType("application/zip"))
+                            .body(os -> this.documentBuildService.buildBatch(wrappers, outputProfile, os));
+    }
+
+
+    /**
+     * Fill one layout with each row of values and stream the documents back as one zip. The layout is compiled once for all
+     * rows, rows are read while documents are built. Independent of the session's document, so pictures have to be part
+     * of the layout.
+     * 
+     * @param layout document with placeholders like {@code ${someName}} in paragraph texts or file name. The file name is
+     *               validated with its placeholders and once filled with each row
+     * @param rows NDJSON or CSV file with one row of placeholder values per document
+     * @param format of the rows
+     * @param outputProfile compression of the .docx files
+     * @return {@link StreamingResponseBody} of the zip with correct headers for download
+     */
+    @PostMapping(path = "/merge", consumes = "multipart/form-data", produces = {"application/zip", "application/json"})
+    @Operation(summary = "Fill one layout with each row of a NDJSON or CSV file and download the documents as zip of .docx files.")
+    public ResponseEntity<StreamingResponseBody> merge(@RequestPart("layout") @NotNull(message = "'layout' cannot be null.") DocumentWrapper layout, 
+                                                       @RequestPart("rows") @NotNull(message = "'rows' cannot be null.") MultipartFile rows,
+                                                       @RequestParam(name = "format", defaultValue = "NDJSON") MergeRowFormat format,
+                                                       @RequestParam(name = "outputProfile", defaultValue = "DEFAULT") OutputProfile outputProfile) {
+
+        // file name may contain placeholders, checked by MergeLayout
+        Set<ConstraintViolation<DocumentWrapper>> violations = this.validator.validate(layout)
+                                                                             .stream()
+                                                                             .filter(violation -> !violation.getPropertyPath().toString().equals("fileName"))
+                                                                             .collect(Collectors.toSet());
+        if (!violations.isEmpty())
+            throw new ConstraintViolationException(violations);
+
+        if (layout.getPictures() == null)
+            layout.setPictures(new HashMap<>());
+
+        MergeLayout mergeLayout = MergeLayout.compile(layout);
+
+        return ResponseEntity.ok()
+                            .headers(getDownloadHeaders(BATCH_FILE_NAME))
+                            .contentType(MediaType.parseMediaType("application/zip"))
+                            .body(os -> {
+                                try (MergeRowReader rowReader = MergeRowReader.of(rows.getInputStream(), format)) {
+                                    this.documentBuildService.buildMerge(mergeLayout, rowReader, outputProfile, os);
+                                }
+                            });
+    }
+
+
+    /**
+     * Build one document with a table whose rows are read from a file while the document is written, and stream it back.
+     * Use this for tables too large to send as content. Independent of the session's document, so pictures have to be
+     * part of the layout.
+     * 
+     * @param layout document with one body paragraph to replace with the table. All cells use the style of that paragraph
+     * @param rows NDJSON file with one json array per row or CSV file without header line
+     * @param tableIndex index of the paragraph in {@code layout.getContent()} to replace with the table
+     * @param numColumns number of cells per table row
+     * @param format of the rows
+     * @param outputProfile compression of the .docx file
+     * @return {@link StreamingResponseBody} of the .docx file with correct headers for download
+     * @throws ServiceUnavailableException if too many documents are being built at the moment
+     */
+    @PostMapping(path = "/buildWithTable", consumes = "multipart/form-data", produces = {"application/octet-stream", "application/json"})
+    @Operation(summary = "Build document with a large table read row by row from a NDJSON or CSV file and download it as .docx.")
+    public ResponseEntity<StreamingResponseBody> buildWithTable(@RequestPart("layout") @Valid @NotNull(message = "'layout' cannot be null.") DocumentWrapper layout,
+                                                                @RequestPart("rows") @NotNull(message = "'rows' cannot be null.") MultipartFile rows,
+                                                                @RequestParam(name = "tableIndex") @Min(value = 0, message = "'tableIndex' has to be greater than equal 0.") int tableIndex,
+                                                                @RequestParam(name = "numColumns") @Min(value = 1, message = "'numColumns' has to be greater than equal 1.") int numColumns,
+                                                                @RequestParam(name = "format", defaultValue = "NDJSON") MergeRowFormat format,
+                                                                @RequestParam(name = "outputProfile", defaultValue = "DEFAULT") OutputProfile outputProfile) {
+
+        if (layout.getPictures() == null)
+            layout.setPictures(new HashMap<>());
+
+        return ResponseEntity.ok()
+                            .headers(getDownloadHeaders(layout.getFileName()))
+                            .contentType(MediaType.parseMediaType("application/octet-stream"))
+                            .body(this.documentBuildService.admitStreamedBuild(os -> {
+                                try (TableRowReader rowReader = TableRowReader.of(rows.getInputStream(), format)) {
+                                    StreamedTable streamedTable = new StreamedTable(tableIndex, numColumns, rowReader);
+                                    this.documentBuildService.buildWithStreamedTable(layout, streamedTable, outputProfile, os);
+                                }
+                            }));
+    }
+
+
+    /**
+     * Build one document while its json is read and stream it back. All fields of the wrapper have to come before 'content',
+     * which is read one paragraph at a time, so the content is never held in memory as a whole. Independent of the session's
+     * document, so pictures have to be part of the wrapper.<p>
+     * 
+     * Errors in the fields before 'content' are responded to with 400. Errors in 'content' are found only while the
+     * document is written, the response is aborted then.
+     * 
+     * @param body json of a {@link DocumentWrapper} with 'content' as last field
+     * @param outputProfile compression of the .docx file
+     * @return {@link StreamingResponseBody} of the .docx file with correct headers for download
+     * @throws ServiceUnavailableException if too many documents are being built at the moment
+     */
+    @PostMapping(path = "/buildStreamed", consumes = "application/json", produces = {"application/octet-stream", "application/json"})
+    @Operation(summary = "Build document while reading its paragraphs and download it as .docx. 'content' has to be the last field.")
+    public ResponseEntity<StreamingResponseBody> buildStreamed(@RequestBody InputStreamResource body, @RequestParam(name = "outputProfile", defaultValue = "DEFAULT") OutputProfile outputProfile) throws IOException {
+
+        StreamedContentReader contentReader = new StreamedContentReader(body.getInputStream(), this.objectMapper, this.validator);
+        DocumentWrapper layout = contentReader.getLayout();
+
+        if (layout.getPictures() == null)
+            layout.setPictures(new HashMap<>());
+
+        return ResponseEntity.ok()
+                            .headers(getDownloadHeaders(layout.getFileName()))
+                            .contentType(MediaType.parseMediaType("application/octet-stream"))
+                            .body(this.documentBuildService.admitStreamedBuild(os -> {
+                                try (contentReader) {
+                                    this.documentBuildService.buildWithStreamedContent(contentReader, outputProfile, os);
+                                }
+                            }));
+    }
+
+
     /**
      * Upload a {@link MultipartFile} file and add it to {@code this.documentWrapper}.
      * 
@@ -149,7 +385,7 @@ public class DocumentController {
      */
     @PostMapping(path = "/uploadPicture", consumes = "multipart/form-data")
     @Operation(summary = "Upload a picture as multipart file to filesystem in backend.")
-    public ApiExceptionFormat uploadFile(@RequestBody @NotNull(message = "Failed to upload picture. 'file' cannot be null.") MultipartFile picture) {
+    public synchronized ApiExceptionFormat uploadFile(@RequestBody @NotNull(message = "Failed to upload picture. 'file' cannot be null.") MultipartFile picture) {
 
         log.info("Starting to upload files...");
 
@@ -200,36 +436,25 @@ public class DocumentController {
     }
 
 
-    /**
-     * Build document with {@code this.documentWrapper} and write to file
-     * 
-     * @return generated .docx file
-     */
-    private File buildAndWriteDocument() {
-
-        DocumentBuilder documentBuilder = new DocumentBuilder(this.documentWrapper.getContent(), 
-                                                                this.documentWrapper.getFileName(), 
-                                                                this.documentWrapper.getNumColumns(),
-                                                                this.documentWrapper.getNumSingleColumnLines(),
-                                                                this.documentWrapper.isLandscape(),
-                                                                this.documentWrapper.getPictures(),
-                                                                this.documentWrapper.getTableConfigs());
-        
-        // build
-        return documentBuilder.build().writeDocxFile();
-    }
-
-
     /**
      * Convert given '.docx' file to pdf.
      *  
-     * @param docxFile ending on '.docx' to convert to '.pdf'
+     * @param docxDocument to convert to '.pdf'. Is deleted afterwards
+     * @return the '.pdf' file with a unique name, the file name of the document is used for download only
      */
-    private File convertDocxToPdf(File docxFile) {
+    private File convertDocxToPdf(BuiltDocument docxDocument) {
+
+        String pdfFileName = UUID.randomUUID() + ".pdf";
 
-        String pdfFileName = docxFile.getName();
+        try (InputStream is = docxDocument.getInputStream()) {
+            return DocumentBuilder.docxToPdfDocuments4j(is, pdfFileName);
 
-        return DocumentBuilder.docxToPdfDocuments4j(docxFile, pdfFileName);
+        } catch (IOException e) {
+            throw new ApiException("Failed to convert .docx to .pdf.", e);
+
+        } finally {
+            docxDocument.delete();
+        }
     }
 
 
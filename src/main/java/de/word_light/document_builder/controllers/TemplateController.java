@@ -0,0 +1,110 @@
+package de.word_light.document_builder.controllers;
+
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.OK;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import de.word_light.document_builder.documentBuilder.DocxTemplate;
+import de.word_light.document_builder.documentBuilder.OutputProfile;
+import de.word_light.document_builder.exception.ApiExceptionFormat;
+import de.word_light.document_builder.exception.ApiExceptionHandler;
+import de.word_light.document_builder.services.TemplateService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotNull;
+
+
+/**
+ * REST controller for registering .docx templates once and filling them in with placeholder values.
+ *
+ * @since 0.1.0
+ */
+@RestController
+@RequestMapping("${MAPPING}/templates")
+@Validated
+@Tag(name = "Document templates")
+public class TemplateController {
+
+    @Autowired
+    private TemplateService templateService;
+
+
+    /**
+     * Upload a .docx file containing placeholders like {@code ${someName}}.
+     *
+     * @param template .docx file as multipart file
+     * @return the registered template with its id and placeholder names
+     */
+    @PostMapping(consumes = "multipart/form-data")
+    @ResponseStatus(CREATED)
+    @Operation(summary = "Upload a .docx template. Responds with the template id and the names of its '${...}' placeholders.")
+    public DocxTemplate register(@RequestPart("template") @NotNull(message = "Failed to register template. 'template' cannot be null.") MultipartFile template) {
+
+        return this.templateService.register(template);
+    }
+
+
+    @GetMapping("/{templateId}")
+    @Operation(summary = "Get the placeholder names of a template.")
+    public DocxTemplate getTemplate(@PathVariable String templateId) {
+
+        return this.templateService.getTemplate(templateId);
+    }
+
+
+    /**
+     * Fill a copy of a template and download it.
+     *
+     * @param templateId id of the template
+     * @param values placeholder name (without braces) and text to replace it with
+     * @param outputProfile compression of the .docx file
+     * @return {@link StreamingResponseBody} of the filled document with correct headers for download
+     */
+    @PostMapping(path = "/{templateId}/fill", produces = {"application/octet-stream", "application/json"})
+    @Operation(summary = "Replace the placeholders of a template with given values and download the .docx file.")
+    public ResponseEntity<StreamingResponseBody> fill(@PathVariable String templateId, @RequestBody @NotNull(message = "'values' cannot be null.") Map<String, String> values, @RequestParam(name = "outputProfile", defaultValue = "DEFAULT") OutputProfile outputProfile) {
+
+        String fileName = this.templateService.getTemplate(templateId).getFileName();
+        byte[] bytes = this.templateService.fill(templateId, values, outputProfile);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+        headers.add(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate");
+
+        return ResponseEntity.ok()
+                            .headers(headers)
+                            .contentLength(bytes.length)
+                            .contentType(MediaType.parseMediaType("application/octet-stream"))
+                            .body(os -> os.write(bytes));
+    }
+
+
+    @DeleteMapping("/{templateId}")
+    @Operation(summary = "Remove a template.")
+    public ApiExceptionFormat remove(@PathVariable String templateId) {
+
+        this.templateService.remove(templateId);
+
+        return ApiExceptionHandler.returnPrettySuccess(OK);
+    }
+}
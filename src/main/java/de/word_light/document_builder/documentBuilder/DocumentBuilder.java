@@ -4,6 +4,8 @@ import static de.word_light.document_builder.utils.Utils.DOCX_FOLDER;
 import static de.word_light.document_builder.utils.Utils.PDF_FOLDER;
 import static de.word_light.document_builder.utils.Utils.prependSlash;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -11,35 +13,44 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.math.BigInteger;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.common.usermodel.PictureType;
 import org.apache.poi.wp.usermodel.HeaderFooterType;
-import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBody;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTFonts;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageMar;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageSz;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTParaRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectType;
-import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTabStop;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STPageOrientation;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STSectionMark;
 
 import com.documents4j.api.DocumentType;
 import com.documents4j.api.IConverter;
 import com.documents4j.job.LocalConverter;
+import de.word_light.document_builder.documentBuilder.RenderPlan.ContentKind;
 import de.word_light.document_builder.documentParts.BasicParagraph;
 import de.word_light.document_builder.documentParts.TableConfig;
 import de.word_light.document_builder.documentParts.style.Style;
 import de.word_light.document_builder.exception.ApiException;
 import de.word_light.document_builder.exception.ApiExceptionHandler;
+import de.word_light.document_builder.utils.BuildMetrics;
 import de.word_light.document_builder.utils.Utils;
 import jakarta.annotation.Nullable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -114,6 +125,34 @@ public class DocumentBuilder {
 
     private boolean isTabStopsByFontSize;
 
+    /** if true, styles are referenced as named styles from {@link #styleCatalog} instead of being set on every run */
+    private boolean isUseStyleCatalog;
+
+    private StyleCatalog styleCatalog = new StyleCatalog();
+
+    /** compression of the zip package, {@link OutputProfile#FAST} is treated like {@link OutputProfile#DEFAULT} */
+    private OutputProfile outputProfile = OutputProfile.DEFAULT;
+
+    /** if true, blank lines get their font size from the paragraph mark instead of filler runs */
+    private boolean isCompactEmptyLines;
+
+    /** classification of {@link #content}, compiled on first use if not set. May be shared between builders */
+    @Nullable
+    private RenderPlan renderPlan;
+
+    /** true if {@link #styleCatalog} started as copy of the render plan's catalog, so its style ids can be used */
+    private boolean isUseRenderPlanStyleIds;
+
+    /** if false, tables are always filled cell by cell by {@link #addParagraph(int)}. Only meant for comparing both ways */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isFillTablesByRow = true;
+
+    /** created by {@link #getStyleApplier()} for the current style settings */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private StyleApplier styleApplier;
+
     
     /**
      * Reading the an empty document from an existing file.<p>
@@ -173,16 +212,23 @@ public class DocumentBuilder {
      */
     public DocumentBuilder build() {
         
-        setOrientation();
-
-        setDocumentMargins(MINIMUM_MARGIN_TOP, null, MINIMUM_MARGIN_BOTTOM, null);
+        // orientation and margins
+        BuildMetrics.record(BuildMetrics.SKELETON, () -> setUpSkeleton());
 
         setIsTabStopsByFontSize(true);
+
+        setIsUseStyleCatalog(true);
+
+        // classify content once
+        BuildMetrics.record(BuildMetrics.PLAN, () -> getRenderPlan());
         
         addContent();
 
         // do this after addContent()!
-        setDocumentColumns();
+        BuildMetrics.record(BuildMetrics.COLUMNS, () -> setDocumentColumns());
+
+        // do this after addContent()!
+        BuildMetrics.record(BuildMetrics.STYLES, () -> addStyleCatalog());
 
         return this;
     }
@@ -203,16 +249,60 @@ public class DocumentBuilder {
             return this;
         }
 
+        RenderPlan renderPlan = getRenderPlan();
+
+        // case: no styles added yet
+        if (this.styleCatalog.isEmpty()) {
+            this.styleCatalog = renderPlan.copyStyleCatalog();
+            this.isUseRenderPlanStyleIds = true;
+        }
+
         XWPFParagraph lastSingleColumnLineParagraph = null;
 
+        // time spent per kind of content
+        long paragraphNanos = 0;
+        long tableNanos = 0;
+        long pictureNanos = 0;
+
         // add content
         for (int i = 0; i < numParagraphs; i++) {
+            long start = System.nanoTime();
+
             // add empty paragraph above first column on first page to even out empty column break paragraphs
             if (i == this.numSingleColumnLines + 1)
                 addEmptyParagraph();
 
+            // case: table with its own rows
+            TableConfig tableConfig = renderPlan.getTableConfig(i);
+            if (tableConfig != null && tableConfig.hasRows()) {
+                addTableWithRows(i, tableConfig);
+
+                tableNanos += System.nanoTime() - start;
+                continue;
+            }
+
+            // case: first cell of a table, fill it row by row
+            int tableEndIndex = getBulkTableEndIndex(i);
+            if (tableEndIndex != -1) {
+                addTable(i, tableEndIndex);
+
+                tableNanos += System.nanoTime() - start;
+                i = tableEndIndex;
+                continue;
+            }
+
             XWPFParagraph paragraph = addParagraph(i);
 
+            long nanos = System.nanoTime() - start;
+            if (renderPlan.getKind(i) == ContentKind.TABLE_CELL)
+                tableNanos += nanos;
+
+            else if (renderPlan.isPicture(i))
+                pictureNanos += nanos;
+
+            else
+                paragraphNanos += nanos;
+
             // get last singleColumnLine
             if (i == this.numSingleColumnLines && this.numColumns > 1 && this.numSingleColumnLines >= 1) 
                 lastSingleColumnLineParagraph = paragraph;
@@ -220,6 +310,82 @@ public class DocumentBuilder {
 
         separateSection(lastSingleColumnLineParagraph);
 
+        BuildMetrics.record(BuildMetrics.PARAGRAPHS, paragraphNanos);
+        BuildMetrics.record(BuildMetrics.TABLES, tableNanos);
+        BuildMetrics.record(BuildMetrics.PICTURES, pictureNanos);
+
+        return this;
+    }
+
+
+    /**
+     * Override setter for {@link #content} to compile the render plan again.
+     * 
+     * @param content list of {@link BasicParagraph}s
+     */
+    public void setContent(List<BasicParagraph> content) {
+
+        this.content = content;
+        this.renderPlan = null;
+    }
+
+
+    /**
+     * Override setter for {@link #tableUtils} to compile the render plan again.
+     * 
+     * @param tableUtils to add tables with, may be null
+     */
+    public void setTableUtils(TableUtils tableUtils) {
+
+        this.tableUtils = tableUtils;
+        this.renderPlan = null;
+    }
+
+
+    /**
+     * Override setter for {@link #renderPlan} to reuse a plan compiled for the same content before.
+     * 
+     * @param renderPlan compiled from {@link #content} and the table configs of {@link #tableUtils}
+     */
+    public void setRenderPlan(RenderPlan renderPlan) {
+
+        this.renderPlan = renderPlan;
+        this.isUseRenderPlanStyleIds = false;
+    }
+
+
+    /**
+     * Get {@link #renderPlan} or compile a new one if there is none or it does not match {@link #content} and the tab stop
+     * setting.
+     * 
+     * @return the render plan of {@link #content}
+     */
+    RenderPlan getRenderPlan() {
+
+        if (this.renderPlan == null || 
+            this.renderPlan.size() != this.content.size() || 
+            this.renderPlan.isTabStopsByFontSize() != this.isTabStopsByFontSize) {
+
+            List<TableConfig> tableConfigs = this.tableUtils == null ? List.of() : this.tableUtils.getTableConfigs();
+            this.renderPlan = RenderPlan.compile(this.content, tableConfigs, this.isTabStopsByFontSize);
+            this.isUseRenderPlanStyleIds = false;
+        }
+
+        return this.renderPlan;
+    }
+
+
+    /**
+     * Set orientation and minimum top and bottom margins for the whole document by copying the cached section properties 
+     * from {@link DocumentSkeletonCache}. Equivalent to calling {@link #setOrientation()} and 
+     * {@link #setDocumentMargins(Integer, Integer, Integer, Integer)} but without building the xml objects again.
+     */
+    public DocumentBuilder setUpSkeleton() {
+
+        log.info("Setting up document skeleton...");
+
+        DocumentSkeletonCache.applyTo(this.document.getDocument().getBody(), this.landscape);
+
         return this;
     }
 
@@ -306,6 +472,65 @@ public class DocumentBuilder {
     }
 
 
+    /**
+     * Override setter for {@link #isCompactEmptyLines} to return {@code this}.
+     * 
+     * @param isCompactEmptyLines if true, blank lines hold no runs but set the font on the paragraph mark
+     * @return this
+     */
+    public DocumentBuilder setIsCompactEmptyLines(boolean isCompactEmptyLines) {
+
+        this.isCompactEmptyLines = isCompactEmptyLines;
+
+        return this;
+    }
+
+
+    /**
+     * @param isFillTablesByRow false to fill tables cell by cell even if they could be filled by {@link #addTable(int, int)}
+     * @return this
+     */
+    DocumentBuilder setIsFillTablesByRow(boolean isFillTablesByRow) {
+
+        this.isFillTablesByRow = isFillTablesByRow;
+
+        return this;
+    }
+
+
+    /**
+     * Override setter for {@link #isUseStyleCatalog} to return {@code this}.
+     * 
+     * @param isUseStyleCatalog if true, distinct styles are added once as named styles and paragraphs only refer to them
+     * @return this
+     */
+    public DocumentBuilder setIsUseStyleCatalog(boolean isUseStyleCatalog) {
+
+        log.info((isUseStyleCatalog ? "U" : "Not u") + "sing style catalog...");
+
+        this.isUseStyleCatalog = isUseStyleCatalog;
+
+        return this;
+    }
+
+
+    /**
+     * Add all named styles collected in {@link #styleCatalog} to the 'styles.xml' of {@code this.document}. Should be called 
+     * after calling {@link #addContent()} because styles are collected while adding content.
+     */
+    public DocumentBuilder addStyleCatalog() {
+
+        if (this.styleCatalog.isEmpty())
+            return this;
+
+        log.info("Adding style catalog...");
+
+        this.document.createStyles().setStyles(this.styleCatalog.getCTStyles());
+
+        return this;
+    }
+
+
     /**
      * Adds {@link BasicParagraph} from content list at given index to the document. This includes text and style. <p>
 
@@ -325,22 +550,187 @@ public class DocumentBuilder {
         if (paragraph == null)
             return null;
 
+        RenderPlan renderPlan = getRenderPlan();
+        String styleId = this.isUseRenderPlanStyleIds ? renderPlan.getStyleId(currentContentIndex) : null;
+
         // case: blank text
-        if (StringUtils.isBlank(basicParagraph.getText())) 
-            addEmptyParagraph(paragraph, basicParagraph.getStyle());
+        if (renderPlan.isEmpty(currentContentIndex)) 
+            addEmptyParagraph(paragraph, basicParagraph.getStyle(), styleId);
 
         else {
             // add text
             addText(paragraph, basicParagraph, currentContentIndex);
             
             // add style
-            applyStyle(paragraph, basicParagraph.getStyle());
+            applyStyle(paragraph, basicParagraph.getStyle(), styleId);
         }
 
         return paragraph;
     }
 
 
+    /**
+     * Checks whether the table starting at given index can be filled at once by {@link #addTable(int, int)}. Tables covering
+     * the single column lines are filled cell by cell, since paragraphs around them depend on single cell positions.
+     * 
+     * @param currentContentIndex index of the {@link #content} element currently processed
+     * @return the last content index of the table or -1 if given index is not the first cell of a table that can be filled
+     *         at once
+     */
+    private int getBulkTableEndIndex(int currentContentIndex) {
+
+        RenderPlan renderPlan = getRenderPlan();
+        int tableIndex = renderPlan.getTableIndex(currentContentIndex);
+
+        // case: not the first cell of a table or filled cell by cell
+        if (tableIndex == -1 || !this.isUseStyleCatalog || !this.isFillTablesByRow || (currentContentIndex > 0 && renderPlan.getTableIndex(currentContentIndex - 1) == tableIndex))
+            return -1;
+
+        int endIndex = currentContentIndex;
+        while (endIndex + 1 < renderPlan.size() && renderPlan.getTableIndex(endIndex + 1) == tableIndex)
+            endIndex++;
+
+        // case: covers single column lines
+        if (this.numSingleColumnLines + 1 >= currentContentIndex && this.numSingleColumnLines <= endIndex)
+            return -1;
+
+        return endIndex;
+    }
+
+
+    /**
+     * Fill the table at given content indices one row at a time. The first cell of each distinct style is styled like 
+     * {@link #addParagraph(int)} does, other cells with that style copy its paragraph and run properties.
+     * 
+     * @param startIndex content index of the first cell
+     * @param endIndex content index of the last cell
+     */
+    private void addTable(int startIndex, int endIndex) {
+
+        RenderPlan renderPlan = getRenderPlan();
+
+        BasicParagraph firstCell = this.content.get(startIndex);
+        Style tableStyle = firstCell == null ? null : firstCell.getStyle();
+        XWPFTable table = this.tableUtils.getTable(renderPlan.getTableIndex(startIndex), startIndex, this.content.size(), tableStyle);
+
+        Map<CellStyleKey, CellTemplate> cellTemplates = new HashMap<>();
+        List<XWPFTableCell> rowCells = null;
+        int currentRow = -1;
+
+        for (int i = startIndex; i <= endIndex; i++) {
+            // case: next row
+            if (renderPlan.getRow(i) != currentRow) {
+                currentRow = renderPlan.getRow(i);
+                rowCells = table.getRow(currentRow).getTableCells();
+            }
+
+            XWPFParagraph paragraph = TableUtils.getCellParagraph(rowCells.get(renderPlan.getColumn(i)));
+
+            addTableCell(paragraph, i, cellTemplates);
+        }
+    }
+
+
+    /**
+     * Add text and style of a table cell, copying the properties of a previous cell with the same style if possible.
+     * 
+     * @param paragraph of the table cell
+     * @param currentContentIndex index of the {@link #content} element currently processed
+     * @param cellTemplates properties of cells styled before in this table
+     */
+    private void addTableCell(XWPFParagraph paragraph, int currentContentIndex, Map<CellStyleKey, CellTemplate> cellTemplates) {
+
+        BasicParagraph basicParagraph = this.content.get(currentContentIndex);
+        if (basicParagraph == null)
+            throw new ApiException("Failed to add paragraph. 'basicParagraph' cannot be null");
+
+        RenderPlan renderPlan = getRenderPlan();
+        Style style = basicParagraph.getStyle();
+
+        // case: blank text
+        if (renderPlan.isEmpty(currentContentIndex)) {
+            addEmptyParagraph(paragraph, style, this.isUseRenderPlanStyleIds ? renderPlan.getStyleId(currentContentIndex) : null);
+            return;
+        }
+
+        // case: picture, cannot be copied
+        if (renderPlan.isPicture(currentContentIndex)) {
+            addText(paragraph, basicParagraph, currentContentIndex);
+            applyStyle(paragraph, style, null);
+            return;
+        }
+
+        addTableCellText(paragraph, basicParagraph.getText(), style, cellTemplates);
+    }
+
+
+    /**
+     * Add given text to a table cell. The first cell of each distinct style is styled like {@link #addParagraph(int)} does,
+     * other cells with that style copy its paragraph and run properties.
+     * 
+     * @param paragraph of the table cell
+     * @param text to add, not blank
+     * @param style of the cell
+     * @param cellTemplates properties of cells styled before in this table
+     */
+    private void addTableCellText(XWPFParagraph paragraph, String text, Style style, Map<CellStyleKey, CellTemplate> cellTemplates) {
+
+        CellStyleKey cellStyleKey = CellStyleKey.of(style);
+        CellTemplate cellTemplate = cellStyleKey == null ? null : cellTemplates.get(cellStyleKey);
+
+        // case: first cell with this style, or cell that cannot be copied
+        if (cellTemplate == null) {
+            this.tableUtils.fillTableCell(paragraph, text, style);
+            applyStyle(paragraph, style, null);
+
+            if (cellStyleKey != null)
+                cellTemplates.putIfAbsent(cellStyleKey, new CellTemplate((CTPPr) paragraph.getCTP().getPPr().copy(), (CTRPr) paragraph.getRuns().get(0).getCTR().getRPr().copy()));
+
+            return;
+        }
+
+        paragraph.getCTP().setPPr(cellTemplate.paragraphProperties());
+
+        XWPFRun run = paragraph.createRun();
+        run.getCTR().setRPr(cellTemplate.runProperties());
+        run.setText(text);
+    }
+
+
+    /**
+     * Add the table of given config replacing the paragraph at given index, filled with the config's rows. No
+     * {@link BasicParagraph} is created for the cells.
+     * 
+     * @param currentContentIndex index of the paragraph to replace, the start index of the table config
+     * @param tableConfig with rows
+     * @see TableConfig#getCellStyle(int, int, Style)
+     */
+    private void addTableWithRows(int currentContentIndex, TableConfig tableConfig) {
+
+        BasicParagraph replacedParagraph = this.content.get(currentContentIndex);
+        Style defaultStyle = replacedParagraph == null ? null : replacedParagraph.getStyle();
+
+        XWPFTable table = this.tableUtils.getTable(getRenderPlan().getTableIndex(currentContentIndex), currentContentIndex, this.content.size(), tableConfig.getCellStyle(0, 0, defaultStyle));
+
+        Map<CellStyleKey, CellTemplate> cellTemplates = new HashMap<>();
+
+        for (int row = 0; row < tableConfig.getNumRows(); row++) {
+            List<XWPFTableCell> rowCells = table.getRow(row).getTableCells();
+
+            for (int col = 0; col < tableConfig.getNumColumns(); col++) {
+                XWPFParagraph paragraph = TableUtils.getCellParagraph(rowCells.get(col));
+                String text = tableConfig.getCellText(row, col);
+                Style style = tableConfig.getCellStyle(row, col, defaultStyle);
+
+                if (StringUtils.isBlank(text))
+                    addEmptyParagraph(paragraph, style, null);
+                else
+                    addTableCellText(paragraph, text, style, cellTemplates);
+            }
+        }
+    }
+
+
     /**
      * Adds an {@link XWPFParagraph} to the document either for the header, the footer or the main content. <p>
      * 
@@ -356,28 +746,30 @@ public class DocumentBuilder {
      */
     XWPFParagraph createParagraphByContentIndex(int currentContentIndex, Style style) {
 
-        // case: table
-        if (this.tableUtils != null && this.tableUtils.isTableIndex(currentContentIndex))
-            return this.tableUtils.createTableParagraph(currentContentIndex, this.content.size(), style);
+        RenderPlan renderPlan = getRenderPlan();
 
-        // case: header
-        if (currentContentIndex == 0)
-            // case: not blank
-            if (!this.content.get(currentContentIndex).getText().isBlank())
+        switch (renderPlan.getKind(currentContentIndex)) {
+            case TABLE_CELL:
+                return this.tableUtils.createTableParagraph(renderPlan.getTableIndex(currentContentIndex), 
+                                                            renderPlan.getRow(currentContentIndex), 
+                                                            renderPlan.getColumn(currentContentIndex), 
+                                                            currentContentIndex, 
+                                                            this.content.size(), 
+                                                            style);
+
+            case HEADER:
                 return this.document.createHeader(HeaderFooterType.DEFAULT).createParagraph();
-            else
-                return null;
 
-        // case: footer
-        if (currentContentIndex == this.content.size() - 1)
-            // case: not blank
-            if (!this.content.get(currentContentIndex).getText().isBlank())
+            case FOOTER:
                 return this.document.createFooter(HeaderFooterType.DEFAULT).createParagraph();
-            else
+
+            // case: blank header or footer
+            case SKIPPED:
                 return null;
 
-        // case: any other
-        return this.document.createParagraph();
+            default:
+                return this.document.createParagraph();
+        }
     }
 
 
@@ -414,13 +806,30 @@ public class DocumentBuilder {
      * @return the altered paragraph
      */
     private XWPFParagraph addEmptyParagraph(XWPFParagraph paragraph, Style style) {
+
+        return addEmptyParagraph(paragraph, style, null);
+    }
+
+
+    /**
+     * Same as {@link #addEmptyParagraph(XWPFParagraph, Style)} but using given named style id if not null.
+     * 
+     * @param paragraph to add text and styles to
+     * @param style to use
+     * @param styleId id of the named style matching {@code style}, may be null
+     * @return the altered paragraph
+     */
+    private XWPFParagraph addEmptyParagraph(XWPFParagraph paragraph, Style style, String styleId) {
         
         if (paragraph == null)
             paragraph = this.document.createParagraph();
 
+        if (this.isCompactEmptyLines)
+            return addCompactEmptyParagraph(paragraph, style, styleId);
+
         paragraph.createRun();
         // apply default style
-        applyStyle(paragraph, style);
+        applyStyle(paragraph, style, styleId);
         
         // add invisible text
         XWPFRun fillerRun = paragraph.getRuns().get(0);
@@ -436,6 +845,45 @@ public class DocumentBuilder {
     }
 
 
+    /**
+     * Set font family and size of given style on the paragraph mark, so the line has the same height as one holding text. No
+     * runs are added, unless the style has a break type. Tab stops are left out, since there is no text to align.
+     * 
+     * @param paragraph to style
+     * @param style to use
+     * @param styleId id of the named style matching {@code style}, may be null
+     * @return the altered paragraph
+     */
+    private XWPFParagraph addCompactEmptyParagraph(XWPFParagraph paragraph, Style style, String styleId) {
+
+        if (style == null)
+            return paragraph;
+
+        if (this.isUseStyleCatalog)
+            paragraph.setStyle(styleId != null ? styleId : this.styleCatalog.getStyleId(style, this.isTabStopsByFontSize));
+        else
+            paragraph.setSpacingAfter(NO_LINE_SPACE);
+
+        paragraph.setAlignment(style.getTextAlign());
+
+        CTPPr pPr = paragraph.getCTP().isSetPPr() ? paragraph.getCTP().getPPr() : paragraph.getCTP().addNewPPr();
+        CTParaRPr paragraphMarkProperties = pPr.isSetRPr() ? pPr.getRPr() : pPr.addNewRPr();
+
+        CTFonts fonts = paragraphMarkProperties.addNewRFonts();
+        fonts.setAscii(style.getFontFamily());
+        fonts.setHAnsi(style.getFontFamily());
+        fonts.setEastAsia(style.getFontFamily());
+        fonts.setCs(style.getFontFamily());
+
+        paragraphMarkProperties.addNewSz().setVal(BigInteger.valueOf(style.getFontSize() * 2));
+
+        if (style.getBreakType() != null)
+            paragraph.createRun().addBreak(style.getBreakType());
+
+        return paragraph;
+    }
+
+
     /**
      * Adds the "text" class variable of {@link BasicParagraph} to given {@link XWPFRun}. <p>
      * 
@@ -452,19 +900,22 @@ public class DocumentBuilder {
 
         String text = basicParagraph.getText();
 
+        RenderPlan renderPlan = getRenderPlan();
+        boolean isTableCell = renderPlan.getKind(currentContentIndex) == ContentKind.TABLE_CELL;
+
         // case: picture inside table
-        if (this.tableUtils != null && this.tableUtils.isTableIndex(currentContentIndex) && PictureUtils.isPicture(text)) {
+        if (isTableCell && renderPlan.isPicture(currentContentIndex)) {
             log.warn("Failed to picture " + text + ". Cannot add picture inside table. Adding plain text instead.");
             addPlainTextToRun(paragraph.createRun(), text + "(Cannot add picture inside table)");
             return;
         }
 
         // case: picture
-        if (PictureUtils.isPicture(text))
-            this.pictureUtils.addPicture(paragraph.createRun(), text);
+        if (renderPlan.isPicture(currentContentIndex))
+            this.pictureUtils.addPicture(paragraph.createRun(), renderPlan.getPictureName(currentContentIndex));
         
         // case: table cell
-        else if (this.tableUtils != null && this.tableUtils.isTableIndex(currentContentIndex))
+        else if (isTableCell)
             this.tableUtils.fillTableCell(paragraph, text, basicParagraph.getStyle());
             
         // case: plain text
@@ -500,7 +951,9 @@ public class DocumentBuilder {
 
 
     /**
-     * Add style to given {@link XWPFParagraph}. Is skipped if either paragraph or style are null.
+     * Add style to given {@link XWPFParagraph}. Is skipped if either paragraph or style are null.<p>
+     * 
+     * If {@link #isUseStyleCatalog} the paragraph only refers to a named style, text align and break type are still set directly.
      * 
      * @param paragraph to apply the style to
      * @param style information to use
@@ -508,48 +961,37 @@ public class DocumentBuilder {
      */
     void applyStyle(XWPFParagraph paragraph, Style style) {
 
-        if (paragraph == null || style == null)
-            return;
-
-        paragraph.getRuns().forEach(run -> {
-            run.setFontSize(style.getFontSize());
-
-            run.setFontFamily(style.getFontFamily());
-
-            run.setColor(style.getColor());
-
-            run.setBold(style.getBold());
-
-            run.setItalic(style.getItalic());
-
-            if (style.getBreakType() != null) 
-                run.addBreak(style.getBreakType());
-
-            if (style.getUnderline()) 
-                run.setUnderline(UnderlinePatterns.SINGLE);
-        });
+        applyStyle(paragraph, style, null);
+    }
 
-        paragraph.setAlignment(style.getTextAlign());
 
-        paragraph.setSpacingAfter(NO_LINE_SPACE);
+    /**
+     * Same as {@link #applyStyle(XWPFParagraph, Style)} but using given named style id instead of looking it up in 
+     * {@link #styleCatalog}.
+     * 
+     * @param paragraph to apply the style to
+     * @param style information to use
+     * @param styleId id of the named style matching {@code style}, looked up if null
+     */
+    private void applyStyle(XWPFParagraph paragraph, Style style, String styleId) {
 
-        if (this.isTabStopsByFontSize)
-            setTabStopsByFontSize(paragraph, style.getFontSize());
+        getStyleApplier().applyStyle(paragraph, style, styleId);
     }
 
 
     /**
-     * Add tab stops proportional to given font size for the whole paragraph.
+     * Get {@link #styleApplier} or create a new one if the style settings have changed since.
      * 
-     * @param paragraph to set tab stops for
-     * @param fontSize to use for size calculation
+     * @return applier matching {@link #isUseStyleCatalog}, {@link #styleCatalog} and {@link #isTabStopsByFontSize}
      */
-    private void setTabStopsByFontSize(XWPFParagraph paragraph, int fontSize) {
+    private StyleApplier getStyleApplier() {
 
-        for (int i = 0; i < 17; i++) {
-            CTTabStop tabStop = paragraph.getCTP().getPPr().addNewTabs().addNewTab();
-            tabStop.setPos(BigInteger.valueOf((i + 1) * 36 * fontSize));
-        }
+        StyleCatalog styleCatalog = this.isUseStyleCatalog ? this.styleCatalog : null;
+
+        if (this.styleApplier == null || !this.styleApplier.isFor(styleCatalog, this.isTabStopsByFontSize))
+            this.styleApplier = new StyleApplier(styleCatalog, this.isTabStopsByFontSize);
+
+        return this.styleApplier;
     }
 
 
@@ -603,9 +1045,12 @@ public class DocumentBuilder {
         if (ctSectPr == null)
             ctSectPr = getSectPr();
 
-        CTSectType ctSectType = CTSectType.Factory.newInstance();
+        // case: already set up
+        if (ctSectPr.isSetType() && STSectionMark.CONTINUOUS.equals(ctSectPr.getType().getVal()))
+            return ctSectPr;
+
+        CTSectType ctSectType = ctSectPr.isSetType() ? ctSectPr.getType() : ctSectPr.addNewType();
         ctSectType.setVal(STSectionMark.CONTINUOUS);
-        ctSectPr.setType(ctSectType);
 
         return ctSectPr;
     }
@@ -667,6 +1112,7 @@ public class DocumentBuilder {
      * 
      * @param fileName name and suffix of the .docx file
      * @return XWPFDocument of the file or an empty one in case of exception
+     * @see DocxTemplate for templates that are filled in repeatedly
      */
     XWPFDocument readDocxFile(String fileName) {
 
@@ -701,8 +1147,7 @@ public class DocumentBuilder {
 
         try (OutputStream os = new FileOutputStream(completeFileName)) {
 
-            this.document.write(os);
-            this.document.close();
+            write(os);
 
             File docxFile = new File(completeFileName);
 
@@ -720,16 +1165,51 @@ public class DocumentBuilder {
 
 
     /**
-     * Convert any .docx file to .pdf file and store in {@link #PDF_FOLDER}.<p>
+     * Writes the {@link XWPFDocument} to given stream and closes the document. Does not close the stream.<p>
+     * 
+     * POI always uses default compression, so for {@link OutputProfile#COMPACT} the package is written again. This is not
+     * done for {@link OutputProfile#FAST} since repacking would take longer than it saves.
+     * 
+     * @param os to write the .docx file to
+     */
+    public void write(OutputStream os) {
+
+        long start = System.nanoTime();
+
+        try {
+            if (this.outputProfile == OutputProfile.COMPACT) {
+                ByteArrayOutputStream packageStream = new ByteArrayOutputStream();
+                this.document.write(packageStream);
+                this.outputProfile.repackage(new ByteArrayInputStream(packageStream.toByteArray()), os);
+
+            } else
+                this.document.write(os);
+
+            this.document.close();
+
+            BuildMetrics.record(BuildMetrics.WRITE, System.nanoTime() - start);
+
+        } catch (IOException e) {
+            throw new ApiException("Failed to write .docx file.", e);
+        }
+    }
+
+
+    /**
+     * Convert any .docx file to .pdf file and store in {@link #PDF_FOLDER}. The .docx file is not deleted, that's up to the
+     * caller.<p>
      * 
      * @param docxInputStream inputStream of .docx file
-     * @param pdfFileName name and suffix of pdf file (no relative path, file is expected to be located inside {@link #PDF_FOLDER})
+     * @param pdfFileName name and suffix of pdf file (no relative path, file is expected to be located inside {@link #PDF_FOLDER}).
+     *                    Should be unique, since all sessions share that folder
      * @return pdf file if conversion was successful
      * @throws ApiException
      */
     public static File docxToPdfDocuments4j(InputStream docxInputStream, String pdfFileName) {
 
         log.info("Converting .docx to .pdf...");
+
+        long start = System.nanoTime();
         
         try (OutputStream os = new FileOutputStream(PDF_FOLDER + prependSlash(pdfFileName))) {
             IConverter converter = LocalConverter.builder().build();
@@ -742,14 +1222,14 @@ public class DocumentBuilder {
 
             converter.shutDown();
 
+            BuildMetrics.record(BuildMetrics.PDF, System.nanoTime() - start);
+
             return new File(PDF_FOLDER + prependSlash(pdfFileName));
 
         } catch (Exception e) {
             throw new ApiException("Failed to convert .docx to .pdf.", e);
             
         } finally {
-            // remove .docx file
-            Utils.clearFolderByFileName(DOCX_FOLDER, pdfFileName);
             log.info("Finished converting .docx to .pdf");
         }
     }
@@ -772,4 +1252,30 @@ public class DocumentBuilder {
             throw new ApiException("Failed to convert .docx to .pdf.", e);
         }
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Attributes of a {@link Style} that end up in the properties of a table cell.
+     */
+    private record CellStyleKey(Integer fontSize, String fontFamily, String color, Boolean bold, Boolean italic, Boolean underline, ParagraphAlignment textAlign) {
+
+        /**
+         * @param style of the cell, may be null
+         * @return the key of given style or null if cells with given style cannot be copied
+         */
+        static CellStyleKey of(Style style) {
+
+            // case: breaks are added as run content, not as property
+            if (style == null || style.getBreakType() != null)
+                return null;
+
+            return new CellStyleKey(style.getFontSize(), style.getFontFamily(), style.getColor(), style.getBold(), style.getItalic(), style.getUnderline(), style.getTextAlign());
+        }
+    }
+
+
+    /**
+     * Properties of a styled table cell, copied to other cells with the same style.
+     */
+    private record CellTemplate(CTPPr paragraphProperties, CTRPr runProperties) {}
+}
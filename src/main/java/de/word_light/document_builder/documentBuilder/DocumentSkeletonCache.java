@@ -0,0 +1,69 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.MINIMUM_MARGIN_BOTTOM;
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.MINIMUM_MARGIN_TOP;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBody;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+
+import de.word_light.document_builder.exception.ApiException;
+
+
+/**
+ * Caches the pre-configured section properties (section type, page size, orientation and margins) every new document
+ * starts with. There are only two of them, one per orientation, so they are built once and then copied into each new
+ * document instead of being assembled again by {@link DocumentBuilder#setOrientation()} and
+ * {@link DocumentBuilder#setDocumentMargins(Integer, Integer, Integer, Integer)}.<p>
+ *
+ * Columns are not part of the skeleton since they have to be set after the content has been added.
+ *
+ * @since 0.1.0
+ * @see DocumentBuilder#setUpSkeleton()
+ */
+public class DocumentSkeletonCache {
+
+    /** orientation (true for landscape) and the section properties to copy, never altered after creation */
+    private static final Map<Boolean, CTSectPr> SECT_PRS = new ConcurrentHashMap<>();
+
+
+    /**
+     * Replace the section properties of given body with a copy of the cached skeleton.
+     *
+     * @param body of the document to set the section properties for
+     * @param landscape true if document should be in landscape mode, else portrait is used
+     */
+    public static void applyTo(CTBody body, boolean landscape) {
+
+        // setSectPr() copies the skeleton
+        body.setSectPr(SECT_PRS.computeIfAbsent(landscape, DocumentSkeletonCache::createSectPr));
+    }
+
+
+    /**
+     * Build the section properties the same way {@link DocumentBuilder#build()} used to do for every document.
+     *
+     * @param landscape true if document should be in landscape mode, else portrait is used
+     * @return detached section properties
+     */
+    private static CTSectPr createSectPr(boolean landscape) {
+
+        try (XWPFDocument document = new XWPFDocument()) {
+            DocumentBuilder documentBuilder = new DocumentBuilder();
+            documentBuilder.setDocument(document);
+            documentBuilder.setLandscape(landscape);
+
+            documentBuilder.setOrientation()
+                           .setDocumentMargins(MINIMUM_MARGIN_TOP, null, MINIMUM_MARGIN_BOTTOM, null);
+
+            return (CTSectPr) document.getDocument().getBody().getSectPr().copy();
+
+        } catch (IOException e) {
+            throw new ApiException("Failed to create document skeleton.", e);
+        }
+    }
+}
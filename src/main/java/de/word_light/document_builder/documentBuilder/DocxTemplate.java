@@ -0,0 +1,290 @@
+package de.word_light.document_builder.documentBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.springframework.http.HttpStatus;
+
+import de.word_light.document_builder.exception.ApiException;
+import lombok.Getter;
+
+
+/**
+ * A .docx file parsed once and split into static bytes and {@code ${...}} placeholders, so filling it in only needs to
+ * join the pieces with the values. Placeholders use the same syntax as pictures (see {@link PictureUtils#isPicture(String)}),
+ * but are always replaced with text.<p>
+ *
+ * Word often splits a placeholder into multiple runs. When parsing, the text of such a paragraph is moved into its first
+ * run, so the paragraph keeps the formatting of that run.<p>
+ *
+ * Immutable after parsing, so one instance can be filled from multiple threads at once.
+ *
+ * @since 0.1.0
+ */
+public class DocxTemplate {
+
+    /** placeholder like {@code ${someName}}, the name is captured */
+    public static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\$\\{([A-Za-z0-9_.\\- ]+)\\}");
+
+    @Getter
+    private final String id;
+
+    @Getter
+    private final String fileName;
+
+    /** names of all placeholders in order of first appearance */
+    @Getter
+    private final Set<String> placeholders;
+
+    /** entries of the .docx package in original order */
+    private final List<TemplatePart> parts;
+
+
+    private DocxTemplate(String id, String fileName, Set<String> placeholders, List<TemplatePart> parts) {
+
+        this.id = id;
+        this.fileName = fileName;
+        this.placeholders = Collections.unmodifiableSet(placeholders);
+        this.parts = List.copyOf(parts);
+    }
+
+
+    /**
+     * Parse given .docx file and index its placeholders.
+     *
+     * @param id to identify the template by
+     * @param fileName of the .docx file
+     * @param is .docx file to parse, is not closed
+     * @return the parsed template
+     * @throws ApiException 422 if the file cannot be parsed as .docx
+     */
+    public static DocxTemplate parse(String id, String fileName, InputStream is) {
+
+        byte[] packageBytes;
+        try (XWPFDocument document = new XWPFDocument(is)) {
+            mergeSplitPlaceholders(document);
+
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            document.write(os);
+            packageBytes = os.toByteArray();
+
+        } catch (IOException | RuntimeException e) {
+            throw new ApiException(HttpStatus.UNPROCESSABLE_ENTITY, "Failed to parse template " + fileName + ".", e);
+        }
+
+        Set<String> placeholders = new LinkedHashSet<>();
+        List<TemplatePart> parts = new ArrayList<>();
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(packageBytes))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null)
+                parts.add(TemplatePart.parse(entry.getName(), zip.readAllBytes(), placeholders));
+
+        } catch (IOException e) {
+            throw new ApiException("Failed to index template " + fileName + ".", e);
+        }
+
+        return new DocxTemplate(id, fileName, placeholders, parts);
+    }
+
+
+    /**
+     * Write a copy of this template with placeholders replaced by given values. Placeholders without value are kept as
+     * they are, values without placeholder are ignored.
+     *
+     * @param values placeholder name (without braces) and text to replace it with
+     * @param outputProfile compression of the .docx file
+     * @param os to write the .docx file to, is not closed
+     */
+    public void fill(Map<String, String> values, OutputProfile outputProfile, OutputStream os) {
+
+        try {
+            ZipOutputStream zip = outputProfile.createZipOutputStream(os);
+
+            for (TemplatePart part : this.parts)
+                outputProfile.writeEntry(zip, part.name(), part.fill(values));
+
+            zip.finish();
+
+        } catch (IOException e) {
+            throw new ApiException("Failed to fill template " + this.fileName + ".", e);
+        }
+    }
+
+
+    /**
+     * Move the text of paragraphs containing a placeholder that does not fit into a single run into the first run.
+     *
+     * @param document to alter
+     */
+    private static void mergeSplitPlaceholders(XWPFDocument document) {
+
+        document.getParagraphs().forEach(DocxTemplate::mergeSplitPlaceholders);
+        document.getTables().forEach(DocxTemplate::mergeSplitPlaceholders);
+
+        List<XWPFHeaderFooter> headerFooters = new ArrayList<>(document.getHeaderList());
+        headerFooters.addAll(document.getFooterList());
+        for (XWPFHeaderFooter headerFooter : headerFooters) {
+            headerFooter.getParagraphs().forEach(DocxTemplate::mergeSplitPlaceholders);
+            headerFooter.getTables().forEach(DocxTemplate::mergeSplitPlaceholders);
+        }
+    }
+
+
+    private static void mergeSplitPlaceholders(XWPFTable table) {
+
+        for (XWPFTableRow row : table.getRows())
+            for (XWPFTableCell cell : row.getTableCells()) {
+                cell.getParagraphs().forEach(DocxTemplate::mergeSplitPlaceholders);
+                cell.getTables().forEach(DocxTemplate::mergeSplitPlaceholders);
+            }
+    }
+
+
+    private static void mergeSplitPlaceholders(XWPFParagraph paragraph) {
+
+        List<XWPFRun> runs = paragraph.getRuns();
+        if (runs.size() < 2)
+            return;
+
+        StringBuilder text = new StringBuilder();
+        runs.forEach(run -> text.append(run.text()));
+
+        // case: no split placeholder
+        if (!hasSplitPlaceholder(text.toString(), runs))
+            return;
+
+        runs.get(0).setText(text.toString(), 0);
+        for (int i = runs.size() - 1; i > 0; i--)
+            paragraph.removeRun(i);
+    }
+
+
+    private static boolean hasSplitPlaceholder(String text, List<XWPFRun> runs) {
+
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(text);
+        while (matcher.find()) {
+            String placeholder = matcher.group();
+
+            if (runs.stream().noneMatch(run -> run.text().contains(placeholder)))
+                return true;
+        }
+
+        return false;
+    }
+
+
+    /**
+     * @param text to escape
+     * @return given text with xml special chars escaped, so it can be written as element content
+     */
+    static String escapeXml(String text) {
+
+        StringBuilder escaped = new StringBuilder(text.length());
+
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> escaped.append(c);
+            }
+        }
+
+        return escaped.toString();
+    }
+
+
+    /**
+     * One entry of the package. Parts without placeholders are kept as bytes, others as the utf-8 bytes between the
+     * placeholders.
+     *
+     * @param name entry name inside the package
+     * @param segments bytes before, between and after the placeholders. Exactly one segment if there are no placeholders
+     * @param placeholderNames names of the placeholders between the segments
+     */
+    private record TemplatePart(String name, byte[][] segments, String[] placeholderNames) {
+
+        static TemplatePart parse(String name, byte[] bytes, Set<String> placeholders) {
+
+            // case: binary part
+            if (!name.endsWith(".xml"))
+                return new TemplatePart(name, new byte[][] {bytes}, new String[0]);
+
+            String xml = new String(bytes, StandardCharsets.UTF_8);
+            Matcher matcher = PLACEHOLDER_PATTERN.matcher(xml);
+
+            List<byte[]> segments = new ArrayList<>();
+            List<String> placeholderNames = new ArrayList<>();
+            int segmentStart = 0;
+            while (matcher.find()) {
+                segments.add(xml.substring(segmentStart, matcher.start()).getBytes(StandardCharsets.UTF_8));
+                placeholderNames.add(matcher.group(1));
+                segmentStart = matcher.end();
+            }
+
+            // case: no placeholders
+            if (placeholderNames.isEmpty())
+                return new TemplatePart(name, new byte[][] {bytes}, new String[0]);
+
+            segments.add(xml.substring(segmentStart).getBytes(StandardCharsets.UTF_8));
+            placeholders.addAll(placeholderNames);
+
+            return new TemplatePart(name, segments.toArray(byte[][]::new), placeholderNames.toArray(String[]::new));
+        }
+
+
+        /**
+         * @param values placeholder names and values
+         * @return bytes of this part with placeholders replaced
+         */
+        byte[] fill(Map<String, String> values) {
+
+            // case: no placeholders
+            if (this.placeholderNames.length == 0)
+                return this.segments[0];
+
+            int size = 0;
+            for (byte[] segment : this.segments)
+                size += segment.length;
+
+            ByteArrayOutputStream os = new ByteArrayOutputStream(size + 32 * this.placeholderNames.length);
+
+            for (int i = 0; i < this.placeholderNames.length; i++) {
+                os.writeBytes(this.segments[i]);
+
+                String placeholderName = this.placeholderNames[i];
+                String value = values.get(placeholderName);
+                String text = value == null ? "${" + placeholderName + "}" : escapeXml(value);
+                os.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+            }
+
+            os.writeBytes(this.segments[this.segments.length - 1]);
+
+            return os.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package de.word_light.document_builder.documentBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+
+
+/**
+ * Keeps the rendered xml of body paragraphs and tables between writes of the same document, so a
+ * {@link StreamingDocumentWriter} only has to render what has changed since the last write.<p>
+ *
+ * Fragments refer to named styles by id, so the {@link StyleCatalog} is kept as well. Fragments not used by the latest
+ * write are dropped when the next one starts.
+ *
+ * @since 0.1.0
+ * @see StreamingDocumentWriter#setFragmentCache(FragmentCache)
+ */
+public class FragmentCache {
+
+    /** shared by all writes sothat style ids of cached fragments stay valid */
+    @Getter
+    private final StyleCatalog styleCatalog = new StyleCatalog();
+
+    /** fragments used by the current write */
+    private volatile Map<Object, byte[]> fragments = new ConcurrentHashMap<>();
+
+    /** fragments used by the previous write */
+    private volatile Map<Object, byte[]> previousFragments = Map.of();
+
+    private final AtomicInteger numMisses = new AtomicInteger();
+
+
+    /**
+     * Drop all fragments that have not been used by the last write. Call once before every write.
+     */
+    synchronized void startWrite() {
+
+        this.previousFragments = this.fragments;
+        this.fragments = new ConcurrentHashMap<>();
+        this.numMisses.set(0);
+    }
+
+
+    /**
+     * @param key identifying everything the fragment's xml depends on
+     * @return the cached fragment or null if it has not been rendered by the current or previous write
+     */
+    byte[] get(Object key) {
+
+        byte[] fragment = this.fragments.get(key);
+        if (fragment == null)
+            fragment = this.previousFragments.get(key);
+
+        if (fragment == null)
+            this.numMisses.incrementAndGet();
+
+        return fragment;
+    }
+
+
+    /**
+     * Keep given fragment for the next write.
+     *
+     * @param key identifying everything the fragment's xml depends on
+     * @param fragment rendered xml
+     */
+    void put(Object key, byte[] fragment) {
+
+        this.fragments.put(key, fragment);
+    }
+
+
+    /**
+     * @return number of fragments that had to be rendered by the current write
+     */
+    public int getNumMisses() {
+
+        return this.numMisses.get();
+    }
+}
@@ -0,0 +1,220 @@
+package de.word_light.document_builder.documentBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpStatus;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.exception.ApiException;
+import lombok.Getter;
+
+
+/**
+ * A {@link DocumentWrapper} used as layout for a mail merge. Texts are split at their {@code ${...}} placeholders and the
+ * {@link RenderPlan} is compiled once, so each row only needs to join the pieces with its values.<p>
+ *
+ * Placeholders use the same syntax as {@link DocxTemplate}. Pictures like {@code ${somePicture.png}} are placeholders as
+ * well, but are kept as they are unless a row has a value for them.<p>
+ *
+ * Immutable after compiling, so one instance can be filled from multiple threads at once.
+ *
+ * @since 0.1.0
+ */
+public class MergeLayout {
+
+    private final DocumentWrapper layout;
+
+    /** text of each content element split at its placeholders, null if there are none */
+    private final MergeText[] texts;
+
+    private final MergeText fileName;
+
+    /** compiled from the layout's content, valid for rows that don't change blank or picture texts */
+    @Getter
+    private final RenderPlan renderPlan;
+
+    /** names of all placeholders in order of first appearance */
+    @Getter
+    private final Set<String> placeholders;
+
+
+    private MergeLayout(DocumentWrapper layout, MergeText[] texts, MergeText fileName, RenderPlan renderPlan, Set<String> placeholders) {
+
+        this.layout = layout;
+        this.texts = texts;
+        this.fileName = fileName;
+        this.renderPlan = renderPlan;
+        this.placeholders = Collections.unmodifiableSet(placeholders);
+    }
+
+
+    /**
+     * Index the placeholders of given layout and compile its render plan. The layout should not be changed afterwards.
+     *
+     * @param layout document with placeholders in paragraph texts and file name. Should be valid except for placeholders
+     *               in the file name
+     * @return the compiled layout
+     * @throws ApiException 400 if the file name is invalid, not counting its placeholders
+     */
+    public static MergeLayout compile(DocumentWrapper layout) {
+
+        String fileNameWithoutPlaceholders = layout.getFileName() == null ? null : DocxTemplate.PLACEHOLDER_PATTERN.matcher(layout.getFileName()).replaceAll("_");
+        validateFileName(fileNameWithoutPlaceholders);
+
+        List<BasicParagraph> content = layout.getContent();
+        Set<String> placeholders = new LinkedHashSet<>();
+
+        MergeText[] texts = new MergeText[content.size()];
+        for (int i = 0; i < texts.length; i++) {
+            BasicParagraph basicParagraph = content.get(i);
+            if (basicParagraph != null)
+                texts[i] = MergeText.parse(basicParagraph.getText(), placeholders);
+        }
+
+        MergeText fileName = MergeText.parse(layout.getFileName(), placeholders);
+
+        // same tab stop setting as DocumentBuilder.build()
+        RenderPlan renderPlan = RenderPlan.compile(content, layout.getTableConfigs(), true);
+
+        return new MergeLayout(layout, texts, fileName, renderPlan, placeholders);
+    }
+
+
+    /**
+     * Create a copy of the layout with placeholders replaced by given values. Placeholders without value are kept as they
+     * are, values without placeholder are ignored. Paragraphs without placeholders, styles, table configs and pictures
+     * are shared with the layout.
+     *
+     * @param values placeholder name (without braces) and text to replace it with
+     * @return a new wrapper holding the filled texts
+     * @throws ApiException 400 if the filled file name is invalid, e.g. because it still contains a placeholder
+     */
+    public DocumentWrapper fill(Map<String, String> values) {
+
+        String fileName = this.fileName == null ? this.layout.getFileName() : this.fileName.fill(values);
+        validateFileName(fileName);
+
+        List<BasicParagraph> content = new ArrayList<>(this.layout.getContent());
+        for (int i = 0; i < this.texts.length; i++) {
+            MergeText text = this.texts[i];
+            if (text != null)
+                content.set(i, new BasicParagraph(text.fill(values), content.get(i).getStyle()));
+        }
+
+        DocumentWrapper documentWrapper = new DocumentWrapper(content,
+                                                              this.layout.getTableConfigs(),
+                                                              this.layout.isLandscape(),
+                                                              fileName,
+                                                              this.layout.getNumColumns(),
+                                                              this.layout.getNumSingleColumnLines());
+        documentWrapper.setPictures(this.layout.getPictures());
+
+        return documentWrapper;
+    }
+
+
+    /**
+     * @param filled wrapper returned by {@link #fill(Map)}
+     * @return true if {@link #renderPlan} can be used to build given wrapper, false if a value made a text blank, non blank
+     *         or changed a picture, so the plan has to be compiled again
+     */
+    public boolean isRenderPlanValid(DocumentWrapper filled) {
+
+        List<BasicParagraph> content = filled.getContent();
+
+        for (int i = 0; i < this.texts.length; i++) {
+            // case: not changed by values
+            if (this.texts[i] == null)
+                continue;
+
+            String text = content.get(i).getText();
+            boolean isEmpty = StringUtils.isBlank(text);
+            String pictureName = !isEmpty && PictureUtils.isPicture(text) ? PictureUtils.getRawPictureName(text) : null;
+
+            if (isEmpty != this.renderPlan.isEmpty(i) || !Objects.equals(pictureName, this.renderPlan.getPictureName(i)))
+                return false;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Same check as the {@code fileName} constraint of {@link DocumentWrapper}, since filled file names are used as zip entry
+     * names without being validated again.
+     *
+     * @param fileName to check
+     * @throws ApiException 400 if given file name is blank or does not match {@link DocumentWrapper#FILE_NAME_PATTERN}
+     */
+    private static void validateFileName(String fileName) {
+
+        if (StringUtils.isBlank(fileName) || !fileName.matches(DocumentWrapper.FILE_NAME_PATTERN))
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Wrong format of 'fileName' '" + fileName + "'. Check file format and remove special chars (only - . _ are permitted).");
+    }
+
+
+    /**
+     * Text split at its placeholders.
+     *
+     * @param segments text before, between and after the placeholders. One more than placeholder names
+     * @param placeholderNames names of the placeholders between the segments
+     */
+    private record MergeText(String[] segments, String[] placeholderNames) {
+
+        /**
+         * @param text to split, may be null
+         * @param placeholders to add the placeholder names of given text to
+         * @return the split text or null if given text has no placeholders
+         */
+        static MergeText parse(String text, Set<String> placeholders) {
+
+            if (text == null)
+                return null;
+
+            Matcher matcher = DocxTemplate.PLACEHOLDER_PATTERN.matcher(text);
+
+            List<String> segments = new ArrayList<>();
+            List<String> placeholderNames = new ArrayList<>();
+            int segmentStart = 0;
+            while (matcher.find()) {
+                segments.add(text.substring(segmentStart, matcher.start()));
+                placeholderNames.add(matcher.group(1));
+                segmentStart = matcher.end();
+            }
+
+            // case: no placeholders
+            if (placeholderNames.isEmpty())
+                return null;
+
+            segments.add(text.substring(segmentStart));
+            placeholders.addAll(placeholderNames);
+
+            return new MergeText(segments.toArray(String[]::new), placeholderNames.toArray(String[]::new));
+        }
+
+
+        String fill(Map<String, String> values) {
+
+            StringBuilder text = new StringBuilder();
+
+            for (int i = 0; i < this.placeholderNames.length; i++) {
+                text.append(this.segments[i]);
+
+                String placeholderName = this.placeholderNames[i];
+                String value = values.get(placeholderName);
+                text.append(value == null ? "${" + placeholderName + "}" : value);
+            }
+
+            return text.append(this.segments[this.segments.length - 1]).toString();
+        }
+    }
+}
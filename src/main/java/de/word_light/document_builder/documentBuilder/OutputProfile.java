@@ -0,0 +1,118 @@
+package de.word_light.document_builder.documentBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import lombok.Getter;
+
+
+/**
+ * How the zip package of a .docx file is written, trading CPU time for output size.<p>
+ *
+ * - {@link #DEFAULT}: balanced, same as POI does it. <p>
+ * - {@link #FAST}: least CPU time, largest output. Use where bandwidth is cheap, e.g. for batches written to disk. <p>
+ * - {@link #COMPACT}: smallest output, most CPU time. Use where documents are sent over slow connections. <p>
+ *
+ * Pictures are mostly PNG or JPEG which are compressed already, so deflating them again costs time and hardly saves
+ * anything. Run {@code OutputProfileBenchmarkTest} with {@code -Dbenchmark=true} to measure size and time of each profile.
+ *
+ * @since 0.1.0
+ * @see StreamingDocumentWriter#setOutputProfile(OutputProfile)
+ * @see DocumentBuilder#setOutputProfile(OutputProfile)
+ */
+@Getter
+public enum OutputProfile {
+
+    /** default zip compression for every part, same as {@link org.apache.poi.xwpf.usermodel.XWPFDocument#write(OutputStream)} */
+    DEFAULT(Deflater.DEFAULT_COMPRESSION, false),
+
+    /** fastest compression for xml parts, pictures are stored without compressing them */
+    FAST(Deflater.BEST_SPEED, true),
+
+    /** maximum compression for every part */
+    COMPACT(Deflater.BEST_COMPRESSION, false);
+
+
+    /** folder of pictures inside the package */
+    public static final String MEDIA_FOLDER = "word/media/";
+
+    /** {@link Deflater} level used for compressed parts */
+    private final int compressionLevel;
+
+    /** if true, pictures are stored instead of being deflated */
+    private final boolean storeMedia;
+
+
+    OutputProfile(int compressionLevel, boolean storeMedia) {
+
+        this.compressionLevel = compressionLevel;
+        this.storeMedia = storeMedia;
+    }
+
+
+    /**
+     * @param os to write the package to
+     * @return zip stream using the compression level of this profile. Closing it closes {@code os}
+     */
+    public ZipOutputStream createZipOutputStream(OutputStream os) {
+
+        ZipOutputStream zip = new ZipOutputStream(os);
+        zip.setLevel(this.compressionLevel);
+
+        return zip;
+    }
+
+
+    /**
+     * Add a complete entry to given zip. Pictures are stored if {@link #storeMedia} is true.
+     *
+     * @param zip to add the entry to, should be created with {@link #createZipOutputStream(OutputStream)}
+     * @param entryName part name inside the package
+     * @param bytes content of the part
+     * @throws IOException
+     */
+    public void writeEntry(ZipOutputStream zip, String entryName, byte[] bytes) throws IOException {
+
+        ZipEntry entry = new ZipEntry(entryName);
+
+        if (this.storeMedia && entryName.startsWith(MEDIA_FOLDER)) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(bytes.length);
+            entry.setCompressedSize(bytes.length);
+            entry.setCrc(crc.getValue());
+        }
+
+        zip.putNextEntry(entry);
+        zip.write(bytes);
+        zip.closeEntry();
+    }
+
+
+    /**
+     * Write all entries of given package again using this profile. Entry order is kept.
+     *
+     * @param is package to read, is not closed
+     * @param os to write the package to, is not closed
+     * @throws IOException
+     */
+    public void repackage(InputStream is, OutputStream os) throws IOException {
+
+        ZipInputStream zipIn = new ZipInputStream(is);
+        ZipOutputStream zipOut = createZipOutputStream(os);
+
+        ZipEntry entry;
+        while ((entry = zipIn.getNextEntry()) != null)
+            writeEntry(zipOut, entry.getName(), zipIn.readAllBytes());
+
+        zipOut.finish();
+    }
+}
@@ -160,7 +160,7 @@ public class PictureUtils {
      * @param dxa to convert
      * @return EMUs as int
      */
-    private int dxaToEMUs(double dxa) {
+    static int dxaToEMUs(double dxa) {
 
         return (int) Math.round(Units.EMU_PER_DXA * dxa) * 2;
     }
@@ -173,7 +173,7 @@ public class PictureUtils {
      *         If picture is not formatted as expected, return {@code pictureName}.
      *         Return {@code null} if {@code pictureName} is {@code null} or too short
      */
-    private static String getRawPictureName(String pictureName) {
+    static String getRawPictureName(String pictureName) {
 
         try {
             // case: not formatted correctly, assuming is raw already
@@ -0,0 +1,245 @@
+package de.word_light.document_builder.documentBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.TableConfig;
+import de.word_light.document_builder.documentParts.style.Style;
+
+
+/**
+ * Immutable result of classifying every content index of a document once, so {@link DocumentBuilder} does not need to
+ * search the table configs or parse picture names again for each paragraph.<p>
+ *
+ * A plan only depends on the content and the table configs it was compiled from, so it can be reused for any number of
+ * builds of the same layout. Style ids refer to the plan's own {@link StyleCatalog}, builders have to start with a
+ * {@link #copyStyleCatalog() copy} of it.
+ *
+ * @since 0.1.0
+ */
+public final class RenderPlan {
+
+    private final ContentKind[] kinds;
+
+    /** index in table configs, -1 if not a table cell */
+    private final int[] tableIndices;
+
+    private final int[] rows;
+
+    private final int[] columns;
+
+    /** picture name without braces, null if not a picture */
+    private final String[] pictureNames;
+
+    private final boolean[] empty;
+
+    /** named style id, null if the paragraph is not styled by a named style */
+    private final String[] styleIds;
+
+    private final List<TableConfig> tableConfigs;
+
+    private final StyleCatalog styleCatalog;
+
+    private final boolean isTabStopsByFontSize;
+
+
+    private RenderPlan(int size, List<TableConfig> tableConfigs, boolean isTabStopsByFontSize) {
+
+        this.kinds = new ContentKind[size];
+        this.tableIndices = new int[size];
+        this.rows = new int[size];
+        this.columns = new int[size];
+        this.pictureNames = new String[size];
+        this.empty = new boolean[size];
+        this.styleIds = new String[size];
+        this.tableConfigs = List.copyOf(tableConfigs);
+        this.styleCatalog = new StyleCatalog();
+        this.isTabStopsByFontSize = isTabStopsByFontSize;
+
+        Arrays.fill(this.tableIndices, -1);
+    }
+
+
+    /**
+     * Classify each element of given content the way {@link DocumentBuilder} treats it. If table configs overlap, the
+     * first one wins.
+     *
+     * @param content list of {@link BasicParagraph}s, first one is the header, last one the footer
+     * @param tableConfigs tables of the document, may be empty
+     * @param isTabStopsByFontSize whether named styles contain tab stops proportional to the font size
+     * @return the compiled plan
+     */
+    public static RenderPlan compile(List<BasicParagraph> content, List<TableConfig> tableConfigs, boolean isTabStopsByFontSize) {
+
+        int size = content.size();
+        RenderPlan renderPlan = new RenderPlan(size, tableConfigs, isTabStopsByFontSize);
+
+        // table cells, visiting only indices inside a table
+        for (int tableIndex = 0; tableIndex < tableConfigs.size(); tableIndex++) {
+            TableConfig tableConfig = tableConfigs.get(tableIndex);
+            int startIndex = tableConfig.getStartIndex();
+            int endIndex = Math.min(tableConfig.getEndIndex(), size - 1);
+
+            for (int i = Math.max(startIndex, 0); i <= endIndex; i++) {
+                // case: covered by previous table
+                if (renderPlan.tableIndices[i] != -1)
+                    continue;
+
+                renderPlan.kinds[i] = ContentKind.TABLE_CELL;
+                renderPlan.tableIndices[i] = tableIndex;
+                renderPlan.rows[i] = (i - startIndex) / tableConfig.getNumColumns();
+                renderPlan.columns[i] = (i - startIndex) % tableConfig.getNumColumns();
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            BasicParagraph basicParagraph = content.get(i);
+            String text = basicParagraph == null ? null : basicParagraph.getText();
+
+            renderPlan.empty[i] = StringUtils.isBlank(text);
+            if (!renderPlan.empty[i] && PictureUtils.isPicture(text))
+                renderPlan.pictureNames[i] = PictureUtils.getRawPictureName(text);
+
+            if (renderPlan.kinds[i] == null)
+                renderPlan.kinds[i] = getKind(i, size, renderPlan.empty[i]);
+
+            // table cells with text are styled on run level
+            boolean isNamedStyle = renderPlan.kinds[i] != ContentKind.SKIPPED && (renderPlan.kinds[i] != ContentKind.TABLE_CELL || renderPlan.empty[i]);
+            Style style = basicParagraph == null ? null : basicParagraph.getStyle();
+            if (isNamedStyle && style != null)
+                renderPlan.styleIds[i] = renderPlan.styleCatalog.getStyleId(style, isTabStopsByFontSize);
+        }
+
+        return renderPlan;
+    }
+
+
+    public int size() {
+
+        return this.kinds.length;
+    }
+
+
+    public ContentKind getKind(int contentIndex) {
+
+        return this.kinds[contentIndex];
+    }
+
+
+    /**
+     * @param contentIndex index of the content element
+     * @return the table config of the table cell at given index, null if not a table cell
+     */
+    public TableConfig getTableConfig(int contentIndex) {
+
+        int tableIndex = this.tableIndices[contentIndex];
+
+        return tableIndex == -1 ? null : this.tableConfigs.get(tableIndex);
+    }
+
+
+    /**
+     * @param contentIndex index of the content element
+     * @return index of the table config of the table cell at given index, -1 if not a table cell
+     */
+    public int getTableIndex(int contentIndex) {
+
+        return this.tableIndices[contentIndex];
+    }
+
+
+    public int getRow(int contentIndex) {
+
+        return this.rows[contentIndex];
+    }
+
+
+    public int getColumn(int contentIndex) {
+
+        return this.columns[contentIndex];
+    }
+
+
+    public boolean isPicture(int contentIndex) {
+
+        return this.pictureNames[contentIndex] != null;
+    }
+
+
+    /**
+     * @param contentIndex index of the content element
+     * @return the picture name without braces, e.g. {@code "somePicture.png"}, or null if not a picture
+     */
+    public String getPictureName(int contentIndex) {
+
+        return this.pictureNames[contentIndex];
+    }
+
+
+    /**
+     * @param contentIndex index of the content element
+     * @return true if the text is null or blank
+     */
+    public boolean isEmpty(int contentIndex) {
+
+        return this.empty[contentIndex];
+    }
+
+
+    /**
+     * @param contentIndex index of the content element
+     * @return id of the named style in the {@link #copyStyleCatalog() style catalog}, null if not styled by a named style
+     */
+    public String getStyleId(int contentIndex) {
+
+        return this.styleIds[contentIndex];
+    }
+
+
+    public boolean isTabStopsByFontSize() {
+
+        return this.isTabStopsByFontSize;
+    }
+
+
+    /**
+     * @return a new catalog containing all named styles of this plan, so the plan stays unchanged if more styles are added
+     */
+    public StyleCatalog copyStyleCatalog() {
+
+        return this.styleCatalog.copy();
+    }
+
+
+    private static ContentKind getKind(int contentIndex, int size, boolean isEmpty) {
+
+        if (contentIndex == 0)
+            return isEmpty ? ContentKind.SKIPPED : ContentKind.HEADER;
+
+        if (contentIndex == size - 1)
+            return isEmpty ? ContentKind.SKIPPED : ContentKind.FOOTER;
+
+        return ContentKind.BODY;
+    }
+
+
+    /**
+     * Where a content element ends up in the document.
+     */
+    public enum ContentKind {
+
+        HEADER,
+
+        FOOTER,
+
+        BODY,
+
+        TABLE_CELL,
+
+        /** blank header or footer, not added at all */
+        SKIPPED
+    }
+}
@@ -0,0 +1,41 @@
+package de.word_light.document_builder.documentBuilder;
+
+import java.util.Iterator;
+import java.util.List;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import lombok.Getter;
+
+
+/**
+ * Table whose rows are not part of the {@code content} list but are read from a source while the document is written,
+ * so the number of rows is not limited by memory. Only the {@link StreamingDocumentWriter} can write it.<p>
+ *
+ * The table replaces the body paragraph at {@link #contentIndex}, all cells use the style of that paragraph.
+ *
+ * @since 0.1.0
+ */
+@Getter
+public class StreamedTable {
+
+    /** index of the {@link BasicParagraph} in content to replace with this table */
+    private final int contentIndex;
+
+    private final int numColumns;
+
+    /** cell texts of one row each, rows with less values are filled with empty cells. Is consumed by writing the table */
+    private final Iterator<List<String>> rows;
+
+
+    /**
+     * @param contentIndex index of the {@link BasicParagraph} in content to replace with this table
+     * @param numColumns number of cells per row
+     * @param rows cell texts of one row each. Is consumed by writing the table
+     */
+    public StreamedTable(int contentIndex, int numColumns, Iterator<List<String>> rows) {
+
+        this.contentIndex = contentIndex;
+        this.numColumns = numColumns;
+        this.rows = rows;
+    }
+}
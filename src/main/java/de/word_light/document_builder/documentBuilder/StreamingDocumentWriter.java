@@ -0,0 +1,1854 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.MINIMUM_MARGIN_BOTTOM;
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.MINIMUM_MARGIN_TOP;
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.PAGE_LONG_SIDE;
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.PAGE_SHORT_SIDE;
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.TAB_SYMBOL;
+import static de.word_light.document_builder.utils.Utils.DOCX_FOLDER;
+import static de.word_light.document_builder.utils.Utils.prependSlash;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.common.usermodel.PictureType;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.http.HttpStatus;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.TableConfig;
+import de.word_light.document_builder.documentParts.style.Style;
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.utils.BuildMetrics;
+import de.word_light.document_builder.utils.Utils;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Writes a .docx file straight into a zip output while walking the {@code content} list, without building
+ * an {@link XWPFDocument} in memory first. <p>
+ *
+ * Every paragraph is written to the output as soon as it's processed, so memory stays roughly flat no matter how
+ * large the document gets. Produces the same text, styles, tables and pictures as {@link DocumentBuilder#build()}. Formatting is
+ * collected in a {@link StyleCatalog} and written to 'styles.xml' after all other parts.<p>
+ *
+ * If {@link #parallel} is true, header, footer and chunks of the body are rendered concurrently and put together in
+ * order afterwards. Style ids and picture relationships are registered upfront in write order, so the output is the
+ * same as the sequential one.<p>
+ *
+ * If a {@link #fragmentCache} is set, body paragraphs and tables that have not changed since the last write with that cache
+ * are not rendered again.<p>
+ *
+ * A {@link #streamedTable} is written row by row while its rows are read, the body is always written sequentially then.<p>
+ *
+ * If {@link #streamedContent} is set, paragraphs are written while they are read instead of walking the {@code content} list.
+ * Only the paragraphs of the current table and one more are held, so the last one can be told apart as footer.
+ *
+ * @since 0.1.0
+ * @see DocumentBuilder
+ */
+@Log4j2
+@Getter
+@Setter
+public class StreamingDocumentWriter {
+
+    /** namespaces of WordprocessingML parts */
+    public static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    public static final String R_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    public static final String WP_NS = "http://schemas.openxmlformats.org/drawingml/2006/wordprocessingDrawing";
+    public static final String A_NS = "http://schemas.openxmlformats.org/drawingml/2006/main";
+    public static final String PIC_NS = "http://schemas.openxmlformats.org/drawingml/2006/picture";
+
+    /** relationship types */
+    public static final String OFFICE_DOCUMENT_RELATIONSHIP = R_NS + "/officeDocument";
+    public static final String HEADER_RELATIONSHIP = R_NS + "/header";
+    public static final String FOOTER_RELATIONSHIP = R_NS + "/footer";
+    public static final String IMAGE_RELATIONSHIP = R_NS + "/image";
+    public static final String STYLES_RELATIONSHIP = R_NS + "/styles";
+    public static final String CORE_PROPERTIES_RELATIONSHIP = "http://schemas.openxmlformats.org/package/2006/relationships/metadata/core-properties";
+
+    /** content types */
+    public static final String MAIN_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml";
+    public static final String HEADER_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.header+xml";
+    public static final String FOOTER_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.footer+xml";
+    public static final String STYLES_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.styles+xml";
+    public static final String CORE_PROPERTIES_CONTENT_TYPE = "application/vnd.openxmlformats-package.core-properties+xml";
+    public static final String RELATIONSHIPS_CONTENT_TYPE = "application/vnd.openxmlformats-package.relationships+xml";
+
+    /** part names */
+    public static final String DOCUMENT_PART = "word/document.xml";
+    public static final String HEADER_PART = "word/header1.xml";
+    public static final String FOOTER_PART = "word/footer1.xml";
+    public static final String STYLES_PART = "word/styles.xml";
+    public static final String CORE_PROPERTIES_PART = "docProps/core.xml";
+
+    public static final String HEADER_RELATIONSHIP_ID = "rIdHeader";
+    public static final String FOOTER_RELATIONSHIP_ID = "rIdFooter";
+    public static final String STYLES_RELATIONSHIP_ID = "rIdStyles";
+
+    /** width of one grid column, same as the one {@link XWPFDocument#createTable(int, int)} uses */
+    public static final int TABLE_GRID_COLUMN_WIDTH = 2000;
+
+    /** minimum number of body paragraphs and tables rendered by one task if {@link #parallel} is true */
+    public static final int MIN_BODY_CHUNK_SIZE = 64;
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private List<BasicParagraph> content;
+
+    private String docxFileName;
+
+    private Map<String, byte[]> pictures;
+
+    /** sorted by {@code startIndex} */
+    private List<TableConfig> tableConfigs;
+
+    private boolean landscape;
+
+    private int numColumns;
+
+    private int numSingleColumnLines;
+
+    /** if true, header, footer and body chunks are rendered concurrently using {@link #executor} */
+    private boolean parallel;
+
+    private Executor executor = ForkJoinPool.commonPool();
+
+    /** rendered body fragments of the last write of this document, may be null */
+    private FragmentCache fragmentCache;
+
+    /** compression of the zip package */
+    private OutputProfile outputProfile = OutputProfile.DEFAULT;
+
+    /** if true, blank lines get their font size from the paragraph mark instead of filler runs */
+    private boolean isCompactEmptyLines;
+
+    /** table replacing one body paragraph, rows are read while writing. May be null */
+    private StreamedTable streamedTable;
+
+    /** paragraphs read while writing, used instead of {@link #content}. Cannot be combined with {@link #streamedTable}. May be null */
+    private Iterator<BasicParagraph> streamedContent;
+
+    /** paragraphs of {@link #streamedContent} read but not written yet, set by write() */
+    private ContentWindow contentWindow;
+
+    // set by write()
+    private TableConfig headerTableConfig;
+
+    // set by write()
+    private TableConfig footerTableConfig;
+
+    // set by write()
+    private boolean hasHeader;
+
+    // set by write()
+    private boolean hasFooter;
+
+    /** picture file name and part name inside the 'word' folder, set by write() */
+    private Map<String, String> mediaPartNames;
+
+    /** picture file name and width / height in pixels, set by write() */
+    private Map<String, int[]> pictureDimensions;
+
+    /** named styles referenced by paragraphs, set by write() */
+    private StyleCatalog styleCatalog;
+
+
+    /**
+     * @param content list of {@link BasicParagraph}s
+     * @param docxFileName file name to write the .docx file to
+     * @param numColumns number of columns a page will be devided in
+     * @param numSingleColumnLines number of lines on top of the first page in one single column ignoring 'numColumns'
+     * @param landscape true if document should be in landscape mode, else portrait is used
+     * @param pictures map of filename and bytes of pictures in the document
+     * @param tableConfigs wrappers with configuration data for the tables to insert
+     */
+    public StreamingDocumentWriter(List<BasicParagraph> content, String docxFileName, int numColumns, int numSingleColumnLines, boolean landscape, Map<String, byte[]> pictures, List<TableConfig> tableConfigs) {
+
+        this.content = content;
+        this.docxFileName = Utils.prependDateTime(docxFileName);
+        this.numColumns = numColumns;
+        this.numSingleColumnLines = numSingleColumnLines;
+        this.landscape = landscape;
+        this.pictures = pictures == null ? new HashMap<>() : pictures;
+        this.tableConfigs = new ArrayList<>(tableConfigs == null ? List.of() : tableConfigs);
+        this.tableConfigs.sort(Comparator.comparing(TableConfig::getStartIndex));
+    }
+
+
+    /**
+     * Writes the .docx file to {@link #DOCX_FOLDER}.
+     *
+     * @return the .docx file
+     */
+    public File writeDocxFile() {
+
+        String completeFileName = DOCX_FOLDER + prependSlash(this.docxFileName);
+
+        try (OutputStream os = new FileOutputStream(completeFileName)) {
+            write(os);
+
+            File docxFile = new File(completeFileName);
+
+            if (!docxFile.exists())
+                throw new ApiException("Failed to create document. 'docxFile' does not exist.");
+
+            return docxFile;
+
+        } catch (IOException e) {
+            throw new ApiException("Failed to write .docx file.", e);
+        }
+    }
+
+
+    /**
+     * Writes all parts of the .docx package to given stream. Does not close the stream.
+     *
+     * @param os to write the zipped package to
+     */
+    public void write(OutputStream os) {
+
+        log.info("Writing .docx file (streaming)...");
+
+        long start = System.nanoTime();
+
+        if (this.streamedContent != null) {
+            this.contentWindow = new ContentWindow(this.streamedContent);
+
+            if (isContentStreamable()) {
+                writeStreamedContent(os, start);
+                return;
+            }
+
+            // case: too short to tell header and footer apart, everything has been read already
+            this.content = this.contentWindow.getParagraphs();
+            this.contentWindow = null;
+        }
+
+        setUpParts();
+
+        RenderUnit headerUnit = this.hasHeader ? new RenderUnit(0, this.headerTableConfig, false) : null;
+        RenderUnit footerUnit = this.hasFooter ? new RenderUnit(getFooterStartIndex(), this.footerTableConfig, false) : null;
+        List<RenderUnit> bodyUnits = getBodyUnits();
+
+        if (this.streamedTable != null)
+            validateStreamedTable(bodyUnits);
+
+        PartRelationships headerRelationships = new PartRelationships();
+        PartRelationships documentRelationships = new PartRelationships();
+        PartRelationships footerRelationships = new PartRelationships();
+
+        try {
+            ZipOutputStream zip = this.outputProfile.createZipOutputStream(os);
+
+            writeStringEntry(zip, "[Content_Types].xml", getContentTypesXml());
+            writeStringEntry(zip, "_rels/.rels", getRelationshipsXml(List.of(
+                new Relationship("rIdDocument", OFFICE_DOCUMENT_RELATIONSHIP, DOCUMENT_PART),
+                new Relationship("rIdCore", CORE_PROPERTIES_RELATIONSHIP, CORE_PROPERTIES_PART))));
+            writeStringEntry(zip, CORE_PROPERTIES_PART, getCorePropertiesXml());
+
+            // rows of a streamed table can be read only once and in order
+            if ((this.parallel || this.fragmentCache != null) && this.streamedTable == null) {
+                if (this.fragmentCache != null)
+                    this.fragmentCache.startWrite();
+
+                // register in write order sothat ids don't depend on which task is faster
+                if (headerUnit != null)
+                    registerUnit(headerUnit, headerRelationships);
+                for (RenderUnit bodyUnit : bodyUnits)
+                    registerUnit(bodyUnit, documentRelationships);
+                if (footerUnit != null)
+                    registerUnit(footerUnit, footerRelationships);
+
+                CompletableFuture<byte[]> headerPart = headerUnit != null ? renderAsync(part -> writeHeaderFooterPart(part, "hdr", headerUnit, headerRelationships)) : null;
+                CompletableFuture<byte[]> footerPart = footerUnit != null ? renderAsync(part -> writeHeaderFooterPart(part, "ftr", footerUnit, footerRelationships)) : null;
+                List<CompletableFuture<byte[]>> bodyChunks = renderBodyChunksAsync(bodyUnits, documentRelationships);
+
+                if (headerPart != null)
+                    writeBytesEntry(zip, HEADER_PART, join(headerPart));
+
+                writeDocumentPart(zip, xml -> {
+                    // close start tag of body before writing the rendered chunks
+                    xml.writeCharacters("");
+                    xml.flush();
+
+                    for (CompletableFuture<byte[]> bodyChunk : bodyChunks)
+                        zip.write(join(bodyChunk));
+                }, documentRelationships);
+
+                if (footerPart != null)
+                    writeBytesEntry(zip, FOOTER_PART, join(footerPart));
+
+            } else {
+                if (headerUnit != null)
+                    writeEntry(zip, HEADER_PART, part -> writeHeaderFooterPart(part, "hdr", headerUnit, headerRelationships));
+
+                writeDocumentPart(zip, xml -> writeUnits(xml, bodyUnits, documentRelationships), documentRelationships);
+
+                if (footerUnit != null)
+                    writeEntry(zip, FOOTER_PART, part -> writeHeaderFooterPart(part, "ftr", footerUnit, footerRelationships));
+            }
+
+            if (headerUnit != null)
+                writeStringEntry(zip, getRelationshipsPartName(HEADER_PART), getRelationshipsXml(headerRelationships.getRelationships()));
+
+            if (footerUnit != null)
+                writeStringEntry(zip, getRelationshipsPartName(FOOTER_PART), getRelationshipsXml(footerRelationships.getRelationships()));
+
+            // do this after all parts referring to styles
+            zip.putNextEntry(new ZipEntry(STYLES_PART));
+            this.styleCatalog.writeStylesXml(zip);
+            zip.closeEntry();
+
+            writeMedia(zip);
+
+            zip.finish();
+
+            BuildMetrics.record(BuildMetrics.STREAMING_WRITE, System.nanoTime() - start);
+
+            log.info("Finished writing .docx file");
+
+        } catch (IOException | XMLStreamException e) {
+            throw new ApiException("Failed to write .docx file.", e);
+        }
+    }
+
+
+    /**
+     * Determines which content indices end up in the header and footer part. Mirrors the way {@link TableUtils} decides
+     * whether a table belongs to header, body or footer.
+     */
+    private void setUpParts() {
+
+        this.mediaPartNames = new LinkedHashMap<>();
+        this.pictureDimensions = new ConcurrentHashMap<>();
+        this.styleCatalog = this.fragmentCache != null ? this.fragmentCache.getStyleCatalog() : new StyleCatalog();
+        this.headerTableConfig = null;
+        this.footerTableConfig = null;
+
+        int lastIndex = this.content.size() - 1;
+
+        // case: no content
+        if (lastIndex < 0) {
+            log.warn("Not adding any paragraphs because content list is empty.");
+            this.hasHeader = false;
+            this.hasFooter = false;
+            return;
+        }
+
+        if (!this.tableConfigs.isEmpty()) {
+            TableConfig firstTableConfig = this.tableConfigs.get(0);
+            TableConfig lastTableConfig = this.tableConfigs.get(this.tableConfigs.size() - 1);
+
+            if (firstTableConfig.getStartIndex() == 0)
+                this.headerTableConfig = firstTableConfig;
+
+            if (lastTableConfig.getEndIndex() == lastIndex && lastTableConfig != this.headerTableConfig)
+                this.footerTableConfig = lastTableConfig;
+        }
+
+        this.hasHeader = this.headerTableConfig != null || !StringUtils.isBlank(this.content.get(0).getText());
+        this.hasFooter = getFooterStartIndex() > getHeaderEndIndex() &&
+                         (this.footerTableConfig != null || !StringUtils.isBlank(this.content.get(lastIndex).getText()));
+    }
+
+
+    /**
+     * @return the last content index that is part of the header
+     */
+    private int getHeaderEndIndex() {
+
+        return this.headerTableConfig != null ? this.headerTableConfig.getEndIndex() : 0;
+    }
+
+
+    /**
+     * @return the first content index that is part of the footer
+     */
+    private int getFooterStartIndex() {
+
+        return this.footerTableConfig != null ? this.footerTableConfig.getStartIndex() : getContentSize() - 1;
+    }
+
+
+    /**
+     * @return number of paragraphs in {@link #content} or read from {@link #streamedContent} so far
+     */
+    private int getContentSize() {
+
+        return this.contentWindow != null ? this.contentWindow.getNumRead() : this.content.size();
+    }
+
+
+    /**
+     * Write 'document.xml' and it's relationships.
+     *
+     * @param zip to write the part to
+     * @param body writes all paragraphs and tables between header and footer
+     * @param relationships of the document part, complete only after {@code body} has been written
+     */
+    private void writeDocumentPart(ZipOutputStream zip, XmlContent body, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        zip.putNextEntry(new ZipEntry(DOCUMENT_PART));
+        XMLStreamWriter xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(zip, StandardCharsets.UTF_8.name());
+
+        xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        xml.writeStartElement("w", "document", W_NS);
+        writeNamespaces(xml);
+        xml.writeStartElement("w", "body", W_NS);
+
+        body.write(xml);
+
+        writeSectPr(xml, true);
+
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close();
+        zip.closeEntry();
+
+        List<Relationship> documentRelationships = new ArrayList<>();
+        documentRelationships.add(new Relationship(STYLES_RELATIONSHIP_ID, STYLES_RELATIONSHIP, "styles.xml"));
+        if (this.hasHeader)
+            documentRelationships.add(new Relationship(HEADER_RELATIONSHIP_ID, HEADER_RELATIONSHIP, "header1.xml"));
+        if (this.hasFooter)
+            documentRelationships.add(new Relationship(FOOTER_RELATIONSHIP_ID, FOOTER_RELATIONSHIP, "footer1.xml"));
+        documentRelationships.addAll(relationships.getRelationships());
+
+        writeStringEntry(zip, "word/_rels/document.xml.rels", getRelationshipsXml(documentRelationships));
+    }
+
+
+    /**
+     * Lists all body paragraphs and tables in write order. Adds an empty paragraph above the first column on the first page to
+     * even out empty column break paragraphs (see {@link DocumentBuilder#addContent()}).
+     *
+     * @return units between header and footer
+     */
+    private List<RenderUnit> getBodyUnits() {
+
+        List<RenderUnit> bodyUnits = new ArrayList<>();
+
+        if (this.content.isEmpty())
+            return bodyUnits;
+
+        int bodyStartIndex = getHeaderEndIndex() + 1;
+        int bodyEndIndex = getFooterStartIndex() > getHeaderEndIndex() ? getFooterStartIndex() - 1 : this.content.size() - 1;
+        int emptyParagraphIndex = this.numSingleColumnLines + 1;
+        int sectionEndIndex = this.numColumns > 1 && this.numSingleColumnLines >= 1 ? this.numSingleColumnLines : -1;
+
+        // case: empty paragraph index is part of header
+        if (emptyParagraphIndex < bodyStartIndex)
+            bodyUnits.add(RenderUnit.EMPTY_PARAGRAPH);
+
+        Iterator<TableConfig> tableConfigIterator = this.tableConfigs.iterator();
+        TableConfig nextTableConfig = nextBodyTableConfig(tableConfigIterator, bodyStartIndex);
+
+        int currentContentIndex = bodyStartIndex;
+        while (currentContentIndex <= bodyEndIndex) {
+            boolean isTable = nextTableConfig != null && nextTableConfig.getStartIndex() == currentContentIndex;
+            int unitEndIndex = isTable ? nextTableConfig.getEndIndex() : currentContentIndex;
+
+            if (currentContentIndex == emptyParagraphIndex)
+                bodyUnits.add(RenderUnit.EMPTY_PARAGRAPH);
+
+            if (isTable) {
+                bodyUnits.add(new RenderUnit(currentContentIndex, nextTableConfig, false));
+                nextTableConfig = nextBodyTableConfig(tableConfigIterator, bodyStartIndex);
+
+            } else
+                bodyUnits.add(new RenderUnit(currentContentIndex, null, currentContentIndex == sectionEndIndex));
+
+            // case: empty paragraph index is inside table, paragraph goes below table
+            if (currentContentIndex < emptyParagraphIndex && emptyParagraphIndex <= unitEndIndex)
+                bodyUnits.add(RenderUnit.EMPTY_PARAGRAPH);
+
+            currentContentIndex = unitEndIndex + 1;
+        }
+
+        // case: empty paragraph index is part of footer
+        if (emptyParagraphIndex > bodyEndIndex && emptyParagraphIndex < this.content.size())
+            bodyUnits.add(RenderUnit.EMPTY_PARAGRAPH);
+
+        return bodyUnits;
+    }
+
+
+    /**
+     * @param bodyUnits of this document
+     * @throws ApiException 400 if {@link #streamedTable} does not replace a body paragraph or has no columns
+     */
+    private void validateStreamedTable(List<RenderUnit> bodyUnits) {
+
+        int contentIndex = this.streamedTable.getContentIndex();
+
+        if (this.streamedTable.getNumColumns() < 1)
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Failed to write streamed table. 'numColumns' has to be greater than equal 1.");
+
+        boolean isBodyParagraph = bodyUnits.stream()
+                                           .anyMatch(unit -> unit.tableConfig() == null && unit.contentIndex() == contentIndex);
+        if (!isBodyParagraph)
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Failed to write streamed table. Content index " + contentIndex + " is not a body paragraph.");
+    }
+
+
+    /**
+     * Reads {@link #streamedContent} up to the first paragraph after the header.
+     *
+     * @return true if there is a paragraph after the header, so the body and footer can be written while reading
+     */
+    private boolean isContentStreamable() {
+
+        int headerEndIndex = 0;
+        if (!this.tableConfigs.isEmpty() && this.tableConfigs.get(0).getStartIndex() == 0)
+            headerEndIndex = this.tableConfigs.get(0).getEndIndex();
+
+        return this.contentWindow.has(headerEndIndex + 1);
+    }
+
+
+    /**
+     * Writes all parts like {@link #write(OutputStream)} does, reading paragraphs from {@link #contentWindow} while writing.
+     * The footer is known only after the body has been written, so the content types are written last. Always sequential,
+     * the {@link #fragmentCache} is not used.
+     *
+     * @param os to write the zipped package to
+     * @param start nano time the write started at
+     */
+    private void writeStreamedContent(OutputStream os, long start) {
+
+        if (this.streamedTable != null)
+            throw new ApiException("Failed to write .docx file. Cannot write a streamed table with streamed content.");
+
+        this.mediaPartNames = new LinkedHashMap<>();
+        this.pictureDimensions = new ConcurrentHashMap<>();
+        this.styleCatalog = new StyleCatalog();
+        this.headerTableConfig = !this.tableConfigs.isEmpty() && this.tableConfigs.get(0).getStartIndex() == 0 ? this.tableConfigs.get(0) : null;
+        // set while writing the body
+        this.footerTableConfig = null;
+        this.hasHeader = this.headerTableConfig != null || !StringUtils.isBlank(getBasicParagraph(0).getText());
+        this.hasFooter = false;
+
+        PartRelationships headerRelationships = new PartRelationships();
+        PartRelationships documentRelationships = new PartRelationships();
+        PartRelationships footerRelationships = new PartRelationships();
+
+        try {
+            ZipOutputStream zip = this.outputProfile.createZipOutputStream(os);
+
+            writeStringEntry(zip, "_rels/.rels", getRelationshipsXml(List.of(
+                new Relationship("rIdDocument", OFFICE_DOCUMENT_RELATIONSHIP, DOCUMENT_PART),
+                new Relationship("rIdCore", CORE_PROPERTIES_RELATIONSHIP, CORE_PROPERTIES_PART))));
+            writeStringEntry(zip, CORE_PROPERTIES_PART, getCorePropertiesXml());
+
+            if (this.hasHeader) {
+                RenderUnit headerUnit = new RenderUnit(0, this.headerTableConfig, false);
+                writeEntry(zip, HEADER_PART, part -> writeHeaderFooterPart(part, "hdr", headerUnit, headerRelationships));
+            }
+
+            writeDocumentPart(zip, xml -> writeStreamedBody(xml, documentRelationships), documentRelationships);
+
+            if (this.hasFooter) {
+                RenderUnit footerUnit = new RenderUnit(getFooterStartIndex(), this.footerTableConfig, false);
+                writeEntry(zip, FOOTER_PART, part -> writeHeaderFooterPart(part, "ftr", footerUnit, footerRelationships));
+            }
+
+            if (this.hasHeader)
+                writeStringEntry(zip, getRelationshipsPartName(HEADER_PART), getRelationshipsXml(headerRelationships.getRelationships()));
+
+            if (this.hasFooter)
+                writeStringEntry(zip, getRelationshipsPartName(FOOTER_PART), getRelationshipsXml(footerRelationships.getRelationships()));
+
+            zip.putNextEntry(new ZipEntry(STYLES_PART));
+            this.styleCatalog.writeStylesXml(zip);
+            zip.closeEntry();
+
+            writeMedia(zip);
+
+            // do this after the footer is known
+            writeStringEntry(zip, "[Content_Types].xml", getContentTypesXml());
+
+            zip.finish();
+
+            BuildMetrics.record(BuildMetrics.STREAMING_WRITE, System.nanoTime() - start);
+
+            log.info("Finished writing .docx file with " + getContentSize() + " streamed paragraphs");
+
+        } catch (IOException | XMLStreamException e) {
+            throw new ApiException("Failed to write .docx file.", e);
+        }
+    }
+
+
+    /**
+     * Write the body units the way {@link #getBodyUnits()} lists them, while reading paragraphs from {@link #contentWindow}.
+     * A unit is written once the paragraph after it has been read, the last unit is the footer. Sets {@link #footerTableConfig}
+     * and {@link #hasFooter}.<p>
+     *
+     * The section end paragraph is written before the footer has been read, so its section properties always reference the
+     * footer. In that case a blank footer is written as well.
+     *
+     * @param xml to write to
+     * @param relationships of the document part
+     * @throws ApiException 400 if the content ends inside a table
+     */
+    private void writeStreamedBody(XMLStreamWriter xml, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        int bodyStartIndex = getHeaderEndIndex() + 1;
+        int emptyParagraphIndex = this.numSingleColumnLines + 1;
+        int sectionEndIndex = this.numColumns > 1 && this.numSingleColumnLines >= 1 ? this.numSingleColumnLines : -1;
+        TableConfig lastTableConfig = this.tableConfigs.isEmpty() ? null : this.tableConfigs.get(this.tableConfigs.size() - 1);
+
+        // case: empty paragraph index is part of header
+        if (emptyParagraphIndex < bodyStartIndex)
+            writeEmptyParagraph(xml);
+
+        Iterator<TableConfig> tableConfigIterator = this.tableConfigs.iterator();
+        TableConfig nextTableConfig = nextBodyTableConfig(tableConfigIterator, bodyStartIndex);
+
+        int currentContentIndex = bodyStartIndex;
+        while (true) {
+            boolean isTable = nextTableConfig != null && nextTableConfig.getStartIndex() == currentContentIndex;
+            int unitEndIndex = isTable ? nextTableConfig.getEndIndex() : currentContentIndex;
+
+            if (isTable && !this.contentWindow.has(unitEndIndex))
+                throw new ApiException(HttpStatus.BAD_REQUEST, "'tableConfigs' invalid. Start and end indices cannot be out of bounds of content size - 1.");
+
+            // case: last unit, goes into the footer
+            if (!this.contentWindow.has(unitEndIndex + 1)) {
+                if (isTable && nextTableConfig == lastTableConfig)
+                    this.footerTableConfig = nextTableConfig;
+
+                break;
+            }
+
+            List<RenderUnit> units = new ArrayList<>();
+
+            if (currentContentIndex == emptyParagraphIndex)
+                units.add(RenderUnit.EMPTY_PARAGRAPH);
+
+            if (isTable) {
+                units.add(new RenderUnit(currentContentIndex, nextTableConfig, false));
+                nextTableConfig = nextBodyTableConfig(tableConfigIterator, bodyStartIndex);
+
+            } else
+                units.add(new RenderUnit(currentContentIndex, null, currentContentIndex == sectionEndIndex));
+
+            // case: section end, footer is not known yet but has to be referenced by its section properties
+            if (currentContentIndex == sectionEndIndex)
+                this.hasFooter = true;
+
+            // case: empty paragraph index is inside table, paragraph goes below table
+            if (currentContentIndex < emptyParagraphIndex && emptyParagraphIndex <= unitEndIndex)
+                units.add(RenderUnit.EMPTY_PARAGRAPH);
+
+            writeUnits(xml, units, relationships);
+
+            this.contentWindow.release(unitEndIndex + 1);
+            currentContentIndex = unitEndIndex + 1;
+        }
+
+        int footerStartIndex = getFooterStartIndex();
+
+        // case: empty paragraph index is part of footer
+        if (emptyParagraphIndex >= footerStartIndex && emptyParagraphIndex < getContentSize())
+            writeEmptyParagraph(xml);
+
+        // keep a referenced footer even if blank
+        this.hasFooter = this.hasFooter || this.footerTableConfig != null || !StringUtils.isBlank(getBasicParagraph(footerStartIndex).getText());
+    }
+
+
+    /**
+     * @param xml to write to
+     * @param units to write in given order
+     * @param relationships of the part the units are in
+     */
+    private void writeUnits(XMLStreamWriter xml, List<RenderUnit> units, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        for (RenderUnit unit : units) {
+            if (unit.isEmptyParagraph())
+                writeEmptyParagraph(xml);
+
+            else if (unit.tableConfig() != null)
+                writeTable(xml, unit.tableConfig(), relationships);
+
+            else if (this.streamedTable != null && unit.contentIndex() == this.streamedTable.getContentIndex())
+                writeStreamedTable(xml, unit.isSectionEnd(), relationships);
+
+            else
+                writeParagraph(xml, getBasicParagraph(unit.contentIndex()), unit.contentIndex(), false, unit.isSectionEnd(), relationships);
+        }
+    }
+
+
+    /**
+     * Register the styles and pictures of given unit the way writing it would. Used to make ids independent of the order
+     * concurrent tasks run in.
+     *
+     * @param unit to register
+     * @param relationships of the part the unit is in
+     */
+    private void registerUnit(RenderUnit unit, PartRelationships relationships) {
+
+        if (unit.isEmptyParagraph()) {
+            this.styleCatalog.getStyleId(Style.getDefaultInstance(), true);
+            return;
+        }
+
+        // case: table with rows, register in the order cells are written
+        TableConfig tableConfig = unit.tableConfig();
+        if (tableConfig != null && tableConfig.hasRows()) {
+            Style defaultStyle = getBasicParagraph(unit.contentIndex()).getStyle();
+
+            for (int row = 0; row < tableConfig.getNumRows(); row++)
+                for (int col = 0; col < tableConfig.getNumColumns(); col++) {
+                    Style cellStyle = tableConfig.getCellStyle(row, col, defaultStyle);
+                    if (cellStyle != null)
+                        this.styleCatalog.getStyleId(cellStyle, true);
+                }
+
+            return;
+        }
+
+        int endIndex = tableConfig != null ? tableConfig.getEndIndex() : unit.contentIndex();
+        for (int i = unit.contentIndex(); i <= endIndex; i++) {
+            BasicParagraph basicParagraph = getBasicParagraph(i);
+
+            if (basicParagraph.getStyle() != null)
+                this.styleCatalog.getStyleId(basicParagraph.getStyle(), true);
+
+            // pictures are not added inside tables
+            String text = basicParagraph.getText();
+            if (unit.tableConfig() == null && !StringUtils.isBlank(text) && PictureUtils.isPicture(text)) {
+                String fileName = PictureUtils.getRawPictureName(text);
+
+                if (this.pictures.containsKey(fileName))
+                    relationships.getPictureRelationshipId(fileName);
+            }
+        }
+    }
+
+
+    /**
+     * Split given body units into chunks and render each of them on {@link #executor}, or on the calling thread if not
+     * {@link #parallel}. Units must have been registered with {@link #registerUnit(RenderUnit, PartRelationships)} before.
+     *
+     * @param bodyUnits to render
+     * @param relationships of the document part
+     * @return rendered xml fragments in write order
+     */
+    private List<CompletableFuture<byte[]>> renderBodyChunksAsync(List<RenderUnit> bodyUnits, PartRelationships relationships) {
+
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int chunkSize = this.parallel ? Math.max(MIN_BODY_CHUNK_SIZE, (bodyUnits.size() + parallelism - 1) / parallelism) : bodyUnits.size();
+
+        List<CompletableFuture<byte[]>> bodyChunks = new ArrayList<>();
+        for (int i = 0; i < bodyUnits.size(); i += chunkSize) {
+            List<RenderUnit> chunk = bodyUnits.subList(i, Math.min(i + chunkSize, bodyUnits.size()));
+
+            bodyChunks.add(renderAsync(fragment -> writeCachedFragments(fragment, chunk, relationships)));
+        }
+
+        return bodyChunks;
+    }
+
+
+    /**
+     * Write one fragment per unit, reusing the ones from {@link #fragmentCache} if possible.
+     *
+     * @param os to write the fragments to
+     * @param units to write in given order
+     * @param relationships of the part the units are in
+     */
+    private void writeCachedFragments(OutputStream os, List<RenderUnit> units, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        if (this.fragmentCache == null) {
+            writeFragment(os, units, relationships);
+            return;
+        }
+
+        for (RenderUnit unit : units) {
+            Object fragmentKey = getFragmentKey(unit);
+
+            // case: not cacheable
+            if (fragmentKey == null) {
+                writeFragment(os, List.of(unit), relationships);
+                continue;
+            }
+
+            byte[] fragment = this.fragmentCache.get(fragmentKey);
+            if (fragment == null) {
+                ByteArrayOutputStream fragmentOs = new ByteArrayOutputStream();
+                writeFragment(fragmentOs, List.of(unit), relationships);
+                fragment = fragmentOs.toByteArray();
+            }
+
+            this.fragmentCache.put(fragmentKey, fragment);
+            os.write(fragment);
+        }
+    }
+
+
+    /**
+     * Write given units without declaring any namespaces, the document root does that.
+     *
+     * @param os to write the fragment to
+     * @param units to write in given order
+     * @param relationships of the part the units are in
+     */
+    private void writeFragment(OutputStream os, List<RenderUnit> units, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        XMLStreamWriter xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(os, StandardCharsets.UTF_8.name());
+        bindNamespaces(xml);
+
+        writeUnits(xml, units, relationships);
+
+        xml.flush();
+        xml.close();
+    }
+
+
+    /**
+     * Pictures and the last single column line are not cacheable since their xml depends on the content index and the
+     * section properties.
+     *
+     * @param unit to get the key for
+     * @return key identifying everything the xml of given unit depends on or null if unit is not cacheable
+     */
+    private Object getFragmentKey(RenderUnit unit) {
+
+        if (unit.isEmptyParagraph())
+            return RenderUnit.EMPTY_PARAGRAPH;
+
+        if (unit.isSectionEnd())
+            return null;
+
+        // case: table
+        TableConfig tableConfig = unit.tableConfig();
+        if (tableConfig != null) {
+            List<Object> tableKey = new ArrayList<>(List.of(tableConfig.getNumColumns(), tableConfig.getNumRows()));
+
+            // case: table with rows, the config is part of the key already
+            if (tableConfig.hasRows()) {
+                Style defaultStyle = getBasicParagraph(tableConfig.getStartIndex()).getStyle();
+
+                tableKey.add(tableConfig.getRows());
+                tableKey.add(getStyleKey(tableConfig.getHeaderStyle()));
+                for (int col = 0; col < tableConfig.getNumColumns(); col++)
+                    tableKey.add(getStyleKey(tableConfig.getCellStyle(1, col, defaultStyle)));
+
+                return tableKey;
+            }
+
+            for (int i = tableConfig.getStartIndex(); i <= tableConfig.getEndIndex(); i++) {
+                BasicParagraph basicParagraph = getBasicParagraph(i);
+                tableKey.add(basicParagraph.getText());
+                tableKey.add(getStyleKey(basicParagraph.getStyle()));
+            }
+
+            return tableKey;
+        }
+
+        BasicParagraph basicParagraph = getBasicParagraph(unit.contentIndex());
+        String text = basicParagraph.getText();
+
+        // case: picture
+        if (!StringUtils.isBlank(text) && PictureUtils.isPicture(text))
+            return null;
+
+        return Arrays.asList(text, getStyleKey(basicParagraph.getStyle()));
+    }
+
+
+    /**
+     * @param style to get the key for, may be null
+     * @return all style attributes in a list or null if style is null
+     */
+    private static List<Object> getStyleKey(Style style) {
+
+        if (style == null)
+            return null;
+
+        return Arrays.asList(style.getFontSize(),
+                             style.getFontFamily(),
+                             style.getColor(),
+                             style.getBold(),
+                             style.getItalic(),
+                             style.getUnderline(),
+                             style.getTextAlign(),
+                             style.getBreakType());
+    }
+
+
+    /**
+     * @param part writes to the given stream
+     * @return future of the bytes written by {@code part}, completed already if not {@link #parallel}
+     */
+    private CompletableFuture<byte[]> renderAsync(PartContent part) {
+
+        Executor executor = this.parallel ? this.executor : Runnable::run;
+
+        return CompletableFuture.supplyAsync(() -> {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+            try {
+                part.write(os);
+
+            } catch (IOException | XMLStreamException e) {
+                throw new ApiException("Failed to write .docx file.", e);
+            }
+
+            return os.toByteArray();
+        }, executor);
+    }
+
+
+    /**
+     * @param future to wait for
+     * @return result of the future
+     * @throws ApiException if the future failed
+     */
+    private static byte[] join(CompletableFuture<byte[]> future) {
+
+        try {
+            return future.join();
+
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ApiException apiException)
+                throw apiException;
+
+            throw new ApiException("Failed to write .docx file.", e.getCause() instanceof Exception cause ? cause : e);
+        }
+    }
+
+
+    /**
+     * @param tableConfigIterator iterator of {@link #tableConfigs}
+     * @param bodyStartIndex first content index of the body
+     * @return next table config that is neither inside header nor footer or null if there's none left
+     */
+    private TableConfig nextBodyTableConfig(Iterator<TableConfig> tableConfigIterator, int bodyStartIndex) {
+
+        while (tableConfigIterator.hasNext()) {
+            TableConfig tableConfig = tableConfigIterator.next();
+
+            if (tableConfig.getStartIndex() >= bodyStartIndex && tableConfig != this.footerTableConfig)
+                return tableConfig;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Write header or footer part containing either a table or a single paragraph.
+     *
+     * @param os to write the part to. Is not closed
+     * @param rootElement local name of the root element, "hdr" or "ftr"
+     * @param unit the header or footer table or paragraph
+     * @param relationships of the header or footer part
+     */
+    private void writeHeaderFooterPart(OutputStream os, String rootElement, RenderUnit unit, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        XMLStreamWriter xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(os, StandardCharsets.UTF_8.name());
+
+        xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        xml.writeStartElement("w", rootElement, W_NS);
+        writeNamespaces(xml);
+
+        writeUnits(xml, List.of(unit), relationships);
+
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close();
+    }
+
+
+    /**
+     * Write one table with one paragraph per cell. Uses the style of the first cell for the table itself
+     * (see {@link TableUtils}).
+     *
+     * @param xml to write to
+     * @param tableConfig of the table to write
+     * @param relationships of the part the table is in
+     */
+    private void writeTable(XMLStreamWriter xml, TableConfig tableConfig, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        if (tableConfig.hasRows()) {
+            writeTableWithRows(xml, tableConfig, relationships);
+            return;
+        }
+
+        writeTableStart(xml, getBasicParagraph(tableConfig.getStartIndex()).getStyle(), tableConfig.getNumColumns());
+
+        // rows
+        int currentContentIndex = tableConfig.getStartIndex();
+        for (int row = 0; row < tableConfig.getNumRows(); row++) {
+            xml.writeStartElement("w", "tr", W_NS);
+
+            for (int col = 0; col < tableConfig.getNumColumns(); col++) {
+                xml.writeStartElement("w", "tc", W_NS);
+                writeParagraph(xml, getBasicParagraph(currentContentIndex), currentContentIndex++, true, false, relationships);
+                xml.writeEndElement();
+            }
+
+            xml.writeEndElement();
+        }
+
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Write a table holding the {@link TableConfig#getRows()} of given config. Cells are styled by
+     * {@link TableConfig#getCellStyle(int, int, Style)} with the style of the replaced paragraph as default.
+     *
+     * @param xml to write to
+     * @param tableConfig of the table to write, with rows
+     * @param relationships of the part the table is in
+     */
+    private void writeTableWithRows(XMLStreamWriter xml, TableConfig tableConfig, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        Style defaultStyle = getBasicParagraph(tableConfig.getStartIndex()).getStyle();
+
+        writeTableStart(xml, tableConfig.getCellStyle(0, 0, defaultStyle), tableConfig.getNumColumns());
+
+        for (int row = 0; row < tableConfig.getNumRows(); row++) {
+            xml.writeStartElement("w", "tr", W_NS);
+
+            for (int col = 0; col < tableConfig.getNumColumns(); col++) {
+                BasicParagraph cell = new BasicParagraph(tableConfig.getCellText(row, col), tableConfig.getCellStyle(row, col, defaultStyle));
+
+                xml.writeStartElement("w", "tc", W_NS);
+                writeParagraph(xml, cell, -1, true, false, relationships);
+                xml.writeEndElement();
+            }
+
+            xml.writeEndElement();
+        }
+
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Write {@link #streamedTable} reading one row at a time. All cells use the style of the paragraph the table replaces.
+     *
+     * @param xml to write to
+     * @param isSectionEnd true if the replaced paragraph is the last single column line. Adds an empty paragraph below the
+     *                     table to end the section with
+     * @param relationships of the part the table is in
+     * @throws ApiException 400 if a row has more values than the table has columns
+     */
+    private void writeStreamedTable(XMLStreamWriter xml, boolean isSectionEnd, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        Style style = getBasicParagraph(this.streamedTable.getContentIndex()).getStyle();
+        int numColumns = this.streamedTable.getNumColumns();
+
+        writeTableStart(xml, style, numColumns);
+
+        Iterator<List<String>> rows = this.streamedTable.getRows();
+        int numRows = 0;
+        while (rows.hasNext()) {
+            List<String> row = rows.next();
+            numRows++;
+
+            if (row.size() > numColumns)
+                throw new ApiException(HttpStatus.BAD_REQUEST, "Failed to write table row " + numRows + ". Expected at most " + numColumns + " values but got " + row.size() + ".");
+
+            writeStreamedTableRow(xml, row, style, numColumns, relationships);
+        }
+
+        // case: no rows, a table needs at least one
+        if (numRows == 0)
+            writeStreamedTableRow(xml, List.of(), style, numColumns, relationships);
+
+        xml.writeEndElement();
+
+        if (isSectionEnd)
+            writeParagraph(xml, new BasicParagraph("", style), -1, false, true, relationships);
+
+        log.info("Finished writing streamed table with " + numRows + " rows");
+    }
+
+
+    /**
+     * @param xml to write to
+     * @param row cell texts, missing or null ones are written as empty cells
+     * @param style of all cells
+     * @param numColumns number of cells to write
+     * @param relationships of the part the table is in
+     */
+    private void writeStreamedTableRow(XMLStreamWriter xml, List<String> row, Style style, int numColumns, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        xml.writeStartElement("w", "tr", W_NS);
+
+        for (int col = 0; col < numColumns; col++) {
+            String text = col < row.size() && row.get(col) != null ? row.get(col) : "";
+
+            xml.writeStartElement("w", "tc", W_NS);
+            writeParagraph(xml, new BasicParagraph(text, style), -1, true, false, relationships);
+            xml.writeEndElement();
+        }
+
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Write the start tag, properties and grid of a table. Rows and the end tag are left to the caller.
+     *
+     * @param xml to write to
+     * @param tableStyle style of the first cell, used for width and alignment of the table. May be null
+     * @param numColumns number of cells per row
+     */
+    private void writeTableStart(XMLStreamWriter xml, Style tableStyle, int numColumns) throws XMLStreamException {
+
+        xml.writeStartElement("w", "tbl", W_NS);
+
+        // table properties
+        xml.writeStartElement("w", "tblPr", W_NS);
+        writeEmptyElement(xml, "tblW", "w", tableStyle == null ? "0" : String.valueOf(TableUtils.TABLE_WIDTH), "type", tableStyle == null ? "auto" : "dxa");
+
+        if (tableStyle != null)
+            writeEmptyElement(xml, "jc", "val", getTableAlignment(tableStyle.getTextAlign()));
+
+        xml.writeStartElement("w", "tblBorders", W_NS);
+        for (String border : List.of("top", "left", "bottom", "right", "insideH", "insideV"))
+            writeEmptyElement(xml, border, "val", "single", "sz", "4", "space", "0", "color", "auto");
+        xml.writeEndElement();
+
+        if (tableStyle != null) {
+            xml.writeStartElement("w", "tblCellMar", W_NS);
+            for (String margin : List.of("top", "left", "bottom", "right"))
+                writeEmptyElement(xml, margin, "w", String.valueOf(TableUtils.TABLE_CELL_MARGIN), "type", "dxa");
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+
+        // grid
+        xml.writeStartElement("w", "tblGrid", W_NS);
+        for (int i = 0; i < numColumns; i++)
+            writeEmptyElement(xml, "gridCol", "w", String.valueOf(TABLE_GRID_COLUMN_WIDTH));
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Write one paragraph holding text, an empty line or a picture.
+     *
+     * @param xml to write to
+     * @param basicParagraph to write
+     * @param contentIndex index of {@code basicParagraph} in {@link #content}, used as drawing id. -1 if not part of content
+     * @param isTableCell true if paragraph is inside a table cell. Pictures are not allowed in there and tabs are not replaced
+     * @param isSectionEnd true if this paragraph is the last single column line
+     * @param relationships of the part the paragraph is in
+     */
+    private void writeParagraph(XMLStreamWriter xml, BasicParagraph basicParagraph, int contentIndex, boolean isTableCell, boolean isSectionEnd, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        String text = basicParagraph.getText();
+        Style style = basicParagraph.getStyle();
+
+        boolean isEmptyLine = StringUtils.isBlank(text);
+
+        xml.writeStartElement("w", "p", W_NS);
+        writeParagraphProperties(xml, style, isEmptyLine && this.isCompactEmptyLines, isSectionEnd);
+
+        // case: blank text
+        if (isEmptyLine)
+            writeEmptyLineRuns(xml, style);
+
+        // case: picture inside table
+        else if (isTableCell && PictureUtils.isPicture(text)) {
+            log.warn("Failed to picture " + text + ". Cannot add picture inside table. Adding plain text instead.");
+            writeTextRun(xml, style, text + "(Cannot add picture inside table)", true);
+
+        // case: picture
+        } else if (PictureUtils.isPicture(text))
+            writePictureRun(xml, style, text, contentIndex, relationships);
+
+        // case: plain text or table cell
+        else
+            writeTextRun(xml, style, text, !isTableCell);
+
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Overloading {@link #writeParagraph(XMLStreamWriter, BasicParagraph, int, boolean, boolean, PartRelationships)} with
+     * an empty line using the default style.
+     *
+     * @param xml to write to
+     * @see Style
+     */
+    private void writeEmptyParagraph(XMLStreamWriter xml) throws IOException, XMLStreamException {
+
+        writeParagraph(xml, new BasicParagraph("", Style.getDefaultInstance()), -1, false, false, null);
+    }
+
+
+    /**
+     * Refer to the named style of {@link #styleCatalog} and write the alignment. Formatting is not repeated on run level.
+     *
+     * @param xml to write to
+     * @param style to use, may be null
+     * @param isCompactEmptyLine if true, the font of the style is set on the paragraph mark as well
+     * @param isSectionEnd if true, add single column section properties
+     */
+    private void writeParagraphProperties(XMLStreamWriter xml, Style style, boolean isCompactEmptyLine, boolean isSectionEnd) throws XMLStreamException {
+
+        if (style == null && !isSectionEnd)
+            return;
+
+        xml.writeStartElement("w", "pPr", W_NS);
+
+        if (style != null) {
+            writeEmptyElement(xml, "pStyle", "val", this.styleCatalog.getStyleId(style, true));
+            writeEmptyElement(xml, "jc", "val", toXmlEnumValue(style.getTextAlign()));
+
+            if (isCompactEmptyLine)
+                StyleCatalog.writeParagraphMarkProperties(xml, style);
+        }
+
+        if (isSectionEnd)
+            writeSectPr(xml, false);
+
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Adds a "_" char in white color to first run sothat font size will be applied to that line. Follow up with a run whith just
+     * a white space char but in black color, sothat it doesn't have to be changed in word manually.<p>
+     * 
+     * If {@link #isCompactEmptyLines} the font size is set on the paragraph mark instead and only a break is written, if
+     * the style has one.
+     *
+     * @param xml to write to
+     * @param style to use, may be null
+     */
+    private void writeEmptyLineRuns(XMLStreamWriter xml, Style style) throws XMLStreamException {
+
+        if (this.isCompactEmptyLines) {
+            if (style != null && style.getBreakType() != null) {
+                xml.writeStartElement("w", "r", W_NS);
+                writeBreak(xml, style);
+                xml.writeEndElement();
+            }
+
+            return;
+        }
+
+        // invisible text
+        xml.writeStartElement("w", "r", W_NS);
+        StyleCatalog.writeRunProperties(xml, null, "ffffff");
+        writeText(xml, "_");
+        writeBreak(xml, style);
+        xml.writeEndElement();
+
+        // visible space char
+        xml.writeStartElement("w", "r", W_NS);
+        writeText(xml, " ");
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Write one run holding given text.
+     *
+     * @param xml to write to
+     * @param style to use, may be null
+     * @param text to write
+     * @param replaceTabs if true, any {@link DocumentBuilder#TAB_SYMBOL} will be replaced with an actual tab
+     */
+    private void writeTextRun(XMLStreamWriter xml, Style style, String text, boolean replaceTabs) throws XMLStreamException {
+
+        xml.writeStartElement("w", "r", W_NS);
+
+        if (replaceTabs) {
+            String[] textArr = text.split(TAB_SYMBOL);
+
+            for (int i = 0; i < textArr.length; i++) {
+                writeText(xml, textArr[i]);
+
+                // case: is not last element
+                if (i != textArr.length - 1)
+                    writeEmptyElement(xml, "tab");
+            }
+
+            // case: text ends with tab
+            if (text.endsWith(TAB_SYMBOL))
+                writeEmptyElement(xml, "tab");
+
+        } else
+            writeText(xml, text);
+
+        writeBreak(xml, style);
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Write one run holding an inline picture. Picture will be added to {@link #mediaPartNames} and given relationships.<p>
+     *
+     * If {@link #pictures} is empty, an empty run is written instead.
+     *
+     * @param xml to write to
+     * @param style to use, may be null
+     * @param text formatted like "${someFileName.png}"
+     * @param contentIndex index of the picture paragraph in {@link #content}, unique per document and hence used as drawing id
+     * @param relationships of the part the picture is in
+     */
+    private void writePictureRun(XMLStreamWriter xml, Style style, String text, int contentIndex, PartRelationships relationships) throws IOException, XMLStreamException {
+
+        String fileName = PictureUtils.getRawPictureName(text);
+
+        xml.writeStartElement("w", "r", W_NS);
+
+        // case: no pictures uploaded
+        if (this.pictures.isEmpty()) {
+            log.warn("Did not add pictures. 'pictures' list is either null or empty.");
+
+        } else {
+            byte[] pictureBytes = this.pictures.get(fileName);
+            if (pictureBytes == null)
+                throw new ApiException("Failed to add picture. Could not find picture " + fileName + ".");
+
+            int[] dimensions = getPictureDimensions(fileName, pictureBytes);
+            String cx = String.valueOf(PictureUtils.dxaToEMUs(dimensions[0]));
+            String cy = String.valueOf(PictureUtils.dxaToEMUs(dimensions[1]));
+            String relationshipId = relationships.getPictureRelationshipId(fileName);
+            String id = String.valueOf(contentIndex + 1);
+
+            xml.writeStartElement("w", "drawing", W_NS);
+            xml.writeStartElement("wp", "inline", WP_NS);
+            xml.writeAttribute("distT", "0");
+            xml.writeAttribute("distB", "0");
+            xml.writeAttribute("distL", "0");
+            xml.writeAttribute("distR", "0");
+
+            xml.writeEmptyElement("wp", "extent", WP_NS);
+            xml.writeAttribute("cx", cx);
+            xml.writeAttribute("cy", cy);
+
+            xml.writeEmptyElement("wp", "docPr", WP_NS);
+            xml.writeAttribute("id", id);
+            xml.writeAttribute("name", "Drawing " + id);
+            xml.writeAttribute("descr", fileName);
+
+            xml.writeStartElement("a", "graphic", A_NS);
+            xml.writeStartElement("a", "graphicData", A_NS);
+            xml.writeAttribute("uri", PIC_NS);
+            xml.writeStartElement("pic", "pic", PIC_NS);
+
+            xml.writeStartElement("pic", "nvPicPr", PIC_NS);
+            xml.writeEmptyElement("pic", "cNvPr", PIC_NS);
+            xml.writeAttribute("id", "0");
+            xml.writeAttribute("name", "Picture " + id);
+            xml.writeAttribute("descr", fileName);
+            xml.writeEmptyElement("pic", "cNvPicPr", PIC_NS);
+            xml.writeEndElement();
+
+            xml.writeStartElement("pic", "blipFill", PIC_NS);
+            xml.writeEmptyElement("a", "blip", A_NS);
+            xml.writeAttribute("r", R_NS, "embed", relationshipId);
+            xml.writeStartElement("a", "stretch", A_NS);
+            xml.writeEmptyElement("a", "fillRect", A_NS);
+            xml.writeEndElement();
+            xml.writeEndElement();
+
+            xml.writeStartElement("pic", "spPr", PIC_NS);
+            xml.writeStartElement("a", "xfrm", A_NS);
+            xml.writeEmptyElement("a", "off", A_NS);
+            xml.writeAttribute("x", "0");
+            xml.writeAttribute("y", "0");
+            xml.writeEmptyElement("a", "ext", A_NS);
+            xml.writeAttribute("cx", cx);
+            xml.writeAttribute("cy", cy);
+            xml.writeEndElement();
+            xml.writeStartElement("a", "prstGeom", A_NS);
+            xml.writeAttribute("prst", "rect");
+            xml.writeEmptyElement("a", "avLst", A_NS);
+            xml.writeEndElement();
+            xml.writeEndElement();
+
+            xml.writeEndElement(); // pic
+            xml.writeEndElement(); // graphicData
+            xml.writeEndElement(); // graphic
+            xml.writeEndElement(); // inline
+            xml.writeEndElement(); // drawing
+        }
+
+        writeBreak(xml, style);
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Write section properties. Same as the first {@link CTSectPr} of {@link DocumentBuilder}.
+     *
+     * @param xml to write to
+     * @param includeColumns if true, add MS Word columns (should be true for the last section only)
+     */
+    private void writeSectPr(XMLStreamWriter xml, boolean includeColumns) throws XMLStreamException {
+
+        xml.writeStartElement("w", "sectPr", W_NS);
+
+        if (this.hasHeader) {
+            writeEmptyElement(xml, "headerReference", "type", "default");
+            xml.writeAttribute("r", R_NS, "id", HEADER_RELATIONSHIP_ID);
+        }
+
+        if (this.hasFooter) {
+            writeEmptyElement(xml, "footerReference", "type", "default");
+            xml.writeAttribute("r", R_NS, "id", FOOTER_RELATIONSHIP_ID);
+        }
+
+        writeEmptyElement(xml, "type", "val", "continuous");
+        writeEmptyElement(xml, "pgSz",
+                          "w", (this.landscape ? PAGE_LONG_SIDE : PAGE_SHORT_SIDE).toString(),
+                          "h", (this.landscape ? PAGE_SHORT_SIDE : PAGE_LONG_SIDE).toString(),
+                          "orient", this.landscape ? "landscape" : "portrait");
+        writeEmptyElement(xml, "pgMar", "top", String.valueOf(MINIMUM_MARGIN_TOP), "bottom", String.valueOf(MINIMUM_MARGIN_BOTTOM));
+
+        if (includeColumns)
+            writeEmptyElement(xml, "cols", "num", String.valueOf(this.numColumns));
+
+        xml.writeEndElement();
+    }
+
+
+    private void writeBreak(XMLStreamWriter xml, Style style) throws XMLStreamException {
+
+        if (style != null && style.getBreakType() != null)
+            writeEmptyElement(xml, "br", "type", toXmlEnumValue(style.getBreakType()));
+    }
+
+
+    private void writeText(XMLStreamWriter xml, String text) throws XMLStreamException {
+
+        xml.writeStartElement("w", "t", W_NS);
+        xml.writeAttribute("xml", XMLConstants.XML_NS_URI, "space", "preserve");
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Write an empty element of the {@link #W_NS} namespace.
+     *
+     * @param xml to write to
+     * @param localName of the element
+     * @param attributes local names and values of attributes, alternating. Attributes will be in the {@link #W_NS} namespace as well
+     */
+    static void writeEmptyElement(XMLStreamWriter xml, String localName, String... attributes) throws XMLStreamException {
+
+        xml.writeEmptyElement("w", localName, W_NS);
+
+        for (int i = 0; i < attributes.length - 1; i += 2)
+            xml.writeAttribute("w", W_NS, attributes[i], attributes[i + 1]);
+    }
+
+
+    private void writeNamespaces(XMLStreamWriter xml) throws XMLStreamException {
+
+        xml.writeNamespace("w", W_NS);
+        xml.writeNamespace("r", R_NS);
+        xml.writeNamespace("wp", WP_NS);
+        xml.writeNamespace("a", A_NS);
+        xml.writeNamespace("pic", PIC_NS);
+    }
+
+
+    private void bindNamespaces(XMLStreamWriter xml) throws XMLStreamException {
+
+        xml.setPrefix("w", W_NS);
+        xml.setPrefix("r", R_NS);
+        xml.setPrefix("wp", WP_NS);
+        xml.setPrefix("a", A_NS);
+        xml.setPrefix("pic", PIC_NS);
+    }
+
+
+    /**
+     * Write all pictures that have been referenced by any part.
+     *
+     * @param zip to write the pictures to
+     */
+    private void writeMedia(ZipOutputStream zip) throws IOException {
+
+        for (Map.Entry<String, String> mediaPartName : this.mediaPartNames.entrySet())
+            this.outputProfile.writeEntry(zip, "word/" + mediaPartName.getValue(), this.pictures.get(mediaPartName.getKey()));
+    }
+
+
+    private void writeStringEntry(ZipOutputStream zip, String entryName, String str) throws IOException {
+
+        writeBytesEntry(zip, entryName, str.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    private void writeBytesEntry(ZipOutputStream zip, String entryName, byte[] bytes) throws IOException {
+
+        this.outputProfile.writeEntry(zip, entryName, bytes);
+    }
+
+
+    private void writeEntry(ZipOutputStream zip, String entryName, PartContent part) throws IOException, XMLStreamException {
+
+        zip.putNextEntry(new ZipEntry(entryName));
+        part.write(zip);
+        zip.closeEntry();
+    }
+
+
+    /**
+     * @param partName like "word/header1.xml"
+     * @return name of the relationships part of given part, like "word/_rels/header1.xml.rels"
+     */
+    private static String getRelationshipsPartName(String partName) {
+
+        return partName.replace("word/", "word/_rels/") + ".rels";
+    }
+
+
+    /**
+     * @return content types of all parts, including all picture formats in {@link #pictures}
+     */
+    private String getContentTypesXml() {
+
+        StringBuilder contentTypes = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+            .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+            .append("<Default Extension=\"rels\" ContentType=\"" + RELATIONSHIPS_CONTENT_TYPE + "\"/>")
+            .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>");
+
+        // picture formats
+        Set<String> extensions = new LinkedHashSet<>();
+        for (String fileName : this.pictures.keySet()) {
+            PictureType pictureType = PictureUtils.getPictureType(fileName);
+
+            if (pictureType != null && pictureType.getExtension().length() > 1 && extensions.add(pictureType.getExtension()))
+                contentTypes.append("<Default Extension=\"" + pictureType.getExtension().substring(1) + "\" ContentType=\"" + pictureType.getContentType() + "\"/>");
+        }
+
+        contentTypes.append("<Override PartName=\"/" + DOCUMENT_PART + "\" ContentType=\"" + MAIN_CONTENT_TYPE + "\"/>")
+                    .append("<Override PartName=\"/" + STYLES_PART + "\" ContentType=\"" + STYLES_CONTENT_TYPE + "\"/>")
+                    .append("<Override PartName=\"/" + CORE_PROPERTIES_PART + "\" ContentType=\"" + CORE_PROPERTIES_CONTENT_TYPE + "\"/>");
+
+        if (this.hasHeader)
+            contentTypes.append("<Override PartName=\"/" + HEADER_PART + "\" ContentType=\"" + HEADER_CONTENT_TYPE + "\"/>");
+
+        if (this.hasFooter)
+            contentTypes.append("<Override PartName=\"/" + FOOTER_PART + "\" ContentType=\"" + FOOTER_CONTENT_TYPE + "\"/>");
+
+        return contentTypes.append("</Types>").toString();
+    }
+
+
+    private String getCorePropertiesXml() {
+
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+               "<cp:coreProperties xmlns:cp=\"http://schemas.openxmlformats.org/package/2006/metadata/core-properties\" " +
+                                  "xmlns:dcterms=\"http://purl.org/dc/terms/\" " +
+                                  "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">" +
+               "<dcterms:created xsi:type=\"dcterms:W3CDTF\">" + Instant.now().truncatedTo(ChronoUnit.SECONDS) + "</dcterms:created>" +
+               "</cp:coreProperties>";
+    }
+
+
+    /**
+     * @param relationships to write
+     * @return relationships part content
+     */
+    private String getRelationshipsXml(List<Relationship> relationships) {
+
+        StringBuilder relationshipsXml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>")
+            .append("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+
+        for (Relationship relationship : relationships)
+            relationshipsXml.append("<Relationship Id=\"" + relationship.id() + "\" Type=\"" + relationship.type() + "\" Target=\"" + relationship.target() + "\"/>");
+
+        return relationshipsXml.append("</Relationships>").toString();
+    }
+
+
+    /**
+     * Reads only width and height of given picture without decoding the whole image. Results are cached in
+     * {@link #pictureDimensions}.
+     *
+     * @param fileName of the picture
+     * @param pictureBytes content of the picture
+     * @return array with width and height in pixels
+     */
+    private int[] getPictureDimensions(String fileName, byte[] pictureBytes) throws IOException {
+
+        int[] dimensions = this.pictureDimensions.get(fileName);
+        if (dimensions != null)
+            return dimensions;
+
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(new ByteArrayInputStream(pictureBytes))) {
+            Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
+
+            if (!imageReaders.hasNext())
+                throw new ApiException("Failed to add picture. Could not read dimensions of " + fileName + ".");
+
+            ImageReader imageReader = imageReaders.next();
+            try {
+                imageReader.setInput(imageInputStream);
+                dimensions = new int[] {imageReader.getWidth(0), imageReader.getHeight(0)};
+
+            } finally {
+                imageReader.dispose();
+            }
+        }
+
+        this.pictureDimensions.put(fileName, dimensions);
+
+        return dimensions;
+    }
+
+
+    /**
+     * @param contentIndex index of {@link #content} element
+     * @return the basic paragraph at given index
+     * @throws ApiException if basic paragraph is null
+     */
+    private BasicParagraph getBasicParagraph(int contentIndex) {
+
+        BasicParagraph basicParagraph = this.contentWindow != null ? this.contentWindow.get(contentIndex) : this.content.get(contentIndex);
+        if (basicParagraph == null)
+            throw new ApiException("Failed to add paragraph. 'basicParagraph' cannot be null");
+
+        return basicParagraph;
+    }
+
+
+    /**
+     * @param textAlign of the first table cell
+     * @return table alignment, CENTER is default
+     * @see TableUtils
+     */
+    private static String getTableAlignment(ParagraphAlignment textAlign) {
+
+        if (textAlign == ParagraphAlignment.LEFT)
+            return "left";
+
+        if (textAlign == ParagraphAlignment.RIGHT)
+            return "right";
+
+        return "center";
+    }
+
+
+    /**
+     * @param value enum constant like {@code TEXT_WRAPPING}
+     * @return the value formatted the way WordprocessingML expects it, i.e. {@code "textWrapping"}
+     */
+    static String toXmlEnumValue(Enum<?> value) {
+
+        String[] words = value.name().toLowerCase().split("_");
+        StringBuilder xmlValue = new StringBuilder(words[0]);
+
+        for (int i = 1; i < words.length; i++)
+            xmlValue.append(StringUtils.capitalize(words[i]));
+
+        return xmlValue.toString();
+    }
+
+
+    /**
+     * Relationship of a package part to another part.
+     */
+    private record Relationship(String id, String type, String target) {}
+
+
+    /**
+     * One paragraph, one table or one empty paragraph in the order it's written.
+     *
+     * @param contentIndex index of the paragraph or the first table cell in {@link #content}, -1 for an empty paragraph
+     * @param tableConfig of the table, null if not a table
+     * @param isSectionEnd true if this paragraph is the last single column line
+     */
+    private record RenderUnit(int contentIndex, TableConfig tableConfig, boolean isSectionEnd) {
+
+        static final RenderUnit EMPTY_PARAGRAPH = new RenderUnit(-1, null, false);
+
+        boolean isEmptyParagraph() {
+
+            return this.contentIndex == -1;
+        }
+    }
+
+
+    /**
+     * Paragraphs of {@link #streamedContent} that have been read but not released yet. Reads ahead only as far as asked to.
+     */
+    private static class ContentWindow {
+
+        private final Iterator<BasicParagraph> paragraphs;
+
+        private final List<BasicParagraph> buffer = new ArrayList<>();
+
+        /** content index of the first paragraph in {@link #buffer} */
+        private int firstIndex;
+
+
+        ContentWindow(Iterator<BasicParagraph> paragraphs) {
+
+            this.paragraphs = paragraphs;
+        }
+
+
+        /**
+         * @param contentIndex to check
+         * @return true if there is a paragraph at given index, reading up to it if necessary
+         */
+        boolean has(int contentIndex) {
+
+            while (getNumRead() <= contentIndex && this.paragraphs.hasNext())
+                this.buffer.add(this.paragraphs.next());
+
+            return contentIndex < getNumRead();
+        }
+
+
+        /**
+         * @param contentIndex of the paragraph, not released yet
+         * @return the paragraph at given index
+         */
+        BasicParagraph get(int contentIndex) {
+
+            if (contentIndex < this.firstIndex || !has(contentIndex))
+                throw new ApiException("Failed to add paragraph. Content index " + contentIndex + " is not available.");
+
+            return this.buffer.get(contentIndex - this.firstIndex);
+        }
+
+
+        /**
+         * @param contentIndex paragraphs before this index are not needed anymore
+         */
+        void release(int contentIndex) {
+
+            int numReleased = Math.min(contentIndex - this.firstIndex, this.buffer.size());
+            if (numReleased <= 0)
+                return;
+
+            this.buffer.subList(0, numReleased).clear();
+            this.firstIndex += numReleased;
+        }
+
+
+        /**
+         * @return all paragraphs of the content, reading the remaining ones. Only valid if none have been released
+         */
+        List<BasicParagraph> getParagraphs() {
+
+            this.paragraphs.forEachRemaining(this.buffer::add);
+
+            return this.buffer;
+        }
+
+
+        int getNumRead() {
+
+            return this.firstIndex + this.buffer.size();
+        }
+    }
+
+
+    /**
+     * Writes xml content of a part to the given writer.
+     */
+    @FunctionalInterface
+    private interface XmlContent {
+
+        void write(XMLStreamWriter xml) throws IOException, XMLStreamException;
+    }
+
+
+    /**
+     * Writes a whole part to the given stream.
+     */
+    @FunctionalInterface
+    private interface PartContent {
+
+        void write(OutputStream os) throws IOException, XMLStreamException;
+    }
+
+
+    /**
+     * Collects the picture relationships of one part (document, header or footer).
+     */
+    private class PartRelationships {
+
+        /** picture file name and relationship id */
+        private Map<String, String> pictureRelationshipIds = new LinkedHashMap<>();
+
+
+        /**
+         * @param fileName of the picture
+         * @return existing or new relationship id for given picture. Registers picture in {@link #mediaPartNames}
+         */
+        String getPictureRelationshipId(String fileName) {
+
+            // case: registered already, don't modify maps that may be read concurrently
+            String relationshipId = this.pictureRelationshipIds.get(fileName);
+            if (relationshipId != null)
+                return relationshipId;
+
+            mediaPartNames.computeIfAbsent(fileName, name -> "media/image" + (mediaPartNames.size() + 1) + PictureUtils.getPictureType(name).getExtension());
+
+            return this.pictureRelationshipIds.computeIfAbsent(fileName, name -> "rIdImage" + (this.pictureRelationshipIds.size() + 1));
+        }
+
+
+        List<Relationship> getRelationships() {
+
+            List<Relationship> relationships = new ArrayList<>();
+            this.pictureRelationshipIds.forEach((fileName, id) -> relationships.add(new Relationship(id, IMAGE_RELATIONSHIP, mediaPartNames.get(fileName))));
+
+            return relationships;
+        }
+    }
+}
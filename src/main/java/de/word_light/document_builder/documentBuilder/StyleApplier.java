@@ -0,0 +1,132 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.NO_LINE_SPACE;
+
+import java.math.BigInteger;
+
+import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTabStop;
+
+import de.word_light.document_builder.documentParts.style.Style;
+import jakarta.annotation.Nullable;
+
+
+/**
+ * Applies {@link Style}s to {@link XWPFParagraph}s. Immutable and not bound to a document, so one instance can style any
+ * number of paragraphs and be shared between threads, as long as the paragraphs themselves are not.
+ *
+ * @since 0.1.0
+ */
+public final class StyleApplier {
+
+    /** sets all formatting on run level without tab stops, like table cells are styled */
+    public static final StyleApplier RUN_LEVEL = new StyleApplier(null, false);
+
+    /** catalog to refer to named styles from, null if formatting is set on run level */
+    @Nullable
+    private final StyleCatalog styleCatalog;
+
+    private final boolean isTabStopsByFontSize;
+
+
+    /**
+     * @param styleCatalog to refer to named styles from, null to set formatting on run level
+     * @param isTabStopsByFontSize if true, tab stops are proportional to the font size
+     */
+    public StyleApplier(@Nullable StyleCatalog styleCatalog, boolean isTabStopsByFontSize) {
+
+        this.styleCatalog = styleCatalog;
+        this.isTabStopsByFontSize = isTabStopsByFontSize;
+    }
+
+
+    /**
+     * Add style to given {@link XWPFParagraph}. Is skipped if either paragraph or style are null.<p>
+     *
+     * If there is a style catalog the paragraph only refers to a named style, text align and break type are still set directly.
+     *
+     * @param paragraph to apply the style to
+     * @param style information to use
+     * @param styleId id of the named style matching {@code style}, looked up in the catalog if null
+     */
+    public void applyStyle(XWPFParagraph paragraph, Style style, @Nullable String styleId) {
+
+        if (paragraph == null || style == null)
+            return;
+
+        if (this.styleCatalog != null) {
+            applyNamedStyle(paragraph, style, styleId);
+            return;
+        }
+
+        paragraph.getRuns().forEach(run -> {
+            run.setFontSize(style.getFontSize());
+
+            run.setFontFamily(style.getFontFamily());
+
+            run.setColor(style.getColor());
+
+            run.setBold(style.getBold());
+
+            run.setItalic(style.getItalic());
+
+            if (style.getBreakType() != null)
+                run.addBreak(style.getBreakType());
+
+            if (style.getUnderline())
+                run.setUnderline(UnderlinePatterns.SINGLE);
+        });
+
+        paragraph.setAlignment(style.getTextAlign());
+
+        paragraph.setSpacingAfter(NO_LINE_SPACE);
+
+        if (this.isTabStopsByFontSize)
+            setTabStopsByFontSize(paragraph, style.getFontSize());
+    }
+
+
+    /**
+     * @param styleCatalog to compare
+     * @param isTabStopsByFontSize to compare
+     * @return true if this applier was created with given arguments
+     */
+    boolean isFor(@Nullable StyleCatalog styleCatalog, boolean isTabStopsByFontSize) {
+
+        return this.styleCatalog == styleCatalog && this.isTabStopsByFontSize == isTabStopsByFontSize;
+    }
+
+
+    /**
+     * Refer to the named style in {@link #styleCatalog} matching given style. Formatting is not repeated on run level.
+     *
+     * @param paragraph to apply the style to
+     * @param style information to use
+     * @param styleId id of the named style matching {@code style}, looked up if null
+     */
+    private void applyNamedStyle(XWPFParagraph paragraph, Style style, String styleId) {
+
+        paragraph.setStyle(styleId != null ? styleId : this.styleCatalog.getStyleId(style, this.isTabStopsByFontSize));
+
+        if (style.getBreakType() != null)
+            paragraph.getRuns().forEach(run -> run.addBreak(style.getBreakType()));
+
+        paragraph.setAlignment(style.getTextAlign());
+    }
+
+
+    /**
+     * Add tab stops proportional to given font size for the whole paragraph.
+     *
+     * @param paragraph to set tab stops for
+     * @param fontSize to use for size calculation
+     */
+    private static void setTabStopsByFontSize(XWPFParagraph paragraph, int fontSize) {
+
+        for (int i = 0; i < StyleCatalog.NUM_TAB_STOPS; i++) {
+            CTTabStop tabStop = paragraph.getCTP().getPPr().addNewTabs().addNewTab();
+            tabStop.setPos(BigInteger.valueOf((i + 1) * 36 * fontSize));
+        }
+    }
+}
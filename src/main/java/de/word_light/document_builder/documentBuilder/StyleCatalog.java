@@ -0,0 +1,235 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.NO_LINE_SPACE;
+import static de.word_light.document_builder.documentBuilder.StreamingDocumentWriter.W_NS;
+import static de.word_light.document_builder.documentBuilder.StreamingDocumentWriter.writeEmptyElement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyles;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.StylesDocument;
+
+import de.word_light.document_builder.documentParts.style.Style;
+import de.word_light.document_builder.exception.ApiException;
+
+
+/**
+ * Collects distinct {@link Style}s of a document and emits each of them once as named paragraph style in 'styles.xml'.
+ * Paragraphs only need to refer to the style id instead of repeating all formatting on every run.<p>
+ *
+ * Text align and break type are not part of the named style since they are set on paragraph and run level anyway.
+ *
+ * @since 0.1.0
+ */
+public class StyleCatalog {
+
+    public static final String STYLE_ID_PREFIX = "WordLight";
+
+    public static final String STYLE_NAME_PREFIX = "Word light ";
+
+    /** number of tab stops added by {@link #writeTabStopsByFontSize(XMLStreamWriter, int)} */
+    public static final int NUM_TAB_STOPS = 17;
+
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    /** distinct styles and their style id, in order of first use */
+    private Map<StyleKey, String> styleIds = new LinkedHashMap<>();
+
+
+    /**
+     * Get the id of the named style matching given style or register a new one.
+     *
+     * @param style to get the named style for
+     * @param isTabStopsByFontSize whether the named style should contain tab stops proportional to the font size
+     * @return the style id to refer to from a paragraph
+     */
+    public synchronized String getStyleId(Style style, boolean isTabStopsByFontSize) {
+
+        StyleKey styleKey = new StyleKey(style.getFontSize(),
+                                         style.getFontFamily(),
+                                         style.getColor(),
+                                         style.getBold(),
+                                         style.getItalic(),
+                                         style.getUnderline(),
+                                         isTabStopsByFontSize);
+
+        return this.styleIds.computeIfAbsent(styleKey, key -> STYLE_ID_PREFIX + (this.styleIds.size() + 1));
+    }
+
+
+    /**
+     * @return a new catalog with the same styles and style ids
+     */
+    public synchronized StyleCatalog copy() {
+
+        StyleCatalog styleCatalog = new StyleCatalog();
+        styleCatalog.styleIds.putAll(this.styleIds);
+
+        return styleCatalog;
+    }
+
+
+    public synchronized boolean isEmpty() {
+
+        return this.styleIds.isEmpty();
+    }
+
+
+    /**
+     * Write the complete 'styles.xml' part containing one named paragraph style per distinct style.
+     *
+     * @param os to write the part to. Is not closed
+     */
+    public synchronized void writeStylesXml(OutputStream os) {
+
+        try {
+            XMLStreamWriter xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(os, StandardCharsets.UTF_8.name());
+
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xml.writeStartElement("w", "styles", W_NS);
+            xml.writeNamespace("w", W_NS);
+
+            for (Map.Entry<StyleKey, String> styleId : this.styleIds.entrySet())
+                writeStyle(xml, styleId.getKey(), styleId.getValue());
+
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+
+        } catch (XMLStreamException e) {
+            throw new ApiException("Failed to write style catalog.", e);
+        }
+    }
+
+
+    /**
+     * @return all named styles as {@link CTStyles} to pass to an {@link org.apache.poi.xwpf.usermodel.XWPFStyles} object
+     */
+    public CTStyles getCTStyles() {
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        writeStylesXml(os);
+
+        try {
+            return StylesDocument.Factory.parse(os.toString(StandardCharsets.UTF_8)).getStyles();
+
+        } catch (XmlException e) {
+            throw new ApiException("Failed to parse style catalog.", e);
+        }
+    }
+
+
+    /**
+     * Write run properties the same way {@link DocumentBuilder#applyStyle(XWPFParagraph, Style)} sets them on a run.
+     *
+     * @param xml to write to
+     * @param style to use, may be null
+     * @param color to use instead of the style color, may be null
+     */
+    static void writeRunProperties(XMLStreamWriter xml, Style style, String color) throws XMLStreamException {
+
+        if (style == null && color == null)
+            return;
+
+        xml.writeStartElement("w", "rPr", W_NS);
+
+        if (style != null) {
+            writeEmptyElement(xml, "rFonts", "ascii", style.getFontFamily(), "hAnsi", style.getFontFamily(), "eastAsia", style.getFontFamily(), "cs", style.getFontFamily());
+
+            if (Boolean.TRUE.equals(style.getBold()))
+                writeEmptyElement(xml, "b");
+
+            if (Boolean.TRUE.equals(style.getItalic()))
+                writeEmptyElement(xml, "i");
+        }
+
+        writeEmptyElement(xml, "color", "val", color != null ? color : style.getColor());
+
+        if (style != null) {
+            writeEmptyElement(xml, "sz", "val", String.valueOf(style.getFontSize() * 2));
+
+            if (Boolean.TRUE.equals(style.getUnderline()))
+                writeEmptyElement(xml, "u", "val", "single");
+        }
+
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Write the run properties of the paragraph mark, so an empty paragraph gets the line height of given style without
+     * holding any runs.
+     *
+     * @param xml to write to, inside 'pPr'
+     * @param style to take font family and size from
+     */
+    static void writeParagraphMarkProperties(XMLStreamWriter xml, Style style) throws XMLStreamException {
+
+        xml.writeStartElement("w", "rPr", W_NS);
+        writeEmptyElement(xml, "rFonts", "ascii", style.getFontFamily(), "hAnsi", style.getFontFamily(), "eastAsia", style.getFontFamily(), "cs", style.getFontFamily());
+        writeEmptyElement(xml, "sz", "val", String.valueOf(style.getFontSize() * 2));
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * Add tab stops proportional to given font size.
+     *
+     * @param xml to write to
+     * @param fontSize to use for size calculation
+     */
+    static void writeTabStopsByFontSize(XMLStreamWriter xml, int fontSize) throws XMLStreamException {
+
+        xml.writeStartElement("w", "tabs", W_NS);
+
+        for (int i = 0; i < NUM_TAB_STOPS; i++)
+            writeEmptyElement(xml, "tab", "val", "left", "pos", String.valueOf((i + 1) * 36 * fontSize));
+
+        xml.writeEndElement();
+    }
+
+
+    private void writeStyle(XMLStreamWriter xml, StyleKey styleKey, String styleId) throws XMLStreamException {
+
+        xml.writeStartElement("w", "style", W_NS);
+        xml.writeAttribute("w", W_NS, "type", "paragraph");
+        xml.writeAttribute("w", W_NS, "customStyle", "1");
+        xml.writeAttribute("w", W_NS, "styleId", styleId);
+
+        writeEmptyElement(xml, "name", "val", STYLE_NAME_PREFIX + styleId.substring(STYLE_ID_PREFIX.length()));
+
+        // paragraph properties
+        xml.writeStartElement("w", "pPr", W_NS);
+        if (styleKey.isTabStopsByFontSize())
+            writeTabStopsByFontSize(xml, styleKey.fontSize());
+        writeEmptyElement(xml, "spacing", "after", String.valueOf(NO_LINE_SPACE));
+        xml.writeEndElement();
+
+        // run properties
+        writeRunProperties(xml, styleKey.toStyle(), null);
+
+        xml.writeEndElement();
+    }
+
+
+    /**
+     * All attributes of a {@link Style} that end up in the named style.
+     */
+    private record StyleKey(Integer fontSize, String fontFamily, String color, Boolean bold, Boolean italic, Boolean underline, boolean isTabStopsByFontSize) {
+
+        Style toStyle() {
+
+            return new Style(this.fontSize, this.fontFamily, this.color, this.bold, this.italic, this.underline, null, null);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package de.word_light.document_builder.documentBuilder;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
 
 import org.apache.poi.wp.usermodel.HeaderFooterType;
 import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
@@ -14,6 +16,7 @@ import de.word_light.document_builder.documentParts.BasicParagraph;
 import de.word_light.document_builder.documentParts.TableConfig;
 import de.word_light.document_builder.documentParts.style.Style;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
@@ -39,15 +42,38 @@ public class TableUtils {
     // set by createTableParagraph()
     private TableConfig currentTableConfig;
 
-    // set by getCurrentTable()
+    // set by createTableParagraph()
     private int currentTableIndex;
 
     // set by createTableParagraph()
     private Style currentTableStyle;
 
-    // set by getTableFromHeaderFooter()
+    // set by getCurrentTable()
     private boolean doesDocumentHaveHeaderTable;
 
+    /** created tables by index of their table config, null if not created yet */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private XWPFTable[] tables;
+
+    /** 
+     * Start indices of disjoint content index intervals covered by a table, sorted ascending. Built once by 
+     * {@link #getTableIndex(int)}, overlapping table configs are cut so the first one wins.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int[] intervalStarts;
+
+    /** end index (inclusive) of the interval at the same position in {@link #intervalStarts} */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int[] intervalEnds;
+
+    /** index in {@link #tableConfigs} of the interval at the same position in {@link #intervalStarts} */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int[] intervalTableIndices;
+
 
     public TableUtils(XWPFDocument document, List<TableConfig> tableConfigs) {
 
@@ -56,6 +82,32 @@ public class TableUtils {
     }
 
 
+    /**
+     * Override setter for {@link #document} to forget tables created in the previous document.
+     * 
+     * @param document to add tables to
+     */
+    public void setDocument(XWPFDocument document) {
+
+        this.document = document;
+        this.tables = null;
+        this.doesDocumentHaveHeaderTable = false;
+    }
+
+
+    /**
+     * Override setter for {@link #tableConfigs} to drop the index built for the previous configs.
+     * 
+     * @param tableConfigs tables of the document
+     */
+    public void setTableConfigs(List<TableConfig> tableConfigs) {
+
+        this.tableConfigs = tableConfigs;
+        this.tables = null;
+        this.intervalStarts = null;
+    }
+
+
     /**
      * Uses {@link TableConfig} to get or create a table and returns a new paragraph or an existing one in the current table cell.
      * 
@@ -65,28 +117,73 @@ public class TableUtils {
      */
     XWPFParagraph createTableParagraph(int currentContentIndex, int contentSize, Style style) {
 
-        // set current table config
-        this.currentTableConfig = getCurrentTableConfig(currentContentIndex);
-        this.currentTableStyle = style;
-        
-        // create table or use existing one
-        XWPFTable currentTable = getCurrentTable(currentContentIndex, contentSize);
+        int tableIndex = getTableIndex(currentContentIndex);
 
         // case: not inside a table
-        if (currentTable == null) {
+        if (tableIndex == -1) {
             log.warn("Failed to create table paragraph. 'currentContentIndex':" + currentContentIndex + " is not inside a table.");
             return null;
         }
 
         // get current row and colum
-        int startIndex = this.currentTableConfig.getStartIndex();
-        int currentRow = (currentContentIndex - startIndex) / this.currentTableConfig.getNumColumns();
-        int currentCol = (currentContentIndex - startIndex) % this.currentTableConfig.getNumColumns();
+        TableConfig tableConfig = this.tableConfigs.get(tableIndex);
+        int startIndex = tableConfig.getStartIndex();
+        int currentRow = (currentContentIndex - startIndex) / tableConfig.getNumColumns();
+        int currentCol = (currentContentIndex - startIndex) % tableConfig.getNumColumns();
+
+        return createTableParagraph(tableIndex, currentRow, currentCol, currentContentIndex, contentSize, style);
+    }
+
+
+    /**
+     * Same as {@link #createTableParagraph(int, int, Style)} but with table and cell position resolved already, e.g. by a
+     * {@link RenderPlan}.
+     * 
+     * @param tableIndex index of the table config in {@link #tableConfigs}
+     * @param currentRow row of the cell
+     * @param currentCol column of the cell
+     * @param currentContentIndex index of the {@link #content} element currently processed
+     * @param contentSize size of document content (see {@link DocumentBuilder})
+     * @param style to apply to table and text
+     * @return paragraph in table cell holding text and style information
+     */
+    XWPFParagraph createTableParagraph(int tableIndex, int currentRow, int currentCol, int currentContentIndex, int contentSize, Style style) {
+
+        // create table or use existing one
+        XWPFTable currentTable = getTable(tableIndex, currentContentIndex, contentSize, style);
         
-        // create cell in current position
-        XWPFTableCell tableCell = currentTable.getRow(currentRow).getCell(currentCol);
+        return getCellParagraph(currentTable.getRow(currentRow).getCell(currentCol));
+    }
+
+
+    /**
+     * Get the table of given table config or create it if this is its first cell. Use this to fill a table row by row
+     * instead of looking it up for every cell.
+     * 
+     * @param tableIndex index of the table config in {@link #tableConfigs}
+     * @param currentContentIndex index of the {@link #content} element currently processed, decides whether a new
+     *                            table is created in header, footer or body
+     * @param contentSize size of document content (see {@link DocumentBuilder})
+     * @param style to apply to a new table
+     * @return the existing or new table
+     */
+    XWPFTable getTable(int tableIndex, int currentContentIndex, int contentSize, Style style) {
+
+        // set current table config
+        this.currentTableIndex = tableIndex;
+        this.currentTableConfig = this.tableConfigs.get(tableIndex);
+        this.currentTableStyle = style;
+
+        return getCurrentTable(currentContentIndex, contentSize);
+    }
+
+
+    /**
+     * @param tableCell to get the paragraph of
+     * @return the first paragraph of given cell or a new one if the cell has none
+     */
+    static XWPFParagraph getCellParagraph(XWPFTableCell tableCell) {
 
-        // add paragraph or use existing one
         return tableCell.getParagraphs().isEmpty() ? tableCell.addParagraph() : 
                                                      tableCell.getParagraphs().get(0);
     }
@@ -104,7 +201,7 @@ public class TableUtils {
         paragraph.createRun().setText(text);
 
         // add style
-        new DocumentBuilder().applyStyle(paragraph, style);
+        StyleApplier.RUN_LEVEL.applyStyle(paragraph, style, null);
 
         return paragraph;
     }
@@ -119,138 +216,134 @@ public class TableUtils {
      */
     boolean isTableIndex(int currentContentIndex) {
 
-        TableConfig tableConfig = getCurrentTableConfig(currentContentIndex);
-
-        return tableConfig != null && isTableIndex(tableConfig, currentContentIndex);
+        return getTableIndex(currentContentIndex) != -1;
     }
 
 
     /**
      * Get {@link XWPFTable} in document related to given {@code currentContentIndex} or create a new one if not
-     * exists yet.<p>
+     * exists yet. Tables are remembered by the index of their table config, so looking up existing ones does not search
+     * the document.<p>
      * 
      * Depends on {@link #createTableParagraph()} beeing called first because of some field variables.
      * 
      * @param currentContentIndex index of the {@link #content} element currently processed
      * @param contentSize size of document content (see {@link DocumentBuilder})
-     * @return the current {@link XWPFTable} from {@link #document} or null if {@code currentContentIndex} is not inside a table
+     * @return the current {@link XWPFTable} from {@link #document}
      */
     private XWPFTable getCurrentTable(int currentContentIndex, int contentSize) {
 
-        this.currentTableIndex = this.currentTableConfig == null ? -1 : this.tableConfigs.indexOf(this.currentTableConfig);
+        if (this.tables == null || this.tables.length != this.tableConfigs.size())
+            this.tables = new XWPFTable[this.tableConfigs.size()];
 
-        // case: currently not inside a table
-        if (this.currentTableIndex == -1)
-            return null;
+        XWPFTable currentTable = this.tables[this.currentTableIndex];
 
-        XWPFTable currentTable = null;
+        // case: created before
+        if (currentTable != null)
+            return currentTable;
 
-        // case: first table config
-        if (this.currentTableIndex == 0)
-            currentTable = getTableFromHeader(currentContentIndex, contentSize, currentContentIndex == 0);
-            
-        // case: last table config
-        if (this.currentTableIndex == this.tableConfigs.size() - 1 && currentTable == null)
-            currentTable = getTableFromFooter(currentContentIndex, contentSize, this.currentTableConfig.getEndIndex() == contentSize - 1);
+        // case: first table config starting in header
+        if (this.currentTableIndex == 0 && currentContentIndex == 0) {
+            this.doesDocumentHaveHeaderTable = true;
+            currentTable = createNewTable(0, contentSize, TABLE_WIDTH);
+
+        // case: last table config ending in footer
+        } else if (this.currentTableIndex == this.tableConfigs.size() - 1 && this.currentTableConfig.getEndIndex() == contentSize - 1) {
+            currentTable = createNewTable(contentSize - 1, contentSize, TABLE_WIDTH);
 
         // case: any table config that is not inside header or footer
-        if (currentTable == null)
-            currentTable = getTableFromBody(currentContentIndex, contentSize, true);
+        } else
+            currentTable = createNewTable(currentContentIndex, contentSize, TABLE_WIDTH);
+
+        this.tables[this.currentTableIndex] = currentTable;
 
         return currentTable;
     }
 
 
     /**
-     * Depends on {@link #createTableParagraph()} beeing called first because of some field variables.
+     * Get the index of the {@link TableConfig} from {@link #tableConfigs} list where {@code currentContentIndex} is in 
+     * between {@code startIndex} and {@code endIndex}. Uses a binary search on the interval index, which is built on first
+     * call, so table configs should not be changed afterwards (use {@link #setTableConfigs(List)} instead).
      * 
      * @param currentContentIndex index of the {@link #content} element currently processed
-     * @param contentSize size of document content (see {@link DocumentBuilder})
-     * @param createNew if true a new table will be created inside the header in case there hasn't been one, if false {@code null} is returned
-     * @return an existing {@link XWPFTable} inside the default header or create new one or return null (depending on params)
+     * @return the index of the table config matching the {@code currentContentIndex} or -1 if no match is found
      */
-    private XWPFTable getTableFromHeader(int currentContentIndex, int contentSize, boolean createNew) {
+    int getTableIndex(int currentContentIndex) {
 
-        try {
-            // try to get header table
-            return this.document.getHeaderFooterPolicy().getDefaultHeader().getTables().get(0);
+        if (this.intervalStarts == null)
+            buildIntervalIndex();
 
-        // case: no table created yet
-        } catch (IndexOutOfBoundsException | NullPointerException e) {
-            if (createNew) {
-                this.doesDocumentHaveHeaderTable = true;
-                return createNewTable(0, contentSize, TABLE_WIDTH);
-            }
-        
-            return null;
+        // last interval starting at or before given index
+        int low = 0;
+        int high = this.intervalStarts.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+
+            if (this.intervalStarts[middle] <= currentContentIndex)
+                low = middle + 1;
+            else
+                high = middle - 1;
         }
+
+        // case: before first interval or behind the end of the interval
+        if (high == -1 || this.intervalEnds[high] < currentContentIndex)
+            return -1;
+
+        return this.intervalTableIndices[high];
     }
 
 
     /**
-     * Depends on {@link #createTableParagraph()} beeing called first because of some field variables.
-     *  
-     * @param currentContentIndex index of the {@link #content} element currently processed
-     * @param contentSize size of document content (see {@link DocumentBuilder})
-     * @param createNew if true a new table will be created inside the body in case there hasn't been one, if false {@code null} is returned
-     * @return an existing {@link XWPFTable} inside the document body (not header or footer) or create new one or return null (depending on params)
+     * Cut {@link #tableConfigs} into disjoint intervals sorted by start index. Parts of a table config that are covered by
+     * a previous one are left out, same as a linear search over the configs would do.
      */
-    private XWPFTable getTableFromBody(int currentContentIndex, int contentSize, boolean createNew) {
-
-        try {
-            // try to get body table
-            return this.document.getTables().get(this.doesDocumentHaveHeaderTable ? this.currentTableIndex - 1 : this.currentTableIndex);
+    private void buildIntervalIndex() {
 
-        // case: no tables in body yet
-        } catch (IndexOutOfBoundsException e) {
-            if (createNew)
-                return createNewTable(currentContentIndex, contentSize, TABLE_WIDTH);
+        // start index and interval as {start, end, tableIndex}
+        TreeMap<Integer, int[]> intervals = new TreeMap<>();
 
-            return null;
-        }
-    }
+        for (int tableIndex = 0; tableIndex < this.tableConfigs.size(); tableIndex++) {
+            TableConfig tableConfig = this.tableConfigs.get(tableIndex);
+            int start = tableConfig.getStartIndex();
+            int end = tableConfig.getEndIndex();
 
+            // add only the parts not covered yet
+            List<int[]> uncovered = new ArrayList<>();
+            int uncoveredStart = start;
 
-    /**
-     * Depends on {@link #createTableParagraph()} beeing called first because of some field variables.
-     * 
-     * @param currentContentIndex index of the {@link #content} element currently processed
-     * @param contentSize size of document content (see {@link DocumentBuilder})
-     * @param createNew if true a new table will be created inside the footer in case there hasn't been one, if false {@code null} is returned
-     * @return an existing {@link XWPFTable} inside the default footer or create new one or return null (depending on params)
-     */
-    private XWPFTable getTableFromFooter(int currentContentIndex, int contentSize, boolean createNew) {
+            Integer firstOverlappingStart = intervals.floorKey(start);
+            for (int[] interval : intervals.tailMap(firstOverlappingStart == null ? start : firstOverlappingStart).values()) {
+                if (interval[0] > end)
+                    break;
 
-        try {
-            // try to get footer table
-            return this.document.getHeaderFooterPolicy().getDefaultFooter().getTables().get(0);
+                if (interval[0] > uncoveredStart)
+                    uncovered.add(new int[] {uncoveredStart, interval[0] - 1, tableIndex});
 
-        // case: no table created yet
-        } catch (IndexOutOfBoundsException | NullPointerException e) {
-            if (createNew)
-                return createNewTable(contentSize - 1, contentSize, TABLE_WIDTH);
-        
-            return null;
-        }
-    }
+                uncoveredStart = Math.max(uncoveredStart, interval[1] + 1);
+            }
 
+            if (uncoveredStart <= end)
+                uncovered.add(new int[] {uncoveredStart, end, tableIndex});
 
-    /**
-     * Get the {@link TableConfig} from {@link #tableConfigs} list where {@code currentContentIndex} is in between
-     * {@code startIndex} and {@code endIndex}. <p>
-     * 
-     * Depends on {@link #createTableParagraph()} beeing called first because of some field variables.
-     * 
-     * @param currentContentIndex index of the {@link #content} element currently processed
-     * @return the {@link TableConfig} matching the {@code currentContentIndex} or null if no match is found
-     */
-    private TableConfig getCurrentTableConfig(int currentContentIndex) {
+            uncovered.forEach(interval -> intervals.put(interval[0], interval));
+        }
 
-        for (TableConfig tableConfig : this.tableConfigs)
-            if (isTableIndex(tableConfig, currentContentIndex))
-                return tableConfig;
+        int numIntervals = intervals.size();
+        this.intervalEnds = new int[numIntervals];
+        this.intervalTableIndices = new int[numIntervals];
+        int[] intervalStarts = new int[numIntervals];
+
+        int i = 0;
+        for (int[] interval : intervals.values()) {
+            intervalStarts[i] = interval[0];
+            this.intervalEnds[i] = interval[1];
+            this.intervalTableIndices[i] = interval[2];
+            i++;
+        }
 
-        return null;
+        // set last, marks the index as built
+        this.intervalStarts = intervalStarts;
     }
 
 
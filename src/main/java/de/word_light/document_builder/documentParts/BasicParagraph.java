@@ -1,15 +1,19 @@
 package de.word_light.document_builder.documentParts;
 
+import org.springframework.lang.Nullable;
+
 import de.word_light.document_builder.documentParts.style.Style;
 import de.word_light.document_builder.entites.AbstractEntity;
 
+import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Transient;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -27,15 +31,37 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class BasicParagraph extends AbstractEntity {
     
     @NotNull(message = "'text' cannot be null.")
     private String text;
     
-    @NotNull(message = "'style' cannot be null.")
+    /** Null if {@link #styleRef} is set, the style is taken from {@link DocumentWrapper#getStyles()} then */
     @Valid
     @OneToOne(cascade = CascadeType.ALL)
     @JoinColumn
     private Style style;
+
+    /** Key of a style in {@link DocumentWrapper#getStyles()}, ignored if {@link #style} is set. Not persisted. */
+    @Nullable
+    @Transient
+    private String styleRef;
+
+
+    public BasicParagraph(String text, Style style) {
+
+        this.text = text;
+        this.style = style;
+    }
+
+
+    /**
+     * @return false if there's neither a style nor a reference to one
+     */
+    @AssertTrue(message = "'style' cannot be null.")
+    @Schema(hidden = true)
+    public boolean isStyleSet() {
+
+        return this.style != null || this.styleRef != null;
+    }
 }
\ No newline at end of file
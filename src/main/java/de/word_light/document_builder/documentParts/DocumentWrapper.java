@@ -5,10 +5,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
 
 import de.word_light.document_builder.documentBuilder.TableUtils;
+import de.word_light.document_builder.documentParts.ParagraphEdit.EditType;
+import de.word_light.document_builder.documentParts.style.Style;
 import de.word_light.document_builder.entites.AbstractEntity;
+import de.word_light.document_builder.exception.ApiException;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.CascadeType;
@@ -20,6 +24,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.MapKeyColumn;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Transient;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Max;
@@ -57,6 +62,11 @@ public class DocumentWrapper extends AbstractEntity {
         inverseJoinColumns = @JoinColumn(name = "table_config_id"))
     private List<@Valid @NotNull(message = "'tableConfig cannot be null") TableConfig> tableConfigs;
 
+    /** Styles paragraphs can refer to by key instead of carrying their own, so each one is parsed and validated once. Not persisted. */
+    @Nullable
+    @Transient
+    private Map<String, @Valid @NotNull(message = "'style' cannot be null.") Style> styles;
+
     @ElementCollection(fetch = FetchType.EAGER)
     @MapKeyColumn(name = "picture_file_name", unique = true)
     @Column(name = "picture_bytes", length = 16777215)
@@ -110,6 +120,46 @@ public class DocumentWrapper extends AbstractEntity {
     }
 
 
+    /**
+     * Override setter for {@link #content} to resolve style references of the new paragraphs.
+     * 
+     * @param content list of paragraphs
+     */
+    public void setContent(List<BasicParagraph> content) {
+
+        this.content = content;
+        resolveStyleRefs();
+    }
+
+
+    /**
+     * Override setter for {@link #styles} to resolve style references of the paragraphs set before.
+     * 
+     * @param styles key and style paragraphs can refer to
+     */
+    public void setStyles(Map<String, Style> styles) {
+
+        this.styles = styles;
+        resolveStyleRefs();
+    }
+
+
+    /**
+     * @return false if a paragraph refers to a key that is not in {@link #styles}
+     */
+    @AssertTrue(message = "'content' invalid. Every 'styleRef' has to be a key of 'styles'.")
+    @Schema(hidden = true)
+    public boolean isStyleRefsResolved() {
+
+        // case: checked by other constraints
+        if (this.content == null)
+            return true;
+
+        return this.content.stream()
+                           .allMatch(basicParagraph -> basicParagraph == null || basicParagraph.getStyle() != null || basicParagraph.getStyleRef() == null);
+    }
+
+
     /**
      * @return false if indices of table configs are overlapping
      */
@@ -190,6 +240,110 @@ public class DocumentWrapper extends AbstractEntity {
     }
 
 
+    /**
+     * Apply given edits to a copy of this wrapper. Table configs behind an inserted or deleted paragraph are moved accordingly. <p>
+     * 
+     * Paragraphs cannot be inserted into or deleted from a table since that would change the number of cells.
+     * 
+     * @param edits to apply in given order
+     * @return new wrapper sharing pictures and unchanged paragraphs with this one
+     * @throws ApiException if an index is out of bounds or inside a table
+     */
+    public DocumentWrapper withEdits(List<ParagraphEdit> edits) {
+
+        List<TableConfig> tableConfigs = new ArrayList<>();
+        this.tableConfigs.forEach(tableConfig -> tableConfigs.add(tableConfig.copy()));
+
+        DocumentWrapper editedWrapper = new DocumentWrapper(new ArrayList<>(this.content), tableConfigs, this.landscape, this.fileName, this.numColumns, this.numSingleColumnLines);
+        editedWrapper.setPictures(this.pictures);
+        editedWrapper.setStyles(this.styles);
+
+        edits.forEach(editedWrapper::applyEdit);
+        editedWrapper.resolveStyleRefs();
+
+        return editedWrapper;
+    }
+
+
+    /**
+     * Set the style of all paragraphs without one that refer to a key of {@link #styles}. Paragraphs referring to the same
+     * key share the same style instance.
+     */
+    private void resolveStyleRefs() {
+
+        if (this.content == null || this.styles == null)
+            return;
+
+        this.content.forEach(this::resolveStyleRef);
+    }
+
+
+    /**
+     * Set the style of given paragraph if it has none and refers to a key of {@link #styles}. Used for paragraphs that are
+     * not part of {@link #content}.
+     * 
+     * @param basicParagraph to resolve the style reference of, may be null
+     */
+    public void resolveStyleRef(BasicParagraph basicParagraph) {
+
+        if (this.styles != null && basicParagraph != null && basicParagraph.getStyle() == null && basicParagraph.getStyleRef() != null)
+            basicParagraph.setStyle(this.styles.get(basicParagraph.getStyleRef()));
+    }
+
+
+    /**
+     * @param edit to apply to {@code this.content} and {@code this.tableConfigs}
+     * @throws ApiException if index is out of bounds or inside a table
+     */
+    private void applyEdit(ParagraphEdit edit) {
+
+        int index = edit.getIndex();
+        EditType type = edit.getType();
+
+        // case: index out of bounds
+        int maxIndex = type == EditType.INSERT ? this.content.size() : this.content.size() - 1;
+        if (index > maxIndex)
+            throw new ApiException(HttpStatus.UNPROCESSABLE_ENTITY, "Failed to apply edit. 'index' " + index + " is out of bounds.");
+
+        switch (type) {
+            case INSERT -> {
+                // case: inside table, inserting at start index moves the whole table
+                if (this.tableConfigs.stream().anyMatch(tableConfig -> tableConfig.getStartIndex() < index && index <= tableConfig.getEndIndex()))
+                    throw new ApiException(HttpStatus.UNPROCESSABLE_ENTITY, "Failed to apply edit. Cannot insert paragraph inside a table.");
+
+                this.content.add(index, edit.getBasicParagraph());
+                moveTableConfigs(index, 1);
+            }
+
+            case DELETE -> {
+                if (this.tableConfigs.stream().anyMatch(tableConfig -> TableUtils.isTableIndex(tableConfig, index)))
+                    throw new ApiException(HttpStatus.UNPROCESSABLE_ENTITY, "Failed to apply edit. Cannot delete paragraph of a table.");
+
+                this.content.remove(index);
+                moveTableConfigs(index + 1, -1);
+            }
+
+            case UPDATE -> this.content.set(index, edit.getBasicParagraph());
+
+            // don't alter the paragraph, it's shared with the unedited wrapper
+            case STYLE -> this.content.set(index, new BasicParagraph(this.content.get(index).getText(), edit.getStyle()));
+        }
+    }
+
+
+    /**
+     * @param fromIndex table configs starting at this index or later will be moved
+     * @param offset to add to start index
+     */
+    private void moveTableConfigs(int fromIndex, int offset) {
+
+        this.tableConfigs.forEach(tableConfig -> {
+            if (tableConfig.getStartIndex() >= fromIndex)
+                tableConfig.setStartIndex(tableConfig.getStartIndex() + offset);
+        });
+    }
+
+
     /**
      * @param tableConfigs to sort
      * @return given list by {@code startIndex} ascending
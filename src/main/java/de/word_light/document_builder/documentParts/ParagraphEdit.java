@@ -0,0 +1,80 @@
+package de.word_light.document_builder.documentParts;
+
+import org.springframework.lang.Nullable;
+
+import de.word_light.document_builder.documentParts.style.Style;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+
+/**
+ * One paragraph level change to the content of an existing {@link DocumentWrapper}.
+ *
+ * @since 0.1.0
+ * @see DocumentWrapper#withEdits(java.util.List)
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ParagraphEdit {
+
+    @NotNull(message = "'type' cannot be null.")
+    private EditType type;
+
+    /** Index in content list the edit refers to. For {@code INSERT} the index the new paragraph will have. */
+    @NotNull(message = "'index' cannot be null.")
+    @Min(value = 0, message = "'index' has to be greater than equal 0.")
+    private Integer index;
+
+    /** New paragraph for {@code INSERT} and {@code UPDATE} */
+    @Valid
+    @Nullable
+    private BasicParagraph basicParagraph;
+
+    /** New style for {@code STYLE} */
+    @Valid
+    @Nullable
+    private Style style;
+
+
+    /**
+     * @return false if the field needed by {@link #type} is missing
+     */
+    @AssertTrue(message = "'paragraphEdit' invalid. 'basicParagraph' is required for INSERT and UPDATE, 'style' is required for STYLE.")
+    @Schema(hidden = true)
+    public boolean isComplete() {
+
+        if (this.type == EditType.INSERT || this.type == EditType.UPDATE)
+            return this.basicParagraph != null;
+
+        if (this.type == EditType.STYLE)
+            return this.style != null;
+
+        return true;
+    }
+
+
+    public enum EditType {
+
+        /** add {@code basicParagraph} at {@code index}, shifting following paragraphs */
+        INSERT,
+
+        /** replace paragraph at {@code index} with {@code basicParagraph} */
+        UPDATE,
+
+        /** remove paragraph at {@code index} */
+        DELETE,
+
+        /** replace only the style of the paragraph at {@code index} */
+        STYLE
+    }
+}
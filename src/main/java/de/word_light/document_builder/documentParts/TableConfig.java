@@ -1,27 +1,36 @@
 package de.word_light.document_builder.documentParts;
 
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+
+import de.word_light.document_builder.documentParts.style.Style;
 import de.word_light.document_builder.entites.AbstractEntity;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Transient;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 
 /**
- * Class holding necessary table information.
+ * Class holding necessary table information. <p>
+ * 
+ * By default the table cells are the {@link BasicParagraph}s from {@code startIndex} on. If {@link #rows} are set, the table
+ * holds these instead and replaces only the paragraph at {@code startIndex}, cells are styled by {@link #headerStyle},
+ * {@link #columnStyles} or the style of that paragraph.
  * 
  * @since 0.0.1
  */
 @Entity
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class TableConfig extends AbstractEntity {
 
@@ -38,6 +47,30 @@ public class TableConfig extends AbstractEntity {
     @Min(value = 0, message = "'startIndex' has to be greater than equal 0.")
     private Integer startIndex;
 
+    /** Cell texts of one row each, null if the cells are part of the content list. Not persisted. */
+    @Nullable
+    @Transient
+    private List<@NotNull(message = "'row' cannot be null.") List<String>> rows;
+
+    /** Style of the cells in the column at the same index, null entries use the style of the replaced paragraph. Only used with {@link #rows}. */
+    @Nullable
+    @Transient
+    private List<@Valid Style> columnStyles;
+
+    /** Style of the cells in the first row, overrides {@link #columnStyles}. Only used with {@link #rows}. */
+    @Valid
+    @Nullable
+    @Transient
+    private Style headerStyle;
+
+
+    public TableConfig(Integer numColumns, Integer numRows, Integer startIndex) {
+
+        this.numColumns = numColumns;
+        this.numRows = numRows;
+        this.startIndex = startIndex;
+    }
+
 
     /**
      * Calls all neccessary validation methods on fields.
@@ -52,14 +85,96 @@ public class TableConfig extends AbstractEntity {
     }
 
 
+    /**
+     * @return false if there's not exactly one row per {@code numRows}, a row has more values than {@code numColumns} or there's
+     *         more column styles than columns
+     */
+    @AssertTrue(message = "Invalid 'tableConfig'. Number of 'rows' has to be 'numRows' with at most 'numColumns' values each.")
+    @Schema(hidden = true)
+    public boolean isRowsValid() {
+
+        // case: checked by other constraints
+        if (this.numColumns == null || this.numRows == null)
+            return true;
+
+        if (this.columnStyles != null && this.columnStyles.size() > this.numColumns)
+            return false;
+
+        if (this.rows == null)
+            return true;
+
+        return this.rows.size() == this.numRows && 
+               this.rows.stream().allMatch(row -> row == null || row.size() <= this.numColumns);
+    }
+
+
     /**
      * @return the index in content list with the last table element
      */
     @Schema(hidden = true)
     public int getEndIndex() {
 
+        // case: only replaces one paragraph
+        if (hasRows())
+            return this.startIndex;
+
         return this.startIndex + this.numColumns * this.numRows - 1;
     }
+
+
+    /**
+     * @return true if the cell texts are part of this config instead of the content list
+     */
+    public boolean hasRows() {
+
+        return this.rows != null;
+    }
+
+
+    /**
+     * @param row index of the row
+     * @param column index of the column
+     * @return text of given cell in {@link #rows}, empty if the row has no value for that column
+     */
+    public String getCellText(int row, int column) {
+
+        List<String> rowValues = this.rows.get(row);
+        String text = rowValues != null && column < rowValues.size() ? rowValues.get(column) : null;
+
+        return text == null ? "" : text;
+    }
+
+
+    /**
+     * @param row index of the row
+     * @param column index of the column
+     * @param defaultStyle style of the replaced paragraph
+     * @return the header style for the first row, else the column style or {@code defaultStyle} if there is none
+     */
+    public Style getCellStyle(int row, int column, Style defaultStyle) {
+
+        if (row == 0 && this.headerStyle != null)
+            return this.headerStyle;
+
+        if (this.columnStyles != null && column < this.columnStyles.size() && this.columnStyles.get(column) != null)
+            return this.columnStyles.get(column);
+
+        return defaultStyle;
+    }
+
+
+    /**
+     * @return new config with the same fields, sharing rows and styles with this one
+     */
+    public TableConfig copy() {
+
+        TableConfig tableConfig = new TableConfig(this.numColumns, this.numRows, this.startIndex);
+        tableConfig.setRows(this.rows);
+        tableConfig.setColumnStyles(this.columnStyles);
+        tableConfig.setHeaderStyle(this.headerStyle);
+
+        return tableConfig;
+    }
     
     
     /**
@@ -76,4 +191,4 @@ public class TableConfig extends AbstractEntity {
         // should have at least as many table cells as input cells
         return numTableCells >= numFilledCells;
     }
-}
\ No newline at end of file
+}
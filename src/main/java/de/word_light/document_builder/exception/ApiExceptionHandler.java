@@ -2,6 +2,7 @@ package de.word_light.document_builder.exception;
 
 import java.util.Arrays;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -133,6 +134,26 @@ public class ApiExceptionHandler {
                              .body(returnPretty(exception.getStatus(), errorMessage));
     }
 
+
+
+
+    /**
+     * Catches any {@link ServiceUnavailableException}. Returns a {@link ResponseEntity} object with an {@link ApiExceptionFormat} and 
+     * a 'Retry-After' header. Does not log the stackTrace since rejecting requests is expected under load.
+     * 
+     * @param exception ServiceUnavailableException that was thrown
+     * @return ResponseEntity with serviceUnavailable status and an ApiExceptionFormat object
+     */
+    @ExceptionHandler(value = ServiceUnavailableException.class)
+    public static ResponseEntity<ApiExceptionFormat> handleServiceUnavailable(ServiceUnavailableException exception) {
+
+        log.warn(exception.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                             .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                             .body(returnPretty(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage()));
+    }
+
     
 
     /**
@@ -0,0 +1,25 @@
+package de.word_light.document_builder.exception;
+
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+
+
+/**
+ * Thrown if a request is rejected because the server is busy. Responded with 503 and a 'Retry-After' header.
+ *
+ * @since 0.1.0
+ */
+@Getter
+public class ServiceUnavailableException extends ApiException {
+
+    /** seconds the client should wait before sending the request again */
+    private final long retryAfterSeconds;
+
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds, Exception originalException) {
+
+        super(HttpStatus.SERVICE_UNAVAILABLE, message, originalException);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
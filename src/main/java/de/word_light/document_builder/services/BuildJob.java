@@ -0,0 +1,122 @@
+package de.word_light.document_builder.services;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+
+
+/**
+ * A document build running in the background, created by {@link BuildJobService#submit}.
+ *
+ * @since 0.1.0
+ */
+@Getter
+public class BuildJob {
+
+    private final String id;
+
+    private final String fileName;
+
+    private final LocalDateTime submitted = LocalDateTime.now();
+
+    private volatile BuildJobStatus status = BuildJobStatus.QUEUED;
+
+    /** set once the job is not {@code QUEUED} or {@code RUNNING} anymore */
+    private volatile LocalDateTime finished;
+
+    /** set if status is {@code FAILED} or {@code TIMED_OUT} */
+    private volatile String errorMessage;
+
+    /** set if status is {@code DONE} */
+    @JsonIgnore
+    private volatile BuiltDocument builtDocument;
+
+    /** completes when the job is finished, no matter how */
+    @JsonIgnore
+    private final CompletableFuture<BuildJob> completion = new CompletableFuture<>();
+
+
+    public BuildJob(String id, String fileName) {
+
+        this.id = id;
+        this.fileName = fileName;
+    }
+
+
+    /**
+     * @return false if the job has finished already, e.g. timed out while queued
+     */
+    synchronized boolean start() {
+
+        if (isFinished())
+            return false;
+
+        this.status = BuildJobStatus.RUNNING;
+
+        return true;
+    }
+
+
+    /**
+     * Finish the job with given document, unless it has finished already.
+     * 
+     * @param builtDocument result of the build
+     * @return false if the job has finished already, e.g. timed out while building. The caller should delete the document then
+     */
+    synchronized boolean offer(BuiltDocument builtDocument) {
+
+        if (isFinished())
+            return false;
+
+        this.builtDocument = builtDocument;
+        complete(BuildJobStatus.DONE);
+
+        return true;
+    }
+
+
+    /**
+     * Finish the job with given status, unless it has finished already.
+     */
+    synchronized void fail(BuildJobStatus status, String errorMessage) {
+
+        if (isFinished())
+            return;
+
+        this.errorMessage = errorMessage;
+        complete(status);
+    }
+
+
+    @JsonIgnore
+    public boolean isFinished() {
+
+        return this.completion.isDone();
+    }
+
+
+    private void complete(BuildJobStatus status) {
+
+        this.finished = LocalDateTime.now();
+        this.status = status;
+        this.completion.complete(this);
+    }
+
+
+    public enum BuildJobStatus {
+
+        QUEUED,
+
+        RUNNING,
+
+        DONE,
+
+        FAILED,
+
+        /** took longer than {@code JOB_TIMEOUT_SECONDS} */
+        TIMED_OUT
+    }
+}
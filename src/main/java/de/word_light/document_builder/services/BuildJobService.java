@@ -0,0 +1,161 @@
+package de.word_light.document_builder.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import de.word_light.document_builder.documentBuilder.OutputProfile;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.exception.ServiceUnavailableException;
+import de.word_light.document_builder.services.BuildJob.BuildJobStatus;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Class running document builds in the background on the job executor. Jobs are kept until {@code JOB_RESULT_TTL_SECONDS}
+ * after they have finished.
+ *
+ * @since 0.1.0
+ */
+@Service
+@Log4j2
+public class BuildJobService {
+
+    @Value("${JOB_TIMEOUT_SECONDS}")
+    private long JOB_TIMEOUT_SECONDS;
+
+    @Value("${JOB_RESULT_TTL_SECONDS}")
+    private long JOB_RESULT_TTL_SECONDS;
+
+    @Value("${BUILD_RETRY_AFTER_SECONDS}")
+    private long BUILD_RETRY_AFTER_SECONDS;
+
+    @Autowired
+    private DocumentBuildService documentBuildService;
+
+    @Autowired
+    private ExecutorService jobExecutor;
+
+    /** job id and job */
+    private final Map<String, BuildJob> jobs = new ConcurrentHashMap<>();
+
+
+    /**
+     * Start building given document in the background.
+     *
+     * @param documentWrapper wrapper object containing all document information
+     * @param outputProfile compression of the .docx file
+     * @return the queued job
+     * @throws ServiceUnavailableException if the job executor's queue is full
+     */
+    public BuildJob submit(DocumentWrapper documentWrapper, OutputProfile outputProfile) {
+
+        BuildJob job = new BuildJob(UUID.randomUUID().toString(), documentWrapper.getFileName());
+
+        CompletableFuture<BuiltDocument> build;
+        try {
+            build = CompletableFuture.supplyAsync(() -> {
+                // case: timed out while queued
+                if (!job.start())
+                    return null;
+
+                byte[] bytes = this.documentBuildService.build(documentWrapper, outputProfile);
+                BuiltDocument builtDocument = this.documentBuildService.toBuiltDocument(bytes);
+
+                // case: timed out while building
+                if (!job.offer(builtDocument))
+                    builtDocument.delete();
+
+                return builtDocument;
+            }, this.jobExecutor);
+
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Failed to submit build job. Too many jobs are running at the moment.", this.BUILD_RETRY_AFTER_SECONDS, e);
+        }
+
+        this.jobs.put(job.getId(), job);
+
+        // does not stop the render thread, but the job is reported as timed out
+        build.orTimeout(this.JOB_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+             .whenComplete((builtDocument, throwable) -> {
+                // case: finished by the build or timed out while queued
+                if (throwable == null)
+                    return;
+
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                if (cause instanceof TimeoutException) {
+                    log.warn("Build job " + job.getId() + " timed out");
+                    job.fail(BuildJobStatus.TIMED_OUT, "Build took longer than " + this.JOB_TIMEOUT_SECONDS + " seconds.");
+
+                } else {
+                    log.error("Build job " + job.getId() + " failed: " + cause.getMessage());
+                    job.fail(BuildJobStatus.FAILED, cause.getMessage());
+                }
+             });
+
+        return job;
+    }
+
+
+    /**
+     * @param jobId id of the job
+     * @return the job
+     * @throws ApiException 404 if there is no job with given id (anymore)
+     */
+    public BuildJob getJob(String jobId) {
+
+        BuildJob job = this.jobs.get(jobId);
+        if (job == null)
+            throw new ApiException(HttpStatus.NOT_FOUND, "Failed to find build job " + jobId + ". It may have expired.");
+
+        return job;
+    }
+
+
+    /**
+     * @param jobId id of the job
+     * @return the built document of the job
+     * @throws ApiException 404 if there is no such job, 409 if the job is not done
+     */
+    public BuiltDocument getBuiltDocument(String jobId) {
+
+        BuildJob job = getJob(jobId);
+        if (job.getStatus() != BuildJobStatus.DONE)
+            throw new ApiException(HttpStatus.CONFLICT, "Failed to download document of build job " + jobId + ". Status is " + job.getStatus() + ".");
+
+        return job.getBuiltDocument();
+    }
+
+
+    /**
+     * Remove jobs that have finished more than {@code JOB_RESULT_TTL_SECONDS} ago and delete their documents.
+     */
+    @Scheduled(fixedDelayString = "${JOB_CLEAN_UP_INTERVAL_MILLIS}")
+    public void removeExpiredJobs() {
+
+        LocalDateTime now = LocalDateTime.now();
+
+        this.jobs.values().removeIf(job -> {
+            boolean isExpired = job.isFinished() && Duration.between(job.getFinished(), now).getSeconds() >= this.JOB_RESULT_TTL_SECONDS;
+            if (isExpired && job.getBuiltDocument() != null)
+                job.getBuiltDocument().delete();
+
+            return isExpired;
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package de.word_light.document_builder.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import de.word_light.document_builder.exception.ApiException;
+import lombok.Getter;
+
+
+/**
+ * A built document waiting to be downloaded. Small documents are kept in memory, larger ones are spilled to a file.
+ *
+ * @since 0.1.0
+ * @see DocumentBuildService#buildDocument(de.word_light.document_builder.documentParts.DocumentWrapper)
+ */
+public class BuiltDocument {
+
+    /** null if spilled to {@link #file} or deleted */
+    private byte[] bytes;
+
+    /** null if kept in memory */
+    @Getter
+    private final File file;
+
+
+    public BuiltDocument(byte[] bytes) {
+
+        this.bytes = bytes;
+        this.file = null;
+    }
+
+
+    public BuiltDocument(File file) {
+
+        this.bytes = null;
+        this.file = file;
+    }
+
+
+    public boolean isInMemory() {
+
+        return this.file == null;
+    }
+
+
+    /**
+     * @return false if document has been deleted
+     */
+    public boolean exists() {
+
+        return isInMemory() ? this.bytes != null : this.file.exists();
+    }
+
+
+    /**
+     * @return number of bytes of the document
+     */
+    public long getLength() {
+
+        return isInMemory() ? this.bytes.length : this.file.length();
+    }
+
+
+    /**
+     * @return stream to read the document from, needs to be closed by the caller
+     * @throws ApiException
+     */
+    public InputStream getInputStream() {
+
+        if (isInMemory())
+            return new ByteArrayInputStream(this.bytes);
+
+        try {
+            return new FileInputStream(this.file);
+
+        } catch (IOException e) {
+            throw new ApiException("Failed to read built document.", e);
+        }
+    }
+
+
+    /**
+     * @param os to copy the document to. Is not closed
+     * @throws IOException
+     */
+    public void writeTo(OutputStream os) throws IOException {
+
+        if (isInMemory())
+            os.write(this.bytes);
+
+        else
+            Files.copy(this.file.toPath(), os);
+    }
+
+
+    /**
+     * Release the bytes or delete the file.
+     */
+    public void delete() {
+
+        if (isInMemory())
+            this.bytes = null;
+
+        else
+            this.file.delete();
+    }
+}
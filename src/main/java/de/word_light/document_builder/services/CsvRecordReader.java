@@ -0,0 +1,124 @@
+package de.word_light.document_builder.services;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Reads comma separated values one record at a time. Values may be quoted with {@code "} and contain line breaks, quotes
+ * inside quoted values are escaped as {@code ""}. Blank lines are skipped and a byte order mark is removed.
+ *
+ * @since 0.1.0
+ */
+class CsvRecordReader implements Closeable {
+
+    private final BufferedReader reader;
+
+    private boolean isFirstRecord = true;
+
+
+    /**
+     * @param is utf-8 encoded values. Is closed when the reader is closed
+     */
+    CsvRecordReader(InputStream is) {
+
+        this.reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Read the fields of the next non blank line, following quoted fields over line breaks.
+     *
+     * @return fields of the next record or null if the end of the stream is reached
+     * @throws IOException if a quoted value is not closed
+     */
+    List<String> readRecord() throws IOException {
+
+        List<String> fields = readFields();
+
+        if (this.isFirstRecord && fields != null) {
+            this.isFirstRecord = false;
+
+            // remove byte order mark
+            if (fields.get(0).startsWith("\uFEFF"))
+                fields.set(0, fields.get(0).substring(1));
+        }
+
+        return fields;
+    }
+
+
+    private List<String> readFields() throws IOException {
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        boolean isAnyChar = false;
+
+        int c;
+        while ((c = this.reader.read()) != -1) {
+            if (isQuoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+
+                // case: escaped quote
+                this.reader.mark(1);
+                if (this.reader.read() == '"') {
+                    field.append('"');
+                    continue;
+                }
+
+                this.reader.reset();
+                isQuoted = false;
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> isQuoted = true;
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                }
+                case '\r' -> {
+                    continue;
+                }
+                case '\n' -> {
+                    // case: blank line
+                    if (!isAnyChar)
+                        continue;
+
+                    fields.add(field.toString());
+                    return fields;
+                }
+                default -> field.append((char) c);
+            }
+
+            isAnyChar = true;
+        }
+
+        if (isQuoted)
+            throw new IOException("Quoted value is not closed");
+
+        // case: end of stream
+        if (!isAnyChar)
+            return null;
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        this.reader.close();
+    }
+}
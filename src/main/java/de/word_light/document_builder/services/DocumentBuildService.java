@@ -0,0 +1,495 @@
+package de.word_light.document_builder.services;
+
+import static de.word_light.document_builder.utils.Utils.DOCX_FOLDER;
+import static de.word_light.document_builder.utils.Utils.prependSlash;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import de.word_light.document_builder.documentBuilder.FragmentCache;
+import de.word_light.document_builder.documentBuilder.MergeLayout;
+import de.word_light.document_builder.documentBuilder.OutputProfile;
+import de.word_light.document_builder.documentBuilder.RenderPlan;
+import de.word_light.document_builder.documentBuilder.StreamedTable;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.exception.ServiceUnavailableException;
+import de.word_light.document_builder.utils.BuildMetrics;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Class building {@link DocumentWrapper}s to .docx files on the executors, rendered by the {@link DocumentRenderer}.
+ * Rendered files are reused through the {@link RenderCache}.
+ *
+ * @since 0.1.0
+ */
+@Service
+@Log4j2
+public class DocumentBuildService {
+
+    /** max number of merge documents being rendered or waiting to be zipped at once */
+    @Value("${MERGE_MAX_IN_FLIGHT}")
+    private int MERGE_MAX_IN_FLIGHT;
+
+    @Value("${IN_MEMORY_DOCUMENT_MAX_BYTES}")
+    private int IN_MEMORY_DOCUMENT_MAX_BYTES;
+
+    @Autowired
+    private RenderCache renderCache;
+
+    @Autowired
+    private DocumentRenderer documentRenderer;
+
+    @Value("${BUILD_RETRY_AFTER_SECONDS}")
+    private long BUILD_RETRY_AFTER_SECONDS;
+
+    /** max seconds an admitted streamed build holds its build thread before the response stream is handed to it */
+    @Value("${STREAMED_BUILD_START_TIMEOUT_SECONDS}")
+    private long STREAMED_BUILD_START_TIMEOUT_SECONDS;
+
+    @Autowired
+    private ExecutorService batchExecutor;
+
+    @Autowired
+    private ExecutorService buildExecutor;
+
+
+    /**
+     * Build document on the build executor and keep it for download. Documents larger than {@code IN_MEMORY_DOCUMENT_MAX_BYTES}
+     * are written to a file, smaller ones are kept in memory.
+     *
+     * @param documentWrapper wrapper object containing all document information
+     * @param outputProfile compression of the .docx file
+     * @return the built document
+     * @throws ServiceUnavailableException if the build executor's queue is full
+     * @see #build(DocumentWrapper, OutputProfile)
+     */
+    public BuiltDocument buildDocument(DocumentWrapper documentWrapper, OutputProfile outputProfile) {
+
+        byte[] bytes = runOnBuildExecutor(() -> build(documentWrapper, outputProfile));
+
+        return toBuiltDocument(bytes);
+    }
+
+
+    /**
+     * Build document in memory with the {@link DocumentRenderer}. If the same document has been rendered before, the cached
+     * bytes are returned instead. Safe to call from multiple threads.
+     *
+     * @param documentWrapper wrapper object containing all document information
+     * @param outputProfile compression of the .docx file
+     * @return bytes of the .docx file
+     */
+    public byte[] build(DocumentWrapper documentWrapper, OutputProfile outputProfile) {
+
+        recordInputSize(documentWrapper);
+
+        String key = RenderCache.getKey(documentWrapper, outputProfile);
+
+        // case: rendered before
+        byte[] bytes = this.renderCache.get(key);
+        if (bytes != null) {
+            log.info("Using cached .docx file");
+
+        } else {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            this.documentRenderer.render(documentWrapper, outputProfile, null, os);
+            bytes = os.toByteArray();
+
+            this.renderCache.put(key, bytes);
+        }
+
+        BuildMetrics.recordOutputBytes(bytes.length);
+
+        return bytes;
+    }
+
+
+    /**
+     * Build given documents in parallel on the batch executor and write them to given stream as zip. Each .docx file is
+     * added as soon as it is done, so entries are in order of completion. Duplicate file names are numbered.
+     *
+     * @param documentWrappers documents to build
+     * @param outputProfile compression of the .docx files
+     * @param os to write the zip to. Is not closed
+     */
+    public void buildBatch(List<DocumentWrapper> documentWrappers, OutputProfile outputProfile, OutputStream os) {
+
+        log.info("Building batch of " + documentWrappers.size() + " documents...");
+
+        BlockingQueue<CompletableFuture<BatchEntry>> doneEntries = new LinkedBlockingQueue<>();
+        List<CompletableFuture<BatchEntry>> entries = new ArrayList<>();
+        for (DocumentWrapper documentWrapper : documentWrappers) {
+            CompletableFuture<BatchEntry> entry = CompletableFuture.supplyAsync(() -> new BatchEntry(documentWrapper.getFileName(), build(documentWrapper, outputProfile)), this.batchExecutor);
+            entry.whenComplete((batchEntry, throwable) -> doneEntries.add(entry));
+            entries.add(entry);
+        }
+
+        Set<String> entryNames = new HashSet<>();
+
+        try {
+            ZipOutputStream zip = new ZipOutputStream(os);
+
+            for (int i = 0; i < entries.size(); i++)
+                writeBatchEntry(zip, doneEntries.take().join(), entryNames);
+
+            zip.finish();
+
+            log.info("Finished building batch");
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Failed to build batch. Interrupted.", e);
+
+        } catch (IOException | CompletionException e) {
+            throw new ApiException("Failed to build batch.", e);
+
+        } finally {
+            // does not stop running renders, just skips queued ones
+            entries.forEach(entry -> entry.cancel(false));
+        }
+    }
+
+
+    /**
+     * Build one document per row from the same layout and write them to given stream as zip. Rows are only read while
+     * less than {@code MERGE_MAX_IN_FLIGHT} documents are being rendered or waiting to be zipped, so memory does not
+     * depend on the number of rows. Like {@link #buildBatch(List, OutputProfile, OutputStream)}, entries are in order of
+     * completion and duplicate file names are numbered.<p>
+     *
+     * Filled documents are not put into the render cache since each row is built only once.
+     *
+     * @param mergeLayout compiled layout to fill with each row
+     * @param rows placeholder values, one map per document. Is not closed
+     * @param outputProfile compression of the .docx files
+     * @param os to write the zip to. Is not closed
+     */
+    public void buildMerge(MergeLayout mergeLayout, MergeRowReader rows, OutputProfile outputProfile, OutputStream os) {
+
+        log.info("Building merge with placeholders " + mergeLayout.getPlaceholders() + "...");
+
+        BlockingQueue<CompletableFuture<BatchEntry>> doneEntries = new LinkedBlockingQueue<>();
+        // submitted but not yet zipped
+        Set<CompletableFuture<BatchEntry>> pendingEntries = new HashSet<>();
+        Set<String> entryNames = new HashSet<>();
+
+        try {
+            ZipOutputStream zip = new ZipOutputStream(os);
+
+            while (rows.hasNext()) {
+                Map<String, String> row = rows.next();
+
+                // wait for a free slot
+                while (pendingEntries.size() >= this.MERGE_MAX_IN_FLIGHT)
+                    writeMergeEntry(zip, doneEntries.take(), pendingEntries, entryNames);
+
+                CompletableFuture<BatchEntry> entry = CompletableFuture.supplyAsync(() -> buildMergeEntry(mergeLayout, row, outputProfile), this.batchExecutor);
+                pendingEntries.add(entry);
+                entry.whenComplete((batchEntry, throwable) -> doneEntries.add(entry));
+
+                // zip what's done already
+                CompletableFuture<BatchEntry> doneEntry;
+                while ((doneEntry = doneEntries.poll()) != null)
+                    writeMergeEntry(zip, doneEntry, pendingEntries, entryNames);
+            }
+
+            while (!pendingEntries.isEmpty())
+                writeMergeEntry(zip, doneEntries.take(), pendingEntries, entryNames);
+
+            zip.finish();
+
+            log.info("Finished building merge of " + entryNames.size() + " documents");
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Failed to build merge. Interrupted.", e);
+
+        } catch (CompletionException e) {
+            // case: invalid row
+            if (e.getCause() instanceof ApiException apiException)
+                throw apiException;
+
+            throw new ApiException("Failed to build merge.", e);
+
+        } catch (IOException e) {
+            throw new ApiException("Failed to build merge.", e);
+
+        } finally {
+            // does not stop running renders, just skips queued ones
+            pendingEntries.forEach(entry -> entry.cancel(false));
+        }
+    }
+
+
+    /**
+     * Write given entry to zip and remove it from pending entries.
+     */
+    private void writeMergeEntry(ZipOutputStream zip, CompletableFuture<BatchEntry> entry, Set<CompletableFuture<BatchEntry>> pendingEntries, Set<String> entryNames) throws IOException {
+
+        pendingEntries.remove(entry);
+
+        writeBatchEntry(zip, entry.join(), entryNames);
+    }
+
+
+    /**
+     * Fill given layout with given row and render it, reusing the layout's render plan if the row does not change it.
+     */
+    private BatchEntry buildMergeEntry(MergeLayout mergeLayout, Map<String, String> row, OutputProfile outputProfile) {
+
+        DocumentWrapper documentWrapper = mergeLayout.fill(row);
+        RenderPlan renderPlan = mergeLayout.isRenderPlanValid(documentWrapper) ? mergeLayout.getRenderPlan() : null;
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        this.documentRenderer.render(documentWrapper, outputProfile, renderPlan, os);
+        byte[] bytes = os.toByteArray();
+
+        BuildMetrics.recordOutputBytes(bytes.length);
+
+        return new BatchEntry(documentWrapper.getFileName(), bytes);
+    }
+
+
+    private static void writeBatchEntry(ZipOutputStream zip, BatchEntry batchEntry, Set<String> entryNames) throws IOException {
+
+        zip.putNextEntry(new ZipEntry(getUniqueEntryName(batchEntry.fileName(), entryNames)));
+        zip.write(batchEntry.bytes());
+        zip.closeEntry();
+    }
+
+
+    /**
+     * Write given document with given table straight to given stream, reading the table rows while writing. Neither the
+     * document nor the table rows are held in memory as a whole, so the .docx file is not put into the render cache.
+     *
+     * @param documentWrapper wrapper object containing all document information
+     * @param streamedTable to write in place of one body paragraph
+     * @param outputProfile compression of the .docx file
+     * @param os to write the .docx file to. Is not closed
+     */
+    public void buildWithStreamedTable(DocumentWrapper documentWrapper, StreamedTable streamedTable, OutputProfile outputProfile, OutputStream os) {
+
+        recordInputSize(documentWrapper);
+
+        this.documentRenderer.renderWithStreamedTable(documentWrapper, streamedTable, outputProfile, os);
+    }
+
+
+    /**
+     * Write the document of given reader straight to given stream, reading the paragraphs while writing. The content is not
+     * held in memory as a whole, so the .docx file is not put into the render cache.
+     *
+     * @param contentReader positioned at the first paragraph, its layout holds all other document information
+     * @param outputProfile compression of the .docx file
+     * @param os to write the .docx file to. Is not closed
+     */
+    public void buildWithStreamedContent(StreamedContentReader contentReader, OutputProfile outputProfile, OutputStream os) {
+
+        this.documentRenderer.renderWithStreamedContent(contentReader.getLayout(), contentReader, outputProfile, os);
+
+        BuildMetrics.recordNumParagraphs(contentReader.getNumParagraphs());
+    }
+
+
+    /**
+     * Write given document to file reusing fragments of given cache and filling it with the ones rendered. Only paragraphs
+     * and tables that are not in the cache are rendered, but every write still lists and hashes all of them and zips the
+     * whole document again. Not put into the render cache.
+     *
+     * @param documentWrapper wrapper object containing all document information
+     * @param fragmentCache holding the fragments of the last version of the document, empty for the first version
+     * @param outputProfile compression of the .docx file
+     * @return the built document, kept in memory or in a file like {@link #buildDocument(DocumentWrapper, OutputProfile)} does
+     * @throws ServiceUnavailableException if the build executor's queue is full
+     * @see DocumentRenderer#renderIncrementally(DocumentWrapper, FragmentCache, OutputProfile, OutputStream)
+     */
+    public BuiltDocument writeIncrementally(DocumentWrapper documentWrapper, FragmentCache fragmentCache, OutputProfile outputProfile) {
+
+        recordInputSize(documentWrapper);
+
+        byte[] bytes = runOnBuildExecutor(() -> {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            this.documentRenderer.renderIncrementally(documentWrapper, fragmentCache, outputProfile, os);
+
+            log.info("Rendered " + fragmentCache.getNumMisses() + " changed fragments");
+
+            return os.toByteArray();
+        });
+
+        BuildMetrics.recordOutputBytes(bytes.length);
+
+        return toBuiltDocument(bytes);
+    }
+
+
+    /**
+     * Submit given build to the build executor before the response is started, so streamed builds count towards the number
+     * of documents rendered at once and are rejected like all other builds. The build starts writing once the returned body
+     * hands it the response stream, the body waits for it to finish.
+     *
+     * @param build writing the document to the response stream
+     * @return body of the response to return instead of given build
+     * @throws ServiceUnavailableException if the build executor's queue is full
+     */
+    public StreamingResponseBody admitStreamedBuild(StreamingResponseBody build) {
+
+        CompletableFuture<OutputStream> responseStream = new CompletableFuture<>();
+
+        Future<Void> future;
+        try {
+            future = this.buildExecutor.submit(() -> {
+                // case: response was never started, don't hold the thread forever
+                build.writeTo(responseStream.get(this.STREAMED_BUILD_START_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+                return null;
+            });
+
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Failed to build document. Too many documents are being built at the moment.", this.BUILD_RETRY_AFTER_SECONDS, e);
+        }
+
+        return os -> {
+            responseStream.complete(os);
+            getBuildResult(future);
+        };
+    }
+
+
+    /**
+     * Run given build on the build executor and wait for it. Limits the number of documents rendered at once.
+     *
+     * @param build to run
+     * @return result of given build
+     * @throws ServiceUnavailableException if the build executor's queue is full
+     * @throws ApiException if the build failed
+     */
+    private byte[] runOnBuildExecutor(Callable<byte[]> build) {
+
+        Future<byte[]> future;
+        try {
+            future = this.buildExecutor.submit(build);
+
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Failed to build document. Too many documents are being built at the moment.", this.BUILD_RETRY_AFTER_SECONDS, e);
+        }
+
+        return getBuildResult(future);
+    }
+
+
+    /**
+     * Wait for given build to finish.
+     *
+     * @param future of a build submitted to the build executor
+     * @return result of the build
+     * @throws ApiException if the build failed
+     */
+    private <T> T getBuildResult(Future<T> future) {
+
+        try {
+            return future.get();
+
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ApiException("Failed to build document. Interrupted.", e);
+
+        } catch (ExecutionException e) {
+            // keep status of api exceptions
+            if (e.getCause() instanceof ApiException apiException)
+                throw apiException;
+
+            throw new ApiException("Failed to build document.", e.getCause() instanceof Exception cause ? cause : e);
+        }
+    }
+
+
+    private void recordInputSize(DocumentWrapper documentWrapper) {
+
+        BuildMetrics.recordNumParagraphs(documentWrapper.getContent().size());
+
+        long pictureBytes = 0;
+        if (documentWrapper.getPictures() != null)
+            for (byte[] picture : documentWrapper.getPictures().values())
+                pictureBytes += picture.length;
+
+        BuildMetrics.recordPictureBytes(pictureBytes);
+    }
+
+
+    /**
+     * @param fileName of the document
+     * @param entryNames names already in the zip. Given name (or the numbered one) will be added
+     * @return given file name or given file name with a number like {@code "name (1).docx"} if the name is already taken
+     */
+    static String getUniqueEntryName(String fileName, Set<String> entryNames) {
+
+        String entryName = fileName;
+
+        int extensionIndex = fileName.lastIndexOf('.');
+        String name = extensionIndex == -1 ? fileName : fileName.substring(0, extensionIndex);
+        String extension = extensionIndex == -1 ? "" : fileName.substring(extensionIndex);
+
+        for (int i = 1; !entryNames.add(entryName); i++)
+            entryName = name + " (" + i + ")" + extension;
+
+        return entryName;
+    }
+
+
+    /**
+     * Keep given bytes in memory or spill them to a file in the docx folder if they are too large. Spilled files get a random
+     * name, since all sessions and jobs share that folder. The file name of the document is used for download only.
+     * 
+     * @param bytes of the .docx file
+     * @return the built document
+     */
+    public BuiltDocument toBuiltDocument(byte[] bytes) {
+
+        if (bytes.length <= this.IN_MEMORY_DOCUMENT_MAX_BYTES)
+            return new BuiltDocument(bytes);
+
+        log.info("Spilling .docx file of " + bytes.length + " bytes to disk");
+
+        File docxFile = new File(DOCX_FOLDER + prependSlash(UUID.randomUUID() + ".docx"));
+
+        try {
+            Files.write(docxFile.toPath(), bytes);
+
+            return new BuiltDocument(docxFile);
+
+        } catch (IOException e) {
+            throw new ApiException("Failed to write .docx file.", e);
+        }
+    }
+
+
+    private record BatchEntry(String fileName, byte[] bytes) {}
+}
@@ -0,0 +1,166 @@
+package de.word_light.document_builder.services;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import de.word_light.document_builder.documentBuilder.DocumentBuilder;
+import de.word_light.document_builder.documentBuilder.FragmentCache;
+import de.word_light.document_builder.documentBuilder.OutputProfile;
+import de.word_light.document_builder.documentBuilder.RenderPlan;
+import de.word_light.document_builder.documentBuilder.StreamedTable;
+import de.word_light.document_builder.documentBuilder.StreamingDocumentWriter;
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import jakarta.annotation.Nullable;
+
+
+/**
+ * Class choosing the right writer for a {@link DocumentWrapper} and writing it to a stream. Holds configuration only, all
+ * state of a build lives in the writer created for it, so one instance can render any number of documents at once.<p>
+ *
+ * Given wrappers and render plans are only read, they may be shared between concurrent renders.
+ *
+ * @since 0.1.0
+ */
+@Service
+public class DocumentRenderer {
+
+    @Value("${STREAMING_CONTENT_SIZE_THRESHOLD}")
+    private int STREAMING_CONTENT_SIZE_THRESHOLD;
+
+    @Value("${PARALLEL_CONTENT_SIZE_THRESHOLD}")
+    private int PARALLEL_CONTENT_SIZE_THRESHOLD;
+
+    /** if true, blank lines get their font size from the paragraph mark instead of filler runs */
+    @Value("${COMPACT_EMPTY_LINES}")
+    private boolean COMPACT_EMPTY_LINES;
+
+    /** parts of documents rendered in parallel */
+    @Autowired
+    private ExecutorService renderExecutor;
+
+
+    /**
+     * Write given document as .docx file. Uses the {@link StreamingDocumentWriter} for large documents and renders very large
+     * ones in parallel, smaller ones are built with the {@link DocumentBuilder}.
+     *
+     * @param documentWrapper wrapper object containing all document information
+     * @param outputProfile compression of the .docx file
+     * @param renderPlan compiled from the content of given wrapper to reuse, null to compile a new one
+     * @param os to write the .docx file to. Is not closed
+     */
+    public void render(DocumentWrapper documentWrapper, OutputProfile outputProfile, @Nullable RenderPlan renderPlan, OutputStream os) {
+
+        int contentSize = documentWrapper.getContent().size();
+
+        // case: large document
+        if (contentSize >= this.STREAMING_CONTENT_SIZE_THRESHOLD) {
+            StreamingDocumentWriter streamingDocumentWriter = createStreamingDocumentWriter(documentWrapper);
+            streamingDocumentWriter.setParallel(contentSize >= this.PARALLEL_CONTENT_SIZE_THRESHOLD);
+            streamingDocumentWriter.setOutputProfile(outputProfile);
+
+            streamingDocumentWriter.write(os);
+            return;
+        }
+
+        DocumentBuilder documentBuilder = new DocumentBuilder(documentWrapper.getContent(),
+                                                                documentWrapper.getFileName(),
+                                                                documentWrapper.getNumColumns(),
+                                                                documentWrapper.getNumSingleColumnLines(),
+                                                                documentWrapper.isLandscape(),
+                                                                documentWrapper.getPictures(),
+                                                                documentWrapper.getTableConfigs());
+
+        if (renderPlan != null)
+            documentBuilder.setRenderPlan(renderPlan);
+
+        // build
+        documentBuilder.setOutputProfile(outputProfile);
+        documentBuilder.setIsCompactEmptyLines(this.COMPACT_EMPTY_LINES);
+        documentBuilder.build().write(os);
+    }
+
+
+    /**
+     * Write given document as .docx file with the {@link StreamingDocumentWriter} no matter its size, reusing the fragments
+     * of given cache and filling it with the ones rendered. Use this for every version of a document that is edited, so
+     * all versions come out of the same writer.
+     *
+     * @param documentWrapper wrapper object containing all document information
+     * @param fragmentCache holding the fragments of the last version of the document, empty for the first version
+     * @param outputProfile compression of the .docx file
+     * @param os to write the .docx file to. Is not closed
+     */
+    public void renderIncrementally(DocumentWrapper documentWrapper, FragmentCache fragmentCache, OutputProfile outputProfile, OutputStream os) {
+
+        StreamingDocumentWriter streamingDocumentWriter = createStreamingDocumentWriter(documentWrapper);
+        streamingDocumentWriter.setParallel(documentWrapper.getContent().size() >= this.PARALLEL_CONTENT_SIZE_THRESHOLD);
+        streamingDocumentWriter.setFragmentCache(fragmentCache);
+        streamingDocumentWriter.setOutputProfile(outputProfile);
+
+        streamingDocumentWriter.write(os);
+    }
+
+
+    /**
+     * Write given document as .docx file with given table in place of one body paragraph. Always uses the
+     * {@link StreamingDocumentWriter}, sequentially, since the table rows are read while writing.
+     *
+     * @param documentWrapper wrapper object containing all document information
+     * @param streamedTable to write row by row
+     * @param outputProfile compression of the .docx file
+     * @param os to write the .docx file to. Is not closed
+     */
+    public void renderWithStreamedTable(DocumentWrapper documentWrapper, StreamedTable streamedTable, OutputProfile outputProfile, OutputStream os) {
+
+        StreamingDocumentWriter streamingDocumentWriter = createStreamingDocumentWriter(documentWrapper);
+        streamingDocumentWriter.setStreamedTable(streamedTable);
+        streamingDocumentWriter.setOutputProfile(outputProfile);
+
+        streamingDocumentWriter.write(os);
+    }
+
+
+    /**
+     * Write given document as .docx file with paragraphs read while writing instead of the wrapper's content. Always uses the
+     * {@link StreamingDocumentWriter}, sequentially, since the paragraphs can be read only once.
+     *
+     * @param layout wrapper object containing all document information but the content
+     * @param content paragraphs to write in given order. Is consumed by writing the document
+     * @param outputProfile compression of the .docx file
+     * @param os to write the .docx file to. Is not closed
+     */
+    public void renderWithStreamedContent(DocumentWrapper layout, Iterator<BasicParagraph> content, OutputProfile outputProfile, OutputStream os) {
+
+        StreamingDocumentWriter streamingDocumentWriter = createStreamingDocumentWriter(layout);
+        streamingDocumentWriter.setStreamedContent(content);
+        streamingDocumentWriter.setOutputProfile(outputProfile);
+
+        streamingDocumentWriter.write(os);
+    }
+
+
+    /**
+     * @param documentWrapper wrapper object containing all document information
+     * @return a new writer for given document, configured like {@link #render(DocumentWrapper, OutputProfile, RenderPlan, OutputStream)} does
+     */
+    public StreamingDocumentWriter createStreamingDocumentWriter(DocumentWrapper documentWrapper) {
+
+        StreamingDocumentWriter streamingDocumentWriter = new StreamingDocumentWriter(documentWrapper.getContent(),
+                                                                                      documentWrapper.getFileName(),
+                                                                                      documentWrapper.getNumColumns(),
+                                                                                      documentWrapper.getNumSingleColumnLines(),
+                                                                                      documentWrapper.isLandscape(),
+                                                                                      documentWrapper.getPictures(),
+                                                                                      documentWrapper.getTableConfigs());
+        streamingDocumentWriter.setCompactEmptyLines(this.COMPACT_EMPTY_LINES);
+        streamingDocumentWriter.setExecutor(this.renderExecutor);
+
+        return streamingDocumentWriter;
+    }
+}
@@ -0,0 +1,207 @@
+package de.word_light.document_builder.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.word_light.document_builder.exception.ApiException;
+
+
+/**
+ * Reads the rows of a mail merge one at a time from a stream, so only the current row is held in memory.<p>
+ *
+ * Each row maps placeholder names to values. NDJSON rows are json objects, one per line. Non text values are used as
+ * their json text. CSV rows are comma separated lines with the placeholder names in the first line, values may be quoted
+ * with {@code "} and contain line breaks.
+ *
+ * @since 0.1.0
+ */
+public abstract class MergeRowReader implements Iterator<Map<String, String>>, Closeable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /** 1 based number of the last row returned */
+    protected int rowNumber;
+
+    private Map<String, String> nextRow;
+
+
+    /**
+     * @param is to read rows from. Is closed when the reader is closed
+     * @param format of the rows
+     * @return a reader for given format
+     */
+    public static MergeRowReader of(InputStream is, MergeRowFormat format) {
+
+        return switch (format) {
+            case NDJSON -> new NdjsonRowReader(is);
+            case CSV -> new CsvRowReader(is);
+        };
+    }
+
+
+    @Override
+    public boolean hasNext() {
+
+        if (this.nextRow == null)
+            this.nextRow = readRow();
+
+        return this.nextRow != null;
+    }
+
+
+    /**
+     * @throws ApiException 400 if the row is malformed
+     */
+    @Override
+    public Map<String, String> next() {
+
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        Map<String, String> row = this.nextRow;
+        this.nextRow = null;
+        this.rowNumber++;
+
+        return row;
+    }
+
+
+    /**
+     * @return the next row or null if there are no more rows
+     * @throws ApiException 400 if the row is malformed
+     */
+    protected abstract Map<String, String> readRow();
+
+
+    protected ApiException malformedRow(Exception e) {
+
+        return new ApiException(HttpStatus.BAD_REQUEST, "Failed to read merge row " + (this.rowNumber + 1) + ". Row is malformed.", e);
+    }
+
+
+    public enum MergeRowFormat {
+
+        /** one json value per line, objects for merge rows and arrays for table rows */
+        NDJSON,
+
+        /** comma separated values, with a header line for merge rows */
+        CSV
+    }
+
+
+    private static class NdjsonRowReader extends MergeRowReader {
+
+        private final InputStream is;
+
+        private MappingIterator<JsonNode> rows;
+
+
+        NdjsonRowReader(InputStream is) {
+
+            this.is = is;
+        }
+
+
+        @Override
+        protected Map<String, String> readRow() {
+
+            try {
+                if (this.rows == null)
+                    this.rows = OBJECT_MAPPER.readerFor(JsonNode.class).readValues(this.is);
+
+                if (!this.rows.hasNextValue())
+                    return null;
+
+                JsonNode row = this.rows.nextValue();
+                if (!row.isObject())
+                    throw new IOException("Expected a json object but got " + row.getNodeType());
+
+                Map<String, String> values = new HashMap<>();
+                row.fields().forEachRemaining(field -> {
+                    JsonNode value = field.getValue();
+                    if (!value.isNull())
+                        values.put(field.getKey(), value.isValueNode() ? value.asText() : value.toString());
+                });
+
+                return values;
+
+            } catch (IOException e) {
+                throw malformedRow(e);
+            }
+        }
+
+
+        @Override
+        public void close() throws IOException {
+
+            if (this.rows != null)
+                this.rows.close();
+
+            this.is.close();
+        }
+    }
+
+
+    private static class CsvRowReader extends MergeRowReader {
+
+        private final CsvRecordReader reader;
+
+        private List<String> header;
+
+
+        CsvRowReader(InputStream is) {
+
+            this.reader = new CsvRecordReader(is);
+        }
+
+
+        @Override
+        protected Map<String, String> readRow() {
+
+            try {
+                if (this.header == null) {
+                    this.header = this.reader.readRecord();
+
+                    // case: empty input
+                    if (this.header == null)
+                        return null;
+                }
+
+                List<String> fields = this.reader.readRecord();
+                if (fields == null)
+                    return null;
+
+                if (fields.size() > this.header.size())
+                    throw new IOException("Expected at most " + this.header.size() + " values but got " + fields.size());
+
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < fields.size(); i++)
+                    values.put(this.header.get(i), fields.get(i));
+
+                return values;
+
+            } catch (IOException e) {
+                throw malformedRow(e);
+            }
+        }
+
+
+        @Override
+        public void close() throws IOException {
+
+            this.reader.close();
+        }
+    }
+}
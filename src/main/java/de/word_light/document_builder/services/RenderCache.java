@@ -0,0 +1,364 @@
+package de.word_light.document_builder.services;
+
+import static de.word_light.document_builder.utils.Utils.RENDER_CACHE_FOLDER;
+import static de.word_light.document_builder.utils.Utils.prependSlash;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import de.word_light.document_builder.documentBuilder.OutputProfile;
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.documentParts.TableConfig;
+import de.word_light.document_builder.documentParts.style.Style;
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.utils.Utils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Cache for rendered .docx files keyed by a hash of everything the output depends on (see {@link #getKey(DocumentWrapper)}).<p>
+ *
+ * Has a size bounded memory tier and a size bounded disk tier in {@link Utils#RENDER_CACHE_FOLDER}. Least recently used entries
+ * are moved from memory to disk and deleted from disk when a tier is full. Entries larger than the memory tier go to disk
+ * directly.
+ *
+ * @since 0.1.0
+ */
+@Service
+@Log4j2
+public class RenderCache {
+
+    /** change this if the rendered output changes for the same input */
+    private static final String KEY_VERSION = "2";
+
+    private final long memoryMaxBytes;
+
+    private final long diskMaxBytes;
+
+    private final String folder;
+
+    /** key and file bytes, least recently used first */
+    private final Map<String, byte[]> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** key and file size, least recently used first */
+    private final Map<String, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long memoryBytes;
+
+    private long diskBytes;
+
+    private final AtomicLong numMemoryHits = new AtomicLong();
+
+    private final AtomicLong numDiskHits = new AtomicLong();
+
+    private final AtomicLong numMisses = new AtomicLong();
+
+
+    @Autowired
+    public RenderCache(@Value("${RENDER_CACHE_MEMORY_MAX_BYTES}") long memoryMaxBytes, @Value("${RENDER_CACHE_DISK_MAX_BYTES}") long diskMaxBytes) {
+
+        this(memoryMaxBytes, diskMaxBytes, RENDER_CACHE_FOLDER);
+    }
+
+
+    RenderCache(long memoryMaxBytes, long diskMaxBytes, String folder) {
+
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.diskMaxBytes = diskMaxBytes;
+        this.folder = folder;
+    }
+
+
+    @PostConstruct
+    void init() {
+
+        log.info("Clearing render cache...");
+
+        // disk entries are not known after restart
+        new File(this.folder).mkdirs();
+        Utils.clearFolder(this.folder, null);
+
+        FunctionCounter.builder("render.cache.requests", this.numMemoryHits, AtomicLong::get).tag("result", "hit").tag("tier", "memory").register(Metrics.globalRegistry);
+        FunctionCounter.builder("render.cache.requests", this.numDiskHits, AtomicLong::get).tag("result", "hit").tag("tier", "disk").register(Metrics.globalRegistry);
+        FunctionCounter.builder("render.cache.requests", this.numMisses, AtomicLong::get).tag("result", "miss").tag("tier", "none").register(Metrics.globalRegistry);
+        Gauge.builder("render.cache.size", this, renderCache -> renderCache.getMemoryBytes()).tag("tier", "memory").baseUnit("bytes").register(Metrics.globalRegistry);
+        Gauge.builder("render.cache.size", this, renderCache -> renderCache.getDiskBytes()).tag("tier", "disk").baseUnit("bytes").register(Metrics.globalRegistry);
+    }
+
+
+    /**
+     * @param key see {@link #getKey(DocumentWrapper)}
+     * @return bytes of the rendered .docx file or null if not cached
+     */
+    public synchronized byte[] get(String key) {
+
+        byte[] bytes = this.memoryEntries.get(key);
+        if (bytes != null) {
+            this.numMemoryHits.incrementAndGet();
+            return bytes;
+        }
+
+        // case: on disk
+        if (this.diskEntries.get(key) != null) {
+            try {
+                bytes = Files.readAllBytes(getFile(key).toPath());
+                this.numDiskHits.incrementAndGet();
+
+                // move back to memory
+                removeFromDisk(key);
+                put(key, bytes);
+
+                return bytes;
+
+            } catch (IOException e) {
+                log.warn("Failed to read render cache entry " + key + ". Removing entry.");
+                removeFromDisk(key);
+            }
+        }
+
+        this.numMisses.incrementAndGet();
+
+        return null;
+    }
+
+
+    /**
+     * @param key see {@link #getKey(DocumentWrapper)}
+     * @param bytes of the rendered .docx file
+     */
+    public synchronized void put(String key, byte[] bytes) {
+
+        if (this.memoryEntries.containsKey(key) || this.diskEntries.containsKey(key))
+            return;
+
+        // case: too large for memory
+        if (bytes.length > this.memoryMaxBytes) {
+            putOnDisk(key, bytes);
+            return;
+        }
+
+        this.memoryEntries.put(key, bytes);
+        this.memoryBytes += bytes.length;
+
+        // move least recently used entries to disk
+        while (this.memoryBytes > this.memoryMaxBytes) {
+            Map.Entry<String, byte[]> eldestEntry = this.memoryEntries.entrySet().iterator().next();
+            this.memoryEntries.remove(eldestEntry.getKey());
+            this.memoryBytes -= eldestEntry.getValue().length;
+
+            putOnDisk(eldestEntry.getKey(), eldestEntry.getValue());
+        }
+    }
+
+
+    /**
+     * Overload for {@link OutputProfile#DEFAULT}.
+     *
+     * @param documentWrapper to get the key for
+     * @return SHA-256 hex string
+     */
+    public static String getKey(DocumentWrapper documentWrapper) {
+
+        return getKey(documentWrapper, OutputProfile.DEFAULT);
+    }
+
+
+    /**
+     * Hash of everything the rendered output depends on: content, styles, table configs, pictures, layout and output profile.
+     * The file name is not part of it.
+     *
+     * @param documentWrapper to get the key for
+     * @param outputProfile the document is written with
+     * @return SHA-256 hex string
+     */
+    public static String getKey(DocumentWrapper documentWrapper, OutputProfile outputProfile) {
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            try (DataOutputStream dos = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+                writeString(dos, KEY_VERSION);
+                writeString(dos, outputProfile.name());
+
+                dos.writeBoolean(documentWrapper.isLandscape());
+                dos.writeInt(documentWrapper.getNumColumns());
+                dos.writeInt(documentWrapper.getNumSingleColumnLines());
+
+                // table order does not matter
+                List<TableConfig> tableConfigs = new ArrayList<>(documentWrapper.getTableConfigs());
+                tableConfigs.sort(Comparator.comparing(TableConfig::getStartIndex));
+                dos.writeInt(tableConfigs.size());
+                for (TableConfig tableConfig : tableConfigs) {
+                    dos.writeInt(tableConfig.getNumColumns());
+                    dos.writeInt(tableConfig.getNumRows());
+                    dos.writeInt(tableConfig.getStartIndex());
+
+                    dos.writeBoolean(tableConfig.hasRows());
+                    if (tableConfig.hasRows()) {
+                        for (List<String> row : tableConfig.getRows()) {
+                            dos.writeInt(row == null ? 0 : row.size());
+                            for (String value : row == null ? List.<String> of() : row)
+                                writeString(dos, value);
+                        }
+
+                        writeStyle(dos, tableConfig.getHeaderStyle());
+                        List<Style> columnStyles = tableConfig.getColumnStyles() == null ? List.of() : tableConfig.getColumnStyles();
+                        dos.writeInt(columnStyles.size());
+                        for (Style columnStyle : columnStyles)
+                            writeStyle(dos, columnStyle);
+                    }
+                }
+
+                dos.writeInt(documentWrapper.getContent().size());
+                for (BasicParagraph basicParagraph : documentWrapper.getContent()) {
+                    writeString(dos, basicParagraph.getText());
+                    writeStyle(dos, basicParagraph.getStyle());
+                }
+
+                // sort by name
+                Map<String, byte[]> pictures = documentWrapper.getPictures() == null ? Map.of() : new TreeMap<>(documentWrapper.getPictures());
+                dos.writeInt(pictures.size());
+                for (Map.Entry<String, byte[]> picture : pictures.entrySet()) {
+                    writeString(dos, picture.getKey());
+                    dos.writeInt(picture.getValue().length);
+                    dos.write(picture.getValue());
+                }
+            }
+
+            return HexFormat.of().formatHex(digest.digest());
+
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new ApiException("Failed to hash document.", e);
+        }
+    }
+
+
+    public synchronized long getMemoryBytes() {
+
+        return this.memoryBytes;
+    }
+
+
+    public synchronized long getDiskBytes() {
+
+        return this.diskBytes;
+    }
+
+
+    public long getNumMemoryHits() {
+
+        return this.numMemoryHits.get();
+    }
+
+
+    public long getNumDiskHits() {
+
+        return this.numDiskHits.get();
+    }
+
+
+    public long getNumMisses() {
+
+        return this.numMisses.get();
+    }
+
+
+    /**
+     * Write given entry to disk and delete least recently used files if disk tier is full. Entries larger than the disk
+     * tier are not cached.
+     */
+    private void putOnDisk(String key, byte[] bytes) {
+
+        if (bytes.length > this.diskMaxBytes)
+            return;
+
+        try {
+            Files.write(getFile(key).toPath(), bytes);
+
+        } catch (IOException e) {
+            log.warn("Failed to write render cache entry " + key + ". Not caching it.");
+            return;
+        }
+
+        this.diskEntries.put(key, (long) bytes.length);
+        this.diskBytes += bytes.length;
+
+        while (this.diskBytes > this.diskMaxBytes)
+            removeFromDisk(this.diskEntries.keySet().iterator().next());
+    }
+
+
+    private void removeFromDisk(String key) {
+
+        Long size = this.diskEntries.remove(key);
+        if (size != null)
+            this.diskBytes -= size;
+
+        getFile(key).delete();
+    }
+
+
+    private File getFile(String key) {
+
+        return new File(this.folder + prependSlash(key + ".docx"));
+    }
+
+
+    /**
+     * Write given string with length prefix sothat concatenated strings cannot collide. Null is written as length -1.
+     */
+    private static void writeString(DataOutputStream dos, String str) throws IOException {
+
+        if (str == null) {
+            dos.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+
+    private static void writeStyle(DataOutputStream dos, Style style) throws IOException {
+
+        if (style == null) {
+            dos.writeBoolean(false);
+            return;
+        }
+
+        dos.writeBoolean(true);
+        writeString(dos, String.valueOf(style.getFontSize()));
+        writeString(dos, style.getFontFamily());
+        writeString(dos, style.getColor());
+        writeString(dos, String.valueOf(style.getBold()));
+        writeString(dos, String.valueOf(style.getItalic()));
+        writeString(dos, String.valueOf(style.getUnderline()));
+        writeString(dos, String.valueOf(style.getTextAlign()));
+        writeString(dos, String.valueOf(style.getBreakType()));
+    }
+}
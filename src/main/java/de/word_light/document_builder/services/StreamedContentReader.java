@@ -0,0 +1,219 @@
+package de.word_light.document_builder.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import de.word_light.document_builder.documentBuilder.StreamingDocumentWriter;
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.documentParts.TableConfig;
+import de.word_light.document_builder.exception.ApiException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.Getter;
+
+
+/**
+ * Reads a {@link DocumentWrapper} json from a stream with {@code content} as last field. All other fields are read and
+ * validated upfront, the paragraphs of {@code content} are read one at a time, so the {@link StreamingDocumentWriter} can
+ * write each of them before the next one is parsed.<p>
+ *
+ * Constraints depending on the number of paragraphs are checked once the end of {@code content} is reached.
+ *
+ * @since 0.1.0
+ */
+public class StreamedContentReader implements Iterator<BasicParagraph>, Closeable {
+
+    /** wrapper constraints depending on the size of {@code content}, checked after the last paragraph */
+    private static final Set<String> CONTENT_SIZE_CONSTRAINTS = Set.of("indicesNotExceedContentSize", "numSingleColumnLinesValid");
+
+    private final JsonParser parser;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    /** all fields but {@code content}, which is left empty */
+    @Getter
+    private final DocumentWrapper layout;
+
+    /** number of paragraphs returned so far */
+    @Getter
+    private int numParagraphs;
+
+    private BasicParagraph nextParagraph;
+
+    private boolean isContentEnd;
+
+
+    /**
+     * Reads all fields before {@code content}.
+     *
+     * @param is to read the wrapper json from. Is closed when the reader is closed
+     * @param objectMapper to parse json with
+     * @param validator to validate the layout and each paragraph with
+     * @throws ApiException 400 if the json is malformed or {@code content} is missing
+     * @throws ConstraintViolationException if the layout is invalid
+     */
+    public StreamedContentReader(InputStream is, ObjectMapper objectMapper, Validator validator) {
+
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+
+        try {
+            this.parser = objectMapper.createParser(is);
+            this.layout = readLayout();
+
+        } catch (IOException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Failed to read document. Request body is malformed.", e);
+        }
+
+        Set<ConstraintViolation<DocumentWrapper>> violations = this.validator.validate(this.layout)
+                                                                             .stream()
+                                                                             .filter(violation -> !CONTENT_SIZE_CONSTRAINTS.contains(violation.getPropertyPath().toString()))
+                                                                             .collect(Collectors.toSet());
+        if (!violations.isEmpty())
+            throw new ConstraintViolationException(violations);
+    }
+
+
+    @Override
+    public boolean hasNext() {
+
+        if (this.nextParagraph == null && !this.isContentEnd)
+            this.nextParagraph = readParagraph();
+
+        return this.nextParagraph != null;
+    }
+
+
+    /**
+     * @throws ApiException 400 if the paragraph is malformed or the layout does not fit the number of paragraphs
+     * @throws ConstraintViolationException if the paragraph is invalid
+     */
+    @Override
+    public BasicParagraph next() {
+
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        BasicParagraph basicParagraph = this.nextParagraph;
+        this.nextParagraph = null;
+        this.numParagraphs++;
+
+        return basicParagraph;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+
+        this.parser.close();
+    }
+
+
+    /**
+     * Read all fields up to the start of the {@code content} array.
+     *
+     * @return wrapper with all fields read, {@code content} is empty
+     * @throws ApiException 400 if there is no {@code content} array
+     */
+    private DocumentWrapper readLayout() throws IOException {
+
+        if (this.parser.nextToken() != JsonToken.START_OBJECT)
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Failed to read document. Expected a json object.");
+
+        ObjectNode layoutNode = this.objectMapper.createObjectNode();
+
+        while (this.parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = this.parser.currentName();
+            JsonToken valueToken = this.parser.nextToken();
+
+            if (fieldName.equals("content")) {
+                if (valueToken != JsonToken.START_ARRAY)
+                    throw new ApiException(HttpStatus.BAD_REQUEST, "Failed to read document. 'content' has to be an array.");
+
+                return this.objectMapper.treeToValue(layoutNode, DocumentWrapper.class);
+            }
+
+            layoutNode.set(fieldName, this.objectMapper.readTree(this.parser));
+        }
+
+        throw new ApiException(HttpStatus.BAD_REQUEST, "'content' cannot be null.");
+    }
+
+
+    /**
+     * @return the next paragraph of {@code content} or null if the end of the array has been reached
+     * @throws ApiException 400 if the paragraph is malformed or refers to an unknown style, there are fields after
+     *                      {@code content} or the layout does not fit the number of paragraphs
+     * @throws ConstraintViolationException if the paragraph is invalid
+     */
+    private BasicParagraph readParagraph() {
+
+        try {
+            JsonToken token = this.parser.nextToken();
+
+            // case: end of content
+            if (token == JsonToken.END_ARRAY) {
+                if (this.parser.nextToken() != JsonToken.END_OBJECT)
+                    throw new ApiException(HttpStatus.BAD_REQUEST, "Failed to read document. 'content' has to be the last field.");
+
+                this.isContentEnd = true;
+                validateContentSize();
+
+                return null;
+            }
+
+            if (token == null)
+                throw new IOException("Unexpected end of 'content'.");
+
+            BasicParagraph basicParagraph = this.objectMapper.readValue(this.parser, BasicParagraph.class);
+            if (basicParagraph == null)
+                throw new ApiException(HttpStatus.BAD_REQUEST, "'basicParagraph' cannot be null");
+
+            Set<ConstraintViolation<BasicParagraph>> violations = this.validator.validate(basicParagraph);
+            if (!violations.isEmpty())
+                throw new ConstraintViolationException(violations);
+
+            this.layout.resolveStyleRef(basicParagraph);
+            if (basicParagraph.getStyle() == null)
+                throw new ApiException(HttpStatus.BAD_REQUEST, "'content' invalid. Every 'styleRef' has to be a key of 'styles'.");
+
+            return basicParagraph;
+
+        } catch (IOException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Failed to read paragraph " + this.numParagraphs + ". Paragraph is malformed.", e);
+        }
+    }
+
+
+    /**
+     * Check the constraints of {@link DocumentWrapper} that depend on the number of paragraphs.
+     *
+     * @throws ApiException 400 if a table or the single column lines exceed the content
+     */
+    private void validateContentSize() {
+
+        for (TableConfig tableConfig : this.layout.getTableConfigs())
+            if (tableConfig.getEndIndex() > this.numParagraphs - 1)
+                throw new ApiException(HttpStatus.BAD_REQUEST, "'tableConfigs' invalid. Start and end indices cannot be out of bounds of content size - 1.");
+
+        int numSingleColumnLines = this.layout.getNumSingleColumnLines();
+        if (numSingleColumnLines != 0 && numSingleColumnLines > this.numParagraphs - 2)
+            throw new ApiException(HttpStatus.BAD_REQUEST, "'numSingleColumnLines' invalid. Cannot have more singleColumnLines than content size - 2.");
+    }
+}
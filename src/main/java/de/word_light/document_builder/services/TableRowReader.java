@@ -0,0 +1,178 @@
+package de.word_light.document_builder.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.word_light.document_builder.documentBuilder.StreamedTable;
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.services.MergeRowReader.MergeRowFormat;
+
+
+/**
+ * Reads the rows of a {@link StreamedTable} one at a time from a stream, so only the current row is held in memory.<p>
+ *
+ * Each row is a list of cell texts. NDJSON rows are json arrays, one per line. Null values are empty cells, other non text
+ * values are used as their json text. CSV rows are comma separated lines without a header line, values may be quoted
+ * with {@code "} and contain line breaks.
+ *
+ * @since 0.1.0
+ */
+public abstract class TableRowReader implements Iterator<List<String>>, Closeable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /** 1 based number of the last row returned */
+    protected int rowNumber;
+
+    private List<String> nextRow;
+
+
+    /**
+     * @param is to read rows from. Is closed when the reader is closed
+     * @param format of the rows
+     * @return a reader for given format
+     */
+    public static TableRowReader of(InputStream is, MergeRowFormat format) {
+
+        return switch (format) {
+            case NDJSON -> new NdjsonRowReader(is);
+            case CSV -> new CsvRowReader(is);
+        };
+    }
+
+
+    @Override
+    public boolean hasNext() {
+
+        if (this.nextRow == null)
+            this.nextRow = readRow();
+
+        return this.nextRow != null;
+    }
+
+
+    /**
+     * @throws ApiException 400 if the row is malformed
+     */
+    @Override
+    public List<String> next() {
+
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        List<String> row = this.nextRow;
+        this.nextRow = null;
+        this.rowNumber++;
+
+        return row;
+    }
+
+
+    /**
+     * @return the next row or null if there are no more rows
+     * @throws ApiException 400 if the row is malformed
+     */
+    protected abstract List<String> readRow();
+
+
+    protected ApiException malformedRow(Exception e) {
+
+        return new ApiException(HttpStatus.BAD_REQUEST, "Failed to read table row " + (this.rowNumber + 1) + ". Row is malformed.", e);
+    }
+
+
+    private static class NdjsonRowReader extends TableRowReader {
+
+        private final InputStream is;
+
+        private MappingIterator<JsonNode> rows;
+
+
+        NdjsonRowReader(InputStream is) {
+
+            this.is = is;
+        }
+
+
+        @Override
+        protected List<String> readRow() {
+
+            try {
+                if (this.rows == null)
+                    this.rows = OBJECT_MAPPER.readerFor(JsonNode.class).readValues(this.is);
+
+                if (!this.rows.hasNextValue())
+                    return null;
+
+                JsonNode row = this.rows.nextValue();
+                if (!row.isArray())
+                    throw new IOException("Expected a json array but got " + row.getNodeType());
+
+                List<String> values = new ArrayList<>(row.size());
+                row.elements().forEachRemaining(value -> {
+                    if (value.isNull())
+                        values.add("");
+                    else
+                        values.add(value.isValueNode() ? value.asText() : value.toString());
+                });
+
+                return values;
+
+            } catch (IOException e) {
+                throw malformedRow(e);
+            }
+        }
+
+
+        @Override
+        public void close() throws IOException {
+
+            if (this.rows != null)
+                this.rows.close();
+
+            this.is.close();
+        }
+    }
+
+
+    private static class CsvRowReader extends TableRowReader {
+
+        private final CsvRecordReader reader;
+
+
+        CsvRowReader(InputStream is) {
+
+            this.reader = new CsvRecordReader(is);
+        }
+
+
+        @Override
+        protected List<String> readRow() {
+
+            try {
+                return this.reader.readRecord();
+
+            } catch (IOException e) {
+                throw malformedRow(e);
+            }
+        }
+
+
+        @Override
+        public void close() throws IOException {
+
+            this.reader.close();
+        }
+    }
+}
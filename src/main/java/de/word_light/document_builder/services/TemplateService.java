@@ -0,0 +1,124 @@
+package de.word_light.document_builder.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import de.word_light.document_builder.documentBuilder.DocxTemplate;
+import de.word_light.document_builder.documentBuilder.OutputProfile;
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.utils.BuildMetrics;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Registry of uploaded .docx templates. Each template is parsed once on upload and kept in memory, fill requests only
+ * send the placeholder values.
+ *
+ * @since 0.1.0
+ */
+@Service
+@Log4j2
+public class TemplateService {
+
+    @Value("${TEMPLATE_MAX_NUM}")
+    private int TEMPLATE_MAX_NUM;
+
+    /** template id and template */
+    private final Map<String, DocxTemplate> templates = new ConcurrentHashMap<>();
+
+
+    /**
+     * Parse given .docx file and keep it until it's removed.
+     *
+     * @param file .docx file to use as template
+     * @return the parsed template
+     * @throws ApiException 422 if the file is not a .docx file, 409 if there are too many templates already
+     */
+    public DocxTemplate register(MultipartFile file) {
+
+        String fileName = file.getOriginalFilename();
+
+        // case: not a .docx file
+        if (fileName == null || !fileName.toLowerCase().endsWith(".docx"))
+            throw new ApiException(HttpStatus.UNPROCESSABLE_ENTITY, "Failed to register template. File " + fileName + " is not a .docx file.");
+
+        // case: too many templates
+        if (this.templates.size() >= this.TEMPLATE_MAX_NUM)
+            throw new ApiException(HttpStatus.CONFLICT, "Failed to register template. There are " + this.TEMPLATE_MAX_NUM + " templates already, remove some first.");
+
+        log.info("Registering template " + fileName + "...");
+
+        DocxTemplate template;
+        try (InputStream is = file.getInputStream()) {
+            template = DocxTemplate.parse(UUID.randomUUID().toString(), fileName, is);
+
+        } catch (IOException e) {
+            throw new ApiException("Failed to read template " + fileName + ".", e);
+        }
+
+        this.templates.put(template.getId(), template);
+
+        return template;
+    }
+
+
+    /**
+     * @param templateId id of the template
+     * @return the template
+     * @throws ApiException 404 if there is no template with given id
+     */
+    public DocxTemplate getTemplate(String templateId) {
+
+        DocxTemplate template = this.templates.get(templateId);
+        if (template == null)
+            throw new ApiException(HttpStatus.NOT_FOUND, "Failed to find template " + templateId + ".");
+
+        return template;
+    }
+
+
+    /**
+     * Fill a copy of a template with given values.
+     *
+     * @param templateId id of the template
+     * @param values placeholder name (without braces) and text to replace it with
+     * @param outputProfile compression of the .docx file
+     * @return bytes of the filled .docx file
+     * @throws ApiException 404 if there is no template with given id
+     */
+    public byte[] fill(String templateId, Map<String, String> values, OutputProfile outputProfile) {
+
+        DocxTemplate template = getTemplate(templateId);
+
+        long start = System.nanoTime();
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        template.fill(values, outputProfile, os);
+        byte[] bytes = os.toByteArray();
+
+        BuildMetrics.record(BuildMetrics.TEMPLATE_FILL, System.nanoTime() - start);
+        BuildMetrics.recordOutputBytes(bytes.length);
+
+        return bytes;
+    }
+
+
+    /**
+     * @param templateId id of the template to remove
+     * @throws ApiException 404 if there is no template with given id
+     */
+    public void remove(String templateId) {
+
+        if (this.templates.remove(templateId) == null)
+            throw new ApiException(HttpStatus.NOT_FOUND, "Failed to remove template " + templateId + ". Template does not exist.");
+    }
+}
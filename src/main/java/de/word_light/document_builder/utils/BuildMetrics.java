@@ -0,0 +1,115 @@
+package de.word_light.document_builder.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+
+
+/**
+ * Util class holding the meters for timing each phase of a document build and for the size of documents. Meters are
+ * registered in the {@link Metrics#globalRegistry} which the actuator exports to prometheus.
+ *
+ * @since 0.1.0
+ */
+public class BuildMetrics {
+
+    public static final String PHASE_TIMER = "document.build.phase";
+
+    /** phases, used as tag of {@link #PHASE_TIMER} */
+    public static final String BINDING = "binding";
+    public static final String SKELETON = "skeleton";
+    public static final String PLAN = "plan";
+    public static final String PARAGRAPHS = "paragraphs";
+    public static final String TABLES = "tables";
+    public static final String PICTURES = "pictures";
+    public static final String COLUMNS = "columns";
+    public static final String STYLES = "styles";
+    public static final String WRITE = "write";
+    public static final String STREAMING_WRITE = "streamingWrite";
+    public static final String PDF = "pdf";
+    public static final String TEMPLATE_FILL = "templateFill";
+
+    /** request attribute holding the {@link System#nanoTime()} a request has been handed to the dispatcher */
+    public static final String REQUEST_START_ATTRIBUTE = BuildMetrics.class.getName() + ".requestStart";
+
+    private static final DistributionSummary NUM_PARAGRAPHS = DistributionSummary.builder("document.paragraphs")
+                                                                                 .description("number of paragraphs per document")
+                                                                                 .publishPercentileHistogram()
+                                                                                 .register(Metrics.globalRegistry);
+
+    private static final DistributionSummary PICTURE_BYTES = DistributionSummary.builder("document.pictures.size")
+                                                                                .description("bytes of all pictures per document")
+                                                                                .baseUnit("bytes")
+                                                                                .publishPercentileHistogram()
+                                                                                .register(Metrics.globalRegistry);
+
+    private static final DistributionSummary OUTPUT_BYTES = DistributionSummary.builder("document.output.size")
+                                                                               .description("bytes of the .docx file")
+                                                                               .baseUnit("bytes")
+                                                                               .publishPercentileHistogram()
+                                                                               .register(Metrics.globalRegistry);
+
+
+    /**
+     * @param phase one of the phase constants
+     * @return timer of given phase
+     */
+    public static Timer getTimer(String phase) {
+
+        return Timer.builder(PHASE_TIMER)
+                    .tag("phase", phase)
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+    }
+
+
+    public static void record(String phase, Runnable runnable) {
+
+        getTimer(phase).record(runnable);
+    }
+
+
+    /**
+     * @param phase one of the phase constants
+     * @param nanos duration of given phase
+     */
+    public static void record(String phase, long nanos) {
+
+        getTimer(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+
+    /**
+     * Record the time between the request has been handed to the dispatcher and now, which is mostly json binding and validation.
+     * Call this first thing in the handler method.
+     *
+     * @param request current request. Nothing is recorded if {@link #REQUEST_START_ATTRIBUTE} is missing
+     */
+    public static void recordBinding(HttpServletRequest request) {
+
+        Object requestStart = request.getAttribute(REQUEST_START_ATTRIBUTE);
+        if (requestStart instanceof Long requestStartNanos)
+            record(BINDING, System.nanoTime() - requestStartNanos);
+    }
+
+
+    public static void recordNumParagraphs(int numParagraphs) {
+
+        NUM_PARAGRAPHS.record(numParagraphs);
+    }
+
+
+    public static void recordPictureBytes(long numBytes) {
+
+        PICTURE_BYTES.record(numBytes);
+    }
+
+
+    public static void recordOutputBytes(long numBytes) {
+
+        OUTPUT_BYTES.record(numBytes);
+    }
+}
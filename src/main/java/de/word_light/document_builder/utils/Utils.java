@@ -42,6 +42,7 @@ public class Utils {
     public static final String DOCX_FOLDER = USER_GENERATED + "/docx";
     public static final String PDF_FOLDER = USER_GENERATED + "/pdf";
     public static final String PICTURES_FOLDER = USER_GENERATED + "/pictures";
+    public static final String RENDER_CACHE_FOLDER = USER_GENERATED + "/renderCache";
 
     /** list of file names that should never be deleted during clean up processes */
     public static final Set<String> KEEP_FILES = Set.of(".gitkeep");
@@ -12,12 +12,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
 import de.word_light.document_builder.documentParts.BasicParagraph;
 import de.word_light.document_builder.documentParts.DocumentWrapper;
 import de.word_light.document_builder.documentParts.TableConfig;
@@ -27,13 +34,26 @@ import de.word_light.document_builder.utils.Utils;
 import static de.word_light.document_builder.utils.Utils.DOCX_FOLDER;
 import static de.word_light.document_builder.utils.Utils.PDF_FOLDER;
 import static de.word_light.document_builder.utils.Utils.PICTURES_FOLDER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
 
 
 /**
@@ -89,6 +109,66 @@ public class DocumentControllerTest {
     }
 
 
+    @Test
+    void buildAndWrite_cborBody_shouldBeStatus200() throws Exception {
+
+        MvcResult response = this.mockMvc.perform(post(this.BASE_URL + "/" + this.MAPPING + "/buildAndWrite")
+                                                    .contentType("application/cbor")
+                                                    .accept(MediaType.APPLICATION_JSON)
+                                                    .content(new CBORMapper().writeValueAsBytes(this.documentWrapper)))
+                                        .andExpect(status().isOk())
+                                        .andReturn();
+
+        TestUtils.checkApiExceptionFormatPrettySuccess(response.getResponse().getContentAsString(), OK);
+    }
+
+
+    @Test
+    void buildAndWrite_smileBody_shouldRespondWithSmile() throws Exception {
+
+        MvcResult response = this.mockMvc.perform(post(this.BASE_URL + "/" + this.MAPPING + "/buildAndWrite")
+                                                    .contentType("application/x-jackson-smile")
+                                                    .accept("application/x-jackson-smile")
+                                                    .content(new SmileMapper().writeValueAsBytes(this.documentWrapper)))
+                                        .andExpect(status().isOk())
+                                        .andReturn();
+
+        String jsonResponse = new ObjectMapper().writeValueAsString(new SmileMapper().readTree(response.getResponse().getContentAsByteArray()));
+
+        TestUtils.checkApiExceptionFormatPrettySuccess(jsonResponse, OK);
+    }
+
+
+    @Test
+    void buildAndWrite_gzipBody_shouldBeStatus200() throws Exception {
+
+        ByteArrayOutputStream compressedBody = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressedBody)) {
+            gzipOutputStream.write(new ObjectMapper().writeValueAsBytes(this.documentWrapper));
+        }
+
+        MvcResult response = this.mockMvc.perform(post(this.BASE_URL + "/" + this.MAPPING + "/buildAndWrite")
+                                                    .contentType(MediaType.APPLICATION_JSON)
+                                                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                                                    .content(compressedBody.toByteArray()))
+                                        .andExpect(status().isOk())
+                                        .andReturn();
+
+        TestUtils.checkApiExceptionFormatPrettySuccess(response.getResponse().getContentAsString(), OK);
+    }
+
+
+    @Test
+    void buildAndWrite_unsupportedContentEncoding_shouldBeStatus415() throws Exception {
+
+        this.mockMvc.perform(post(this.BASE_URL + "/" + this.MAPPING + "/buildAndWrite")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.CONTENT_ENCODING, "br")
+                                .content(new ObjectMapper().writeValueAsBytes(this.documentWrapper)))
+                    .andExpect(status().isUnsupportedMediaType());
+    }
+
+
     @Test
     void buildAndWrite_shouldBeStatus400_bodyNull() throws Exception {
 
@@ -150,6 +230,83 @@ public class DocumentControllerTest {
     }
 
 
+    @Test
+    void buildBatch_shouldBeStatus200_andContainAllDocuments() throws Exception {
+
+        MvcResult asyncResponse = this.testUtils.performPost("/buildBatch", List.of(this.documentWrapper, this.documentWrapper), null)
+                                                .andExpect(request().asyncStarted())
+                                                .andReturn();
+
+        MvcResult response = this.mockMvc.perform(asyncDispatch(asyncResponse))
+                                        .andExpect(status().isOk())
+                                        .andReturn();
+
+        Set<String> entryNames = new HashSet<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(response.getResponse().getContentAsByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null)
+                entryNames.add(entry.getName());
+        }
+
+        // same file name should be numbered
+        assertEquals(Set.of("Document_1.docx", "Document_1 (1).docx"), entryNames);
+    }
+
+
+    @Test
+    void buildBatch_shouldBeStatus400_empty() throws Exception {
+
+        MvcResult response = this.testUtils.performPost("/buildBatch", List.of(), null)
+                                            .andExpect(status().isBadRequest())
+                                            .andReturn();
+
+        TestUtils.checkJsonApiExceptionFormat(response.getResponse().getContentAsString(), HttpStatus.BAD_REQUEST);
+    }
+
+
+    @Test
+    void buildStreamed_shouldBeStatus200_andReturnDocument() throws Exception {
+
+        // layout fields first
+        ObjectNode wrapperNode = new ObjectMapper().valueToTree(this.documentWrapper);
+        wrapperNode.set("content", wrapperNode.remove("content"));
+
+        MvcResult asyncResponse = this.mockMvc.perform(post(this.BASE_URL + "/" + this.MAPPING + "/buildStreamed")
+                                                        .contentType(MediaType.APPLICATION_JSON)
+                                                        .content(wrapperNode.toString()))
+                                                .andExpect(request().asyncStarted())
+                                                .andReturn();
+
+        MvcResult response = this.mockMvc.perform(asyncDispatch(asyncResponse))
+                                        .andExpect(status().isOk())
+                                        .andReturn();
+
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(response.getResponse().getContentAsByteArray()))) {
+            // header table
+            assertTrue(document.getHeaderFooterPolicy().getDefaultHeader().getText().contains("header"));
+            assertEquals("footer", document.getHeaderFooterPolicy().getDefaultFooter().getText().trim());
+        }
+    }
+
+
+    @Test
+    void buildStreamed_contentNotLast_shouldBeStatus400() throws Exception {
+
+        // no layout fields before content
+        ObjectNode wrapperNode = new ObjectMapper().createObjectNode();
+        wrapperNode.set("content", new ObjectMapper().valueToTree(this.content));
+        wrapperNode.put("fileName", this.docxFileName);
+
+        MvcResult response = this.mockMvc.perform(post(this.BASE_URL + "/" + this.MAPPING + "/buildStreamed")
+                                                    .contentType(MediaType.APPLICATION_JSON)
+                                                    .content(wrapperNode.toString()))
+                                        .andExpect(status().isBadRequest())
+                                        .andReturn();
+
+        TestUtils.checkJsonApiExceptionFormat(response.getResponse().getContentAsString(), HttpStatus.BAD_REQUEST);
+    }
+
+
     @Test
     void download_shouldBeStatus409_didNotCreateDocument() throws Exception {
 
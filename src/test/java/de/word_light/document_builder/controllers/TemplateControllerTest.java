@@ -0,0 +1,111 @@
+package de.word_light.document_builder.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+/**
+ * Integration test for {@link TemplateController}.
+ *
+ * @since 0.1.0
+ */
+@SpringBootTest
+@TestInstance(Lifecycle.PER_CLASS)
+@AutoConfigureMockMvc(addFilters = false)
+public class TemplateControllerTest {
+
+    @Value("${BASE_URL}")
+    private String BASE_URL;
+
+    @Value("${MAPPING}")
+    private String MAPPING;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+
+//----------- register()
+    @Test
+    void register_shouldBeStatus201_andFillable() throws Exception {
+
+        MockMultipartFile template = new MockMultipartFile("template", "template.docx", MediaType.APPLICATION_OCTET_STREAM_VALUE, createTemplate());
+
+        MvcResult registerResponse = this.mockMvc.perform(multipart(getUrl()).file(template))
+                                                .andExpect(status().isCreated())
+                                                .andReturn();
+
+        JsonNode templateNode = this.objectMapper.readTree(registerResponse.getResponse().getContentAsString());
+        assertEquals(List.of("name"), List.of(this.objectMapper.treeToValue(templateNode.get("placeholders"), String[].class)));
+
+        MvcResult asyncResponse = this.mockMvc.perform(post(getUrl() + "/" + templateNode.get("id").asText() + "/fill")
+                                                        .contentType(MediaType.APPLICATION_JSON)
+                                                        .content(this.objectMapper.writeValueAsString(Map.of("name", "Tom"))))
+                                                .andExpect(request().asyncStarted())
+                                                .andReturn();
+
+        MvcResult fillResponse = this.mockMvc.perform(asyncDispatch(asyncResponse))
+                                            .andExpect(status().isOk())
+                                            .andReturn();
+
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(fillResponse.getResponse().getContentAsByteArray()))) {
+            assertEquals("Dear Tom,", document.getParagraphs().get(0).getText());
+        }
+    }
+
+
+    @Test
+    void register_notADocx_shouldBeStatus422() throws Exception {
+
+        MockMultipartFile template = new MockMultipartFile("template", "template.txt", MediaType.TEXT_PLAIN_VALUE, new byte[] {1, 2, 3});
+
+        this.mockMvc.perform(multipart(getUrl()).file(template))
+                    .andExpect(status().isUnprocessableEntity());
+    }
+
+
+    private String getUrl() {
+
+        return this.BASE_URL + "/" + this.MAPPING + "/templates";
+    }
+
+
+    private byte[] createTemplate() throws IOException {
+
+        try (XWPFDocument document = new XWPFDocument()) {
+            document.createParagraph().createRun().setText("Dear ${name},");
+
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            document.write(os);
+
+            return os.toByteArray();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -25,6 +26,7 @@ import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,6 +35,7 @@ import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPageMar;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTParaRPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STPageOrientation;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -158,6 +161,72 @@ public class DocumentBuilderTest {
     }
 
 
+    @Test
+    void build_table_shouldStyleEveryCellLikeTheFirst() throws IOException {
+
+        List<BasicParagraph> tableContent = new ArrayList<>(List.of(this.header, this.title));
+        for (int i = 0; i < 4; i++)
+            tableContent.add(new BasicParagraph("cell " + i, this.style));
+        tableContent.add(new BasicParagraph(" ", this.style));
+        tableContent.add(new BasicParagraph("cell 5", this.style));
+        tableContent.add(this.footer);
+
+        // 2 columns, 3 rows, fifth cell blank
+        DocumentBuilder documentBuilder = new DocumentBuilder(tableContent, "temp.docx", 1, 0, false, this.pictures, List.of(new TableConfig(2, 3, 2)));
+
+        try (XWPFDocument tableDocument = documentBuilder.build().getDocument()) {
+            XWPFTable table = tableDocument.getTables().get(0);
+            XWPFParagraph firstCell = table.getRow(0).getCell(0).getParagraphs().get(0);
+
+            for (int i = 0; i < 4; i++) {
+                XWPFParagraph cell = table.getRow(i / 2).getCell(i % 2).getParagraphs().get(0);
+
+                assertEquals("cell " + i, cell.getText());
+                assertEquals(firstCell.getStyle(), cell.getStyle());
+                assertEquals(ParagraphAlignment.CENTER, cell.getAlignment());
+                assertEquals(this.style.getFontSize(), cell.getRuns().get(0).getFontSizeAsDouble().intValue());
+                assertTrue(cell.getRuns().get(0).isBold());
+            }
+
+            assertTrue(StringUtils.isBlank(table.getRow(2).getCell(0).getText()));
+            assertEquals("cell 5", table.getRow(2).getCell(1).getText());
+        }
+    }
+
+
+    @Test
+    void build_tableWithRows_shouldUseHeaderAndColumnStyles() throws IOException {
+
+        Style headerStyle = new Style(14, "arial", "000000", true, false, false, ParagraphAlignment.LEFT, null);
+        Style columnStyle = new Style(9, "arial", "000000", false, false, false, ParagraphAlignment.LEFT, null);
+
+        TableConfig tableConfig = new TableConfig(2, 3, 2);
+        tableConfig.setRows(List.of(List.of("h1", "h2"), List.of("a"), List.of("c", "d")));
+        tableConfig.setHeaderStyle(headerStyle);
+        tableConfig.setColumnStyles(Arrays.asList(null, columnStyle));
+
+        // table replaces the third paragraph
+        List<BasicParagraph> tableContent = List.of(this.header, this.title, new BasicParagraph("", this.style), this.footer);
+        DocumentBuilder documentBuilder = new DocumentBuilder(tableContent, "temp.docx", 1, 0, false, this.pictures, List.of(tableConfig));
+
+        try (XWPFDocument tableDocument = documentBuilder.build().getDocument()) {
+            assertEquals(1, tableDocument.getTables().size());
+
+            XWPFTable table = tableDocument.getTables().get(0);
+            assertEquals(3, table.getNumberOfRows());
+
+            assertEquals("h2", table.getRow(0).getCell(1).getText());
+            assertEquals(headerStyle.getFontSize(), table.getRow(0).getCell(1).getParagraphs().get(0).getRuns().get(0).getFontSizeAsDouble().intValue());
+
+            assertTrue(StringUtils.isBlank(table.getRow(1).getCell(1).getText()));
+
+            assertEquals("c", table.getRow(2).getCell(0).getText());
+            assertEquals(this.style.getFontSize(), table.getRow(2).getCell(0).getParagraphs().get(0).getRuns().get(0).getFontSizeAsDouble().intValue());
+            assertEquals(columnStyle.getFontSize(), table.getRow(2).getCell(1).getParagraphs().get(0).getRuns().get(0).getFontSizeAsDouble().intValue());
+        }
+    }
+
+
 //----------- addContent()
     @Test
     void addContent_shouldHaveNoParagraphWithoutContent() {
@@ -337,6 +406,24 @@ public class DocumentBuilderTest {
     }
 
 
+    @Test
+    void addParagraph_compactEmptyLines_shouldSetFontSizeOnParagraphMark() {
+
+        int currentContentIndex = this.content.indexOf(this.title);
+        this.title.setText(" ");
+        this.documentBuilder.setIsCompactEmptyLines(true);
+
+        XWPFParagraph paragraph = this.documentBuilder.addParagraph(currentContentIndex);
+
+        // no filler runs
+        assertTrue(paragraph.getRuns().isEmpty());
+
+        CTParaRPr paragraphMarkProperties = paragraph.getCTP().getPPr().getRPr();
+        assertEquals(this.style.getFontSize() * 2, ((BigInteger) paragraphMarkProperties.getSzArray(0).getVal()).intValue());
+        assertEquals(this.style.getFontFamily(), paragraphMarkProperties.getRFontsArray(0).getAscii());
+    }
+
+
 //----------- createParagraphByContentIndex()
     @Test
     void createParagraphByContentIndex_isTableIndex_shouldReturnTableParagraph() {
@@ -546,6 +633,25 @@ public class DocumentBuilderTest {
     }
 
 
+    @Test
+    void addStyle_useStyleCatalog_shouldReferToNamedStyle() {
+
+        XWPFParagraph paragraph = this.document.createParagraph();
+        XWPFRun run = paragraph.createRun();
+
+        DocumentBuilder documentBuilder = new DocumentBuilder().setIsUseStyleCatalog(true);
+        documentBuilder.applyStyle(paragraph, this.style);
+
+        // should refer to named style
+        assertEquals(documentBuilder.getStyleCatalog().getStyleId(this.style, false), paragraph.getStyle());
+        assertEquals(this.style.getTextAlign(), paragraph.getAlignment());
+
+        // should not set formatting on run
+        assertNull(run.getFontFamily());
+        assertNull(run.getColor());
+    }
+
+
     @Test 
     void addStyle_breakTypeNull_shouldNotThrow() {
 
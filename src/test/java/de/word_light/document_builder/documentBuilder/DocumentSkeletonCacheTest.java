@@ -0,0 +1,80 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.MINIMUM_MARGIN_BOTTOM;
+import static de.word_light.document_builder.documentBuilder.DocumentBuilder.MINIMUM_MARGIN_TOP;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STPageOrientation;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STSectionMark;
+
+
+/**
+ * Unit tests for {@link DocumentSkeletonCache}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class DocumentSkeletonCacheTest {
+
+//----------- applyTo()
+    @Test
+    void applyTo_shouldSetOrientationAndMargins() throws IOException {
+
+        try (XWPFDocument document = new XWPFDocument()) {
+            DocumentSkeletonCache.applyTo(document.getDocument().getBody(), true);
+
+            CTSectPr ctSectPr = document.getDocument().getBody().getSectPr();
+            assertEquals(STSectionMark.CONTINUOUS, ctSectPr.getType().getVal());
+            assertEquals(STPageOrientation.LANDSCAPE, ctSectPr.getPgSz().getOrient());
+            assertEquals(DocumentBuilder.PAGE_LONG_SIDE, ctSectPr.getPgSz().getW());
+            assertEquals(BigInteger.valueOf(MINIMUM_MARGIN_TOP), ctSectPr.getPgMar().getTop());
+            assertEquals(BigInteger.valueOf(MINIMUM_MARGIN_BOTTOM), ctSectPr.getPgMar().getBottom());
+        }
+    }
+
+
+    @Test
+    void applyTo_shouldCopySkeleton() throws IOException {
+
+        try (XWPFDocument document = new XWPFDocument();
+             XWPFDocument otherDocument = new XWPFDocument()) {
+            DocumentSkeletonCache.applyTo(document.getDocument().getBody(), false);
+            DocumentSkeletonCache.applyTo(otherDocument.getDocument().getBody(), false);
+
+            CTSectPr ctSectPr = document.getDocument().getBody().getSectPr();
+            CTSectPr otherCTSectPr = otherDocument.getDocument().getBody().getSectPr();
+            assertNotSame(ctSectPr, otherCTSectPr);
+
+            // altering one document should not alter the other one
+            ctSectPr.getPgSz().setOrient(STPageOrientation.LANDSCAPE);
+            assertEquals(STPageOrientation.PORTRAIT, otherCTSectPr.getPgSz().getOrient());
+        }
+    }
+
+
+    @Test
+    void applyTo_shouldEqualManualSetUp() throws IOException {
+
+        try (XWPFDocument document = new XWPFDocument();
+             XWPFDocument expectedDocument = new XWPFDocument()) {
+            DocumentBuilder documentBuilder = new DocumentBuilder();
+            documentBuilder.setDocument(expectedDocument);
+            documentBuilder.setLandscape(true);
+            documentBuilder.setOrientation()
+                           .setDocumentMargins(MINIMUM_MARGIN_TOP, null, MINIMUM_MARGIN_BOTTOM, null);
+
+            DocumentSkeletonCache.applyTo(document.getDocument().getBody(), true);
+
+            assertEquals(expectedDocument.getDocument().getBody().getSectPr().xmlText(), document.getDocument().getBody().getSectPr().xmlText());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.http.HttpStatus;
+
+import de.word_light.document_builder.exception.ApiException;
+
+
+/**
+ * Unit tests for {@link DocxTemplate}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class DocxTemplateTest {
+
+    private DocxTemplate template;
+
+
+    @BeforeEach
+    void setup() throws IOException {
+
+        try (XWPFDocument document = new XWPFDocument()) {
+            document.createParagraph().createRun().setText("Dear ${name},");
+
+            // split into runs like word does it
+            XWPFParagraph splitParagraph = document.createParagraph();
+            splitParagraph.createRun().setText("your order ${order");
+            splitParagraph.createRun().setText("Id} is ready.");
+
+            document.createTable(1, 1).getRow(0).getCell(0).getParagraphs().get(0).createRun().setText("${name}");
+            document.createHeader(HeaderFooterType.DEFAULT).createParagraph().createRun().setText("${company}");
+
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            document.write(os);
+
+            this.template = DocxTemplate.parse("id", "template.docx", new ByteArrayInputStream(os.toByteArray()));
+        }
+    }
+
+
+//----------- parse()
+    @Test
+    void parse_shouldIndexPlaceholders() {
+
+        assertEquals(List.of("name", "orderId", "company"), List.copyOf(this.template.getPlaceholders()));
+    }
+
+
+    @Test
+    void parse_notADocx_shouldThrow422() {
+
+        ApiException exception = assertThrows(ApiException.class, () -> DocxTemplate.parse("id", "template.docx", new ByteArrayInputStream(new byte[] {1, 2, 3})));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, exception.getStatus());
+    }
+
+
+//----------- fill()
+    @Test
+    void fill_shouldReplacePlaceholders() throws IOException {
+
+        try (XWPFDocument document = fill(Map.of("name", "Tom & Jerry", "orderId", "42", "company", "ACME"))) {
+            assertEquals("Dear Tom & Jerry,", document.getParagraphs().get(0).getText());
+            assertEquals("your order 42 is ready.", document.getParagraphs().get(1).getText());
+            assertEquals("Tom & Jerry", document.getTables().get(0).getRow(0).getCell(0).getText());
+            assertEquals("ACME", document.getHeaderList().get(0).getText().trim());
+        }
+    }
+
+
+    @Test
+    void fill_missingValue_shouldKeepPlaceholder() throws IOException {
+
+        try (XWPFDocument document = fill(Map.of("name", "Tom"))) {
+            assertEquals("your order ${orderId} is ready.", document.getParagraphs().get(1).getText());
+        }
+    }
+
+
+    @Test
+    void fill_shouldNotChangeTemplate() throws IOException {
+
+        fill(Map.of("name", "Tom")).close();
+
+        try (XWPFDocument document = fill(Map.of("name", "Jerry"))) {
+            assertEquals("Dear Jerry,", document.getParagraphs().get(0).getText());
+        }
+    }
+
+
+    private XWPFDocument fill(Map<String, String> values) throws IOException {
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        this.template.fill(values, OutputProfile.DEFAULT, os);
+
+        return new XWPFDocument(new ByteArrayInputStream(os.toByteArray()));
+    }
+}
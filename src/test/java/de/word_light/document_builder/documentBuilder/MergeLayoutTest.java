@@ -0,0 +1,137 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.http.HttpStatus;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.documentParts.style.Style;
+import de.word_light.document_builder.exception.ApiException;
+
+
+/**
+ * Unit tests for {@link MergeLayout}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class MergeLayoutTest {
+
+    private DocumentWrapper layout;
+
+    private MergeLayout mergeLayout;
+
+
+    @BeforeEach
+    void setup() {
+
+        Style style = new Style(11, "times new roman", "000000", false, false, false, ParagraphAlignment.LEFT, null);
+
+        List<BasicParagraph> content = new ArrayList<>(List.of(new BasicParagraph("header", style),
+                                                               new BasicParagraph("Dear ${name},", style),
+                                                               new BasicParagraph("${note}", style),
+                                                               new BasicParagraph("${logo.png}", style),
+                                                               new BasicParagraph("footer", style)));
+
+        this.layout = new DocumentWrapper(content, new ArrayList<>(), false, "letter ${name}.docx", 1, 0);
+        this.mergeLayout = MergeLayout.compile(this.layout);
+    }
+
+
+//----------- compile()
+    @Test
+    void compile_shouldIndexPlaceholders() {
+
+        assertEquals(List.of("name", "note", "logo.png"), List.copyOf(this.mergeLayout.getPlaceholders()));
+    }
+
+
+    @Test
+    void compile_invalidFileName_shouldThrow400() {
+
+        this.layout.setFileName("letter ${name}.txt");
+
+        ApiException exception = assertThrows(ApiException.class, () -> MergeLayout.compile(this.layout));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+//----------- fill()
+    @Test
+    void fill_shouldReplacePlaceholders() {
+
+        DocumentWrapper filled = this.mergeLayout.fill(Map.of("name", "Tom", "note", "hello"));
+
+        assertEquals("Dear Tom,", filled.getContent().get(1).getText());
+        assertEquals("hello", filled.getContent().get(2).getText());
+        assertEquals("letter Tom.docx", filled.getFileName());
+    }
+
+
+    @Test
+    void fill_invalidFileName_shouldThrow400() {
+
+        ApiException exception = assertThrows(ApiException.class, () -> this.mergeLayout.fill(Map.of("name", "../Tom")));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+
+        // placeholder without value
+        exception = assertThrows(ApiException.class, () -> this.mergeLayout.fill(Map.of()));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+    @Test
+    void fill_missingValue_shouldKeepPlaceholder() {
+
+        DocumentWrapper filled = this.mergeLayout.fill(Map.of("name", "Tom"));
+
+        assertEquals("${note}", filled.getContent().get(2).getText());
+        assertEquals("${logo.png}", filled.getContent().get(3).getText());
+    }
+
+
+    @Test
+    void fill_shouldShareUnchangedParagraphsAndNotChangeLayout() {
+
+        DocumentWrapper filled = this.mergeLayout.fill(Map.of("name", "Tom"));
+
+        assertSame(this.layout.getContent().get(0), filled.getContent().get(0));
+        assertEquals("Dear ${name},", this.layout.getContent().get(1).getText());
+    }
+
+
+//----------- isRenderPlanValid()
+    @Test
+    void isRenderPlanValid_sameClassification_shouldBeTrue() {
+
+        assertTrue(this.mergeLayout.isRenderPlanValid(this.mergeLayout.fill(Map.of("name", "Tom", "note", "hello"))));
+    }
+
+
+    @Test
+    void isRenderPlanValid_blankValue_shouldBeFalse() {
+
+        assertFalse(this.mergeLayout.isRenderPlanValid(this.mergeLayout.fill(Map.of("name", "Tom", "note", " "))));
+    }
+
+
+    @Test
+    void isRenderPlanValid_replacedPicture_shouldBeFalse() {
+
+        assertFalse(this.mergeLayout.isRenderPlanValid(this.mergeLayout.fill(Map.of("name", "Tom", "logo.png", "no logo"))));
+    }
+}
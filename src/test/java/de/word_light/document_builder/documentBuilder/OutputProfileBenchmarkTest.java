@@ -0,0 +1,111 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static de.word_light.document_builder.documentBuilder.DocumentBuilderTest.TEST_RESOURCE_FOLDER;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.TableConfig;
+import de.word_light.document_builder.documentParts.style.Style;
+import de.word_light.document_builder.utils.Utils;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Compares output size and write time of each {@link OutputProfile}. Only runs with {@code -Dbenchmark=true}, results are
+ * printed.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Log4j2
+public class OutputProfileBenchmarkTest {
+
+    private static final int NUM_PARAGRAPHS = 5000;
+
+    private static final int NUM_WARM_UP_RUNS = 3;
+
+    private static final int NUM_RUNS = 10;
+
+    private List<BasicParagraph> content;
+
+    private Map<String, byte[]> pictures = new HashMap<>();
+
+
+    @BeforeAll
+    void setup() {
+
+        String testPictureName = "test.png";
+        this.pictures.put(testPictureName, Utils.fileToByteArray(new File(TEST_RESOURCE_FOLDER + Utils.prependSlash(testPictureName))));
+
+        Style style = new Style(11, "Calibri", "000000", false, false, false, ParagraphAlignment.LEFT, null);
+
+        this.content = new ArrayList<>();
+        this.content.add(new BasicParagraph("header", style));
+        for (int i = 0; i < NUM_PARAGRAPHS; i++)
+            this.content.add(new BasicParagraph(i % 500 == 0 ? "${" + testPictureName + "}" : "Paragraph number " + i, style));
+        this.content.add(new BasicParagraph("footer", style));
+    }
+
+
+    @Test
+    void streamingDocumentWriter() {
+
+        for (OutputProfile outputProfile : OutputProfile.values())
+            benchmark("StreamingDocumentWriter", outputProfile, os -> {
+                StreamingDocumentWriter streamingDocumentWriter = new StreamingDocumentWriter(this.content, "benchmark.docx", 1, 0, false, this.pictures, new ArrayList<TableConfig>());
+                streamingDocumentWriter.setOutputProfile(outputProfile);
+                streamingDocumentWriter.write(os);
+            });
+    }
+
+
+    @Test
+    void documentBuilder() {
+
+        for (OutputProfile outputProfile : OutputProfile.values())
+            benchmark("DocumentBuilder", outputProfile, os -> {
+                DocumentBuilder documentBuilder = new DocumentBuilder(this.content, "benchmark.docx", 1, 0, false, this.pictures, new ArrayList<TableConfig>());
+                documentBuilder.setOutputProfile(outputProfile);
+                documentBuilder.build().write(os);
+            });
+    }
+
+
+    private void benchmark(String writerName, OutputProfile outputProfile, Writer writer) {
+
+        for (int i = 0; i < NUM_WARM_UP_RUNS; i++)
+            writer.write(new ByteArrayOutputStream());
+
+        long size = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < NUM_RUNS; i++) {
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            writer.write(os);
+            size = os.size();
+        }
+        long millisPerRun = (System.nanoTime() - start) / NUM_RUNS / 1_000_000;
+
+        log.info(String.format("%s %s: %d bytes, %d ms", writerName, outputProfile, size, millisPerRun));
+    }
+
+
+    @FunctionalInterface
+    private interface Writer {
+
+        void write(ByteArrayOutputStream os);
+    }
+}
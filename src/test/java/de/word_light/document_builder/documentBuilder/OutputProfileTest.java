@@ -0,0 +1,130 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.style.Style;
+
+
+/**
+ * Unit tests for {@link OutputProfile}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class OutputProfileTest {
+
+    private byte[] xml = "<w:document/>".repeat(100).getBytes();
+
+    private byte[] picture = {1, 2, 3, 4};
+
+
+//----------- writeEntry()
+    @Test
+    void writeEntry_fast_shouldStoreMedia() throws IOException {
+
+        Map<String, ZipEntry> entries = new LinkedHashMap<>();
+        Map<String, byte[]> contents = readPackage(writePackage(OutputProfile.FAST), entries);
+
+        assertEquals(ZipEntry.STORED, entries.get(OutputProfile.MEDIA_FOLDER + "image1.png").getMethod());
+        assertEquals(ZipEntry.DEFLATED, entries.get("word/document.xml").getMethod());
+
+        assertArrayEquals(this.picture, contents.get(OutputProfile.MEDIA_FOLDER + "image1.png"));
+        assertArrayEquals(this.xml, contents.get("word/document.xml"));
+    }
+
+
+    @Test
+    void writeEntry_default_shouldDeflateMedia() throws IOException {
+
+        Map<String, ZipEntry> entries = new LinkedHashMap<>();
+        readPackage(writePackage(OutputProfile.DEFAULT), entries);
+
+        assertEquals(ZipEntry.DEFLATED, entries.get(OutputProfile.MEDIA_FOLDER + "image1.png").getMethod());
+    }
+
+
+//----------- repackage()
+    @Test
+    void repackage_shouldKeepEntriesAndOrder() throws IOException {
+
+        byte[] defaultPackage = writePackage(OutputProfile.DEFAULT);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        OutputProfile.COMPACT.repackage(new ByteArrayInputStream(defaultPackage), os);
+
+        Map<String, byte[]> expectedContents = readPackage(defaultPackage, new LinkedHashMap<>());
+        Map<String, byte[]> actualContents = readPackage(os.toByteArray(), new LinkedHashMap<>());
+
+        assertEquals(List.copyOf(expectedContents.keySet()), List.copyOf(actualContents.keySet()));
+        for (String entryName : expectedContents.keySet())
+            assertArrayEquals(expectedContents.get(entryName), actualContents.get(entryName));
+    }
+
+
+    @Test
+    void repackage_documentBuilder_shouldBeReadable() throws IOException {
+
+        Style style = new Style(11, "Calibri", "000000", false, false, false, ParagraphAlignment.LEFT, null);
+        List<BasicParagraph> content = List.of(new BasicParagraph("header", style), new BasicParagraph("text", style), new BasicParagraph("footer", style));
+
+        DocumentBuilder documentBuilder = new DocumentBuilder(content, "temp.docx", 1, 0, false, new HashMap<>(), new ArrayList<>());
+        documentBuilder.setOutputProfile(OutputProfile.COMPACT);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        documentBuilder.build().write(os);
+
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(os.toByteArray()))) {
+            assertTrue(document.getParagraphs().stream().anyMatch(paragraph -> paragraph.getText().equals("text")));
+        }
+    }
+
+
+    private byte[] writePackage(OutputProfile outputProfile) throws IOException {
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        try (ZipOutputStream zip = outputProfile.createZipOutputStream(os)) {
+            outputProfile.writeEntry(zip, "word/document.xml", this.xml);
+            outputProfile.writeEntry(zip, OutputProfile.MEDIA_FOLDER + "image1.png", this.picture);
+        }
+
+        return os.toByteArray();
+    }
+
+
+    private Map<String, byte[]> readPackage(byte[] bytes, Map<String, ZipEntry> entries) throws IOException {
+
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), entry);
+                contents.put(entry.getName(), zip.readAllBytes());
+            }
+        }
+
+        return contents;
+    }
+}
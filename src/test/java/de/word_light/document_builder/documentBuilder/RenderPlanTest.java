@@ -0,0 +1,152 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+import de.word_light.document_builder.documentBuilder.RenderPlan.ContentKind;
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.TableConfig;
+import de.word_light.document_builder.documentParts.style.Style;
+
+
+/**
+ * Unit tests for {@link RenderPlan}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class RenderPlanTest {
+
+    private Style style;
+
+    private List<BasicParagraph> content;
+
+    private List<TableConfig> tableConfigs;
+
+
+    @BeforeEach
+    void setup() {
+
+        this.style = new Style(11, "times new roman", "2B01FF", true, false, false, ParagraphAlignment.CENTER, null);
+
+        this.content = new ArrayList<>(List.of(new BasicParagraph("header", this.style),
+                                               new BasicParagraph("title", this.style),
+                                               new BasicParagraph("${test.png}", this.style),
+                                               new BasicParagraph("cell 1", this.style),
+                                               new BasicParagraph("${cell.png}", this.style),
+                                               new BasicParagraph(" ", this.style),
+                                               new BasicParagraph("footer", this.style)));
+
+        // 2 columns, 1 row
+        this.tableConfigs = new ArrayList<>(List.of(new TableConfig(2, 1, 3)));
+    }
+
+
+//----------- compile()
+    @Test
+    void compile_shouldClassifyEachIndex() {
+
+        RenderPlan renderPlan = RenderPlan.compile(this.content, this.tableConfigs, true);
+
+        assertEquals(this.content.size(), renderPlan.size());
+        assertEquals(ContentKind.HEADER, renderPlan.getKind(0));
+        assertEquals(ContentKind.BODY, renderPlan.getKind(1));
+        assertEquals(ContentKind.BODY, renderPlan.getKind(2));
+        assertEquals(ContentKind.TABLE_CELL, renderPlan.getKind(3));
+        assertEquals(ContentKind.TABLE_CELL, renderPlan.getKind(4));
+        assertEquals(ContentKind.BODY, renderPlan.getKind(5));
+        assertEquals(ContentKind.FOOTER, renderPlan.getKind(6));
+    }
+
+
+    @Test
+    void compile_tableCell_shouldHavePosition() {
+
+        RenderPlan renderPlan = RenderPlan.compile(this.content, this.tableConfigs, true);
+
+        assertSame(this.tableConfigs.get(0), renderPlan.getTableConfig(4));
+        assertEquals(0, renderPlan.getTableIndex(4));
+        assertEquals(0, renderPlan.getRow(4));
+        assertEquals(1, renderPlan.getColumn(4));
+
+        assertNull(renderPlan.getTableConfig(1));
+        assertEquals(-1, renderPlan.getTableIndex(1));
+    }
+
+
+    @Test
+    void compile_overlappingTables_shouldUseFirstTable() {
+
+        this.tableConfigs.add(new TableConfig(1, 2, 4));
+
+        RenderPlan renderPlan = RenderPlan.compile(this.content, this.tableConfigs, true);
+
+        assertEquals(0, renderPlan.getTableIndex(4));
+        assertEquals(1, renderPlan.getTableIndex(5));
+    }
+
+
+    @Test
+    void compile_shouldResolvePictureNames() {
+
+        RenderPlan renderPlan = RenderPlan.compile(this.content, this.tableConfigs, true);
+
+        assertEquals("test.png", renderPlan.getPictureName(2));
+        assertTrue(renderPlan.isPicture(4));
+        assertFalse(renderPlan.isPicture(1));
+    }
+
+
+    @Test
+    void compile_blankHeaderAndFooter_shouldBeSkipped() {
+
+        this.content.get(0).setText(" ");
+        this.content.get(this.content.size() - 1).setText("");
+
+        RenderPlan renderPlan = RenderPlan.compile(this.content, new ArrayList<>(), true);
+
+        assertEquals(ContentKind.SKIPPED, renderPlan.getKind(0));
+        assertEquals(ContentKind.SKIPPED, renderPlan.getKind(this.content.size() - 1));
+        assertTrue(renderPlan.isEmpty(0));
+    }
+
+
+    @Test
+    void compile_shouldShareStyleIds() {
+
+        RenderPlan renderPlan = RenderPlan.compile(this.content, this.tableConfigs, true);
+
+        assertNotNull(renderPlan.getStyleId(1));
+        assertEquals(renderPlan.getStyleId(1), renderPlan.getStyleId(6));
+
+        // styled on run level
+        assertNull(renderPlan.getStyleId(3));
+    }
+
+
+//----------- copyStyleCatalog()
+    @Test
+    void copyStyleCatalog_shouldNotChangePlan() {
+
+        RenderPlan renderPlan = RenderPlan.compile(this.content, this.tableConfigs, true);
+
+        StyleCatalog styleCatalog = renderPlan.copyStyleCatalog();
+        styleCatalog.getStyleId(new Style(20, "arial", "000000", false, false, false, ParagraphAlignment.LEFT, null), true);
+
+        assertEquals(renderPlan.getStyleId(1), renderPlan.copyStyleCatalog().getStyleId(this.style, true));
+        assertFalse(renderPlan.copyStyleCatalog().getCTStyles().toString().contains("WordLight2"));
+    }
+}
@@ -0,0 +1,484 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static de.word_light.document_builder.documentBuilder.DocumentBuilderTest.TEST_RESOURCE_FOLDER;
+import static de.word_light.document_builder.utils.Utils.DOCX_FOLDER;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTParaRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STPageOrientation;
+import org.springframework.http.HttpStatus;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.TableConfig;
+import de.word_light.document_builder.documentParts.style.Style;
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.utils.Utils;
+
+
+/**
+ * Unit tests for {@link StreamingDocumentWriter}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class StreamingDocumentWriterTest {
+
+    private Style style;
+
+    private BasicParagraph header;
+    private BasicParagraph title;
+    private BasicParagraph tableCell;
+    private BasicParagraph picture;
+    private BasicParagraph footer;
+
+    private List<BasicParagraph> content;
+
+    private List<TableConfig> tableConfigs;
+
+    private Map<String, byte[]> pictures = new HashMap<>();
+
+    private int numColumns;
+    private int numSingleColumnLines;
+    private boolean landscape;
+
+    private StreamingDocumentWriter streamingDocumentWriter;
+
+
+    @BeforeEach
+    void setup() {
+
+        String testPictureName = "test.png";
+        this.pictures.put(testPictureName, Utils.fileToByteArray(new File(TEST_RESOURCE_FOLDER + Utils.prependSlash(testPictureName))));
+
+        this.style = new Style(11, "times new roman", "2B01FF", true, true, true, ParagraphAlignment.CENTER, null);
+        this.header = new BasicParagraph("This is the header", this.style);
+        this.title = new BasicParagraph("This is the title", this.style);
+        this.tableCell = new BasicParagraph("This is a table cell", this.style);
+        this.picture = new BasicParagraph("${" + testPictureName + "}", this.style);
+        this.footer = new BasicParagraph("This is the footer", this.style);
+        this.content = Arrays.asList(this.header, this.title, this.tableCell, this.picture, this.footer);
+        this.tableConfigs = new ArrayList<>(List.of(new TableConfig(1, 1, 2)));
+
+        this.numColumns = 2;
+        this.numSingleColumnLines = 1;
+        this.landscape = true;
+
+        this.streamingDocumentWriter = new StreamingDocumentWriter(this.content, "temp.docx", this.numColumns, this.numSingleColumnLines, this.landscape, this.pictures, this.tableConfigs);
+    }
+
+
+//----------- write()
+    @Test
+    void write_shouldHaveSameParagraphsAsDocumentBuilder() throws IOException {
+
+        DocumentBuilder documentBuilder = new DocumentBuilder(this.content, "temp.docx", this.numColumns, this.numSingleColumnLines, this.landscape, this.pictures, this.tableConfigs);
+        XWPFDocument expectedDocument = documentBuilder.build().getDocument();
+
+        try (XWPFDocument actualDocument = writeAndRead()) {
+            List<XWPFParagraph> expectedParagraphs = expectedDocument.getParagraphs();
+            List<XWPFParagraph> actualParagraphs = actualDocument.getParagraphs();
+
+            assertEquals(expectedParagraphs.size(), actualParagraphs.size());
+
+            for (int i = 0; i < expectedParagraphs.size(); i++) {
+                assertEquals(expectedParagraphs.get(i).getText(), actualParagraphs.get(i).getText());
+                assertEquals(expectedParagraphs.get(i).getAlignment(), actualParagraphs.get(i).getAlignment());
+            }
+
+        } finally {
+            expectedDocument.close();
+        }
+    }
+
+
+    @Test
+    void write_shouldAddHeaderAndFooter() throws IOException {
+
+        try (XWPFDocument document = writeAndRead()) {
+            assertEquals(this.header.getText(), document.getHeaderFooterPolicy().getDefaultHeader().getParagraphs().get(0).getText());
+            assertEquals(this.footer.getText(), document.getHeaderFooterPolicy().getDefaultFooter().getParagraphs().get(0).getText());
+        }
+    }
+
+
+    @Test
+    void write_blankHeader_shouldNotAddHeader() throws IOException {
+
+        this.header.setText(" ");
+
+        try (XWPFDocument document = writeAndRead()) {
+            assertNull(document.getHeaderFooterPolicy().getDefaultHeader());
+        }
+    }
+
+
+    @Test
+    void write_shouldAddTableAndPicture() throws IOException {
+
+        try (XWPFDocument document = writeAndRead()) {
+            assertEquals(1, document.getTables().size());
+            assertEquals(this.tableCell.getText(), document.getTables().get(0).getRow(0).getCell(0).getText());
+
+            assertEquals(1, document.getAllPictures().size());
+        }
+    }
+
+
+    @Test
+    void write_shouldApplyStyle() throws IOException {
+
+        try (XWPFDocument document = writeAndRead()) {
+            XWPFParagraph paragraph = document.getParagraphs().get(0);
+            XWPFStyle namedStyle = document.getStyles().getStyle(paragraph.getStyle());
+
+            // should refer to named style
+            assertNotNull(namedStyle);
+            assertNull(paragraph.getRuns().get(0).getFontFamily());
+
+            CTRPr rPr = namedStyle.getCTStyle().getRPr();
+            assertEquals(this.style.getFontSize() * 2, ((BigInteger) rPr.getSzArray(0).getVal()).intValue());
+            assertEquals(this.style.getFontFamily(), rPr.getRFontsArray(0).getAscii());
+            assertEquals(this.style.getColor(), rPr.getColorArray(0).xgetVal().getStringValue());
+            assertEquals(1, rPr.sizeOfBArray());
+            assertEquals(1, rPr.sizeOfIArray());
+        }
+    }
+
+
+    @Test
+    void write_compactEmptyLines_shouldSetFontSizeOnParagraphMark() throws IOException {
+
+        this.title.setText(" ");
+        this.streamingDocumentWriter.setCompactEmptyLines(true);
+
+        try (XWPFDocument document = writeAndRead()) {
+            XWPFParagraph paragraph = document.getParagraphs().get(0);
+
+            // no filler runs
+            assertTrue(paragraph.getRuns().isEmpty());
+
+            CTParaRPr paragraphMarkProperties = paragraph.getCTP().getPPr().getRPr();
+            assertEquals(this.style.getFontSize() * 2, ((BigInteger) paragraphMarkProperties.getSzArray(0).getVal()).intValue());
+            assertEquals(this.style.getFontFamily(), paragraphMarkProperties.getRFontsArray(0).getAscii());
+        }
+    }
+
+
+    @Test
+    void write_shouldSeparateSectionAndSetOrientation() throws IOException {
+
+        try (XWPFDocument document = writeAndRead()) {
+            // last single column line
+            assertTrue(document.getParagraphs().get(0).getCTP().getPPr().isSetSectPr());
+
+            assertEquals(STPageOrientation.LANDSCAPE, document.getDocument().getBody().getSectPr().getPgSz().getOrient());
+        }
+    }
+
+
+    @Test
+    void write_parallel_shouldMatchSequential() throws IOException {
+
+        // enough paragraphs for multiple body chunks
+        List<BasicParagraph> largeContent = new ArrayList<>(List.of(this.header, this.tableCell, this.tableCell));
+        for (int i = 0; i < StreamingDocumentWriter.MIN_BODY_CHUNK_SIZE * 4; i++) {
+            Style lineStyle = new Style(8 + i % 5, "times new roman", "000000", i % 2 == 0, false, false, ParagraphAlignment.LEFT, null);
+            largeContent.add(i % 50 == 0 ? this.picture : new BasicParagraph("Line\\t" + i, lineStyle));
+        }
+        largeContent.add(this.footer);
+
+        List<TableConfig> largeTableConfigs = List.of(new TableConfig(1, 2, 1));
+
+        StreamingDocumentWriter sequentialWriter = new StreamingDocumentWriter(largeContent, "temp.docx", this.numColumns, this.numSingleColumnLines, this.landscape, this.pictures, largeTableConfigs);
+        StreamingDocumentWriter parallelWriter = new StreamingDocumentWriter(largeContent, "temp.docx", this.numColumns, this.numSingleColumnLines, this.landscape, this.pictures, largeTableConfigs);
+        parallelWriter.setParallel(true);
+
+        Map<String, byte[]> expectedEntries = readEntries(sequentialWriter);
+        Map<String, byte[]> actualEntries = readEntries(parallelWriter);
+
+        assertEquals(expectedEntries.keySet(), actualEntries.keySet());
+
+        // creation date may differ
+        expectedEntries.remove(StreamingDocumentWriter.CORE_PROPERTIES_PART);
+        expectedEntries.forEach((entryName, bytes) -> assertArrayEquals(bytes, actualEntries.get(entryName), entryName));
+    }
+
+
+    @Test
+    void write_withFragmentCache_shouldOnlyRenderChangedParagraphs() throws IOException {
+
+        List<BasicParagraph> largeContent = new ArrayList<>(List.of(this.header));
+        for (int i = 0; i < 20; i++)
+            largeContent.add(new BasicParagraph("Line " + i, this.style));
+        largeContent.add(this.footer);
+
+        FragmentCache fragmentCache = new FragmentCache();
+        StreamingDocumentWriter cachingWriter = new StreamingDocumentWriter(largeContent, "temp.docx", 1, 0, this.landscape, this.pictures, List.of());
+        cachingWriter.setFragmentCache(fragmentCache);
+
+        readEntries(cachingWriter);
+        // all paragraphs plus one empty paragraph
+        assertEquals(21, fragmentCache.getNumMisses());
+
+        // change one paragraph
+        largeContent.set(5, new BasicParagraph("Changed line", this.style));
+        Map<String, byte[]> actualEntries = readEntries(cachingWriter);
+        assertEquals(1, fragmentCache.getNumMisses());
+
+        // should match a write without cache
+        StreamingDocumentWriter writer = new StreamingDocumentWriter(largeContent, "temp.docx", 1, 0, this.landscape, this.pictures, List.of());
+        Map<String, byte[]> expectedEntries = readEntries(writer);
+        assertArrayEquals(expectedEntries.get(StreamingDocumentWriter.DOCUMENT_PART), actualEntries.get(StreamingDocumentWriter.DOCUMENT_PART));
+    }
+
+
+    @Test
+    void write_tableWithRows_shouldMatchDocumentBuilder() throws IOException {
+
+        TableConfig tableConfig = new TableConfig(2, 2, 2);
+        tableConfig.setRows(List.of(List.of("a", "b"), List.of("c")));
+        tableConfig.setHeaderStyle(new Style(14, "arial", "000000", false, false, false, ParagraphAlignment.LEFT, null));
+        this.tableConfigs.set(0, tableConfig);
+
+        this.streamingDocumentWriter = new StreamingDocumentWriter(this.content, "temp.docx", this.numColumns, this.numSingleColumnLines, this.landscape, this.pictures, this.tableConfigs);
+        DocumentBuilder documentBuilder = new DocumentBuilder(this.content, "temp.docx", this.numColumns, this.numSingleColumnLines, this.landscape, this.pictures, this.tableConfigs);
+
+        try (XWPFDocument expectedDocument = documentBuilder.build().getDocument();
+             XWPFDocument actualDocument = writeAndRead()) {
+            XWPFTable expectedTable = expectedDocument.getTables().get(0);
+            XWPFTable actualTable = actualDocument.getTables().get(0);
+
+            assertEquals(expectedTable.getNumberOfRows(), actualTable.getNumberOfRows());
+            assertEquals(expectedTable.getText(), actualTable.getText());
+            assertEquals("b", actualTable.getRow(0).getCell(1).getText());
+        }
+    }
+
+
+    @Test
+    void write_streamedTable_shouldReplaceParagraphWithRows() throws IOException {
+
+        List<List<String>> rows = List.of(List.of("a", "b"), List.of("c"), List.of("e", "f"));
+        this.streamingDocumentWriter.setStreamedTable(new StreamedTable(3, 2, rows.iterator()));
+
+        try (XWPFDocument document = writeAndRead()) {
+            // picture paragraph is replaced
+            assertTrue(document.getAllPictures().isEmpty());
+            assertEquals(2, document.getTables().size());
+
+            XWPFTable table = document.getTables().get(1);
+            assertEquals(rows.size(), table.getNumberOfRows());
+            assertEquals("b", table.getRow(0).getCell(1).getText());
+            assertEquals("", table.getRow(1).getCell(1).getText());
+            assertEquals("e", table.getRow(2).getCell(0).getText());
+        }
+    }
+
+
+    @Test
+    void write_streamedTable_shouldIgnoreParallel() throws IOException {
+
+        this.streamingDocumentWriter.setParallel(true);
+        this.streamingDocumentWriter.setStreamedTable(new StreamedTable(3, 1, List.of(List.of("a"), List.of("b")).iterator()));
+
+        try (XWPFDocument document = writeAndRead()) {
+            assertEquals(2, document.getTables().get(1).getNumberOfRows());
+        }
+    }
+
+
+    @Test
+    void write_streamedTable_notABodyParagraph_shouldThrow400() {
+
+        // table cell
+        this.streamingDocumentWriter.setStreamedTable(new StreamedTable(2, 1, List.<List<String>> of().iterator()));
+        ApiException exception = assertThrows(ApiException.class, () -> writeAndRead());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+
+        // footer
+        this.streamingDocumentWriter.setStreamedTable(new StreamedTable(this.content.size() - 1, 1, List.<List<String>> of().iterator()));
+        exception = assertThrows(ApiException.class, () -> writeAndRead());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+    @Test
+    void write_streamedTable_tooManyValues_shouldThrow400() {
+
+        this.streamingDocumentWriter.setStreamedTable(new StreamedTable(3, 1, List.of(List.of("a", "b")).iterator()));
+
+        ApiException exception = assertThrows(ApiException.class, () -> writeAndRead());
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+    @Test
+    void write_streamedContent_shouldMatchContentList() throws IOException {
+
+        // body, header, footer and both header and footer table
+        List<List<TableConfig>> tableConfigLists = List.of(this.tableConfigs,
+                                                           List.of(new TableConfig(1, 1, 0)),
+                                                           List.of(new TableConfig(1, 1, this.content.size() - 1)),
+                                                           List.of(new TableConfig(1, 1, 0), new TableConfig(1, 1, 2), new TableConfig(1, 1, this.content.size() - 1)));
+
+        for (List<TableConfig> tableConfigs : tableConfigLists) {
+            StreamingDocumentWriter writer = new StreamingDocumentWriter(this.content, "temp.docx", this.numColumns, this.numSingleColumnLines, this.landscape, this.pictures, tableConfigs);
+            StreamingDocumentWriter streamingWriter = new StreamingDocumentWriter(List.of(), "temp.docx", this.numColumns, this.numSingleColumnLines, this.landscape, this.pictures, tableConfigs);
+            streamingWriter.setStreamedContent(this.content.iterator());
+
+            assertSameEntries(readEntries(writer), readEntries(streamingWriter));
+        }
+    }
+
+
+    @Test
+    void write_streamedContent_blankFooter_shouldMatchContentList() throws IOException {
+
+        this.footer.setText("");
+
+        // no section end
+        StreamingDocumentWriter writer = new StreamingDocumentWriter(this.content, "temp.docx", 1, 0, this.landscape, this.pictures, this.tableConfigs);
+        StreamingDocumentWriter streamingWriter = new StreamingDocumentWriter(List.of(), "temp.docx", 1, 0, this.landscape, this.pictures, this.tableConfigs);
+        streamingWriter.setStreamedContent(this.content.iterator());
+
+        assertSameEntries(readEntries(writer), readEntries(streamingWriter));
+    }
+
+
+    @Test
+    void write_streamedContent_blankFooterAfterSectionEnd_shouldReferenceFooter() throws IOException {
+
+        this.footer.setText("");
+
+        StreamingDocumentWriter streamingWriter = new StreamingDocumentWriter(List.of(), "temp.docx", this.numColumns, this.numSingleColumnLines, this.landscape, this.pictures, this.tableConfigs);
+        streamingWriter.setStreamedContent(this.content.iterator());
+
+        Map<String, byte[]> entries = readEntries(streamingWriter);
+        String documentXml = new String(entries.get("word/document.xml"));
+
+        // both the section end and the last section reference the footer
+        assertEquals(2, documentXml.split("footerReference", -1).length - 1);
+        assertNotNull(entries.get("word/footer1.xml"));
+        assertTrue(new String(entries.get("word/_rels/document.xml.rels")).contains("footer1.xml"));
+        assertTrue(new String(entries.get("[Content_Types].xml")).contains("footer1.xml"));
+    }
+
+
+    @Test
+    void write_streamedContent_noBody_shouldMatchContentList() throws IOException {
+
+        for (int contentSize = 0; contentSize <= 2; contentSize++) {
+            List<BasicParagraph> shortContent = this.content.subList(0, contentSize);
+
+            StreamingDocumentWriter writer = new StreamingDocumentWriter(shortContent, "temp.docx", 1, 0, this.landscape, this.pictures, List.of());
+            StreamingDocumentWriter streamingWriter = new StreamingDocumentWriter(List.of(), "temp.docx", 1, 0, this.landscape, this.pictures, List.of());
+            streamingWriter.setStreamedContent(shortContent.iterator());
+
+            assertSameEntries(readEntries(writer), readEntries(streamingWriter));
+        }
+    }
+
+
+    @Test
+    void write_streamedContent_tableExceedsContent_shouldThrow400() {
+
+        StreamingDocumentWriter streamingWriter = new StreamingDocumentWriter(List.of(), "temp.docx", 1, 0, this.landscape, this.pictures, List.of(new TableConfig(1, 3, 3)));
+        streamingWriter.setStreamedContent(this.content.iterator());
+
+        ApiException exception = assertThrows(ApiException.class, () -> readEntries(streamingWriter));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+//----------- writeDocxFile()
+    @Test
+    void writeDocxFile_shouldCreateFile() {
+
+        assertFalse(new File(DOCX_FOLDER + "/" + this.streamingDocumentWriter.getDocxFileName()).exists());
+
+        this.streamingDocumentWriter.writeDocxFile();
+
+        assertTrue(new File(DOCX_FOLDER + "/" + this.streamingDocumentWriter.getDocxFileName()).exists());
+    }
+
+
+    private XWPFDocument writeAndRead() throws IOException {
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        this.streamingDocumentWriter.write(os);
+
+        return new XWPFDocument(new ByteArrayInputStream(os.toByteArray()));
+    }
+
+
+    /**
+     * @param streamingDocumentWriter to write with
+     * @return entry names and bytes of the written package
+     */
+    private Map<String, byte[]> readEntries(StreamingDocumentWriter streamingDocumentWriter) throws IOException {
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        streamingDocumentWriter.write(os);
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(os.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null)
+                entries.put(entry.getName(), zip.readAllBytes());
+        }
+
+        return entries;
+    }
+
+
+    /**
+     * @param expectedEntries entry names and bytes of a package
+     * @param actualEntries entry names and bytes of a package, may be in a different order
+     */
+    private void assertSameEntries(Map<String, byte[]> expectedEntries, Map<String, byte[]> actualEntries) {
+
+        assertEquals(expectedEntries.keySet(), actualEntries.keySet());
+
+        // creation date may differ
+        expectedEntries.remove(StreamingDocumentWriter.CORE_PROPERTIES_PART);
+        expectedEntries.forEach((entryName, bytes) -> assertArrayEquals(bytes, actualEntries.get(entryName), entryName));
+    }
+
+
+    @AfterEach
+    void cleanUp() {
+
+        Utils.clearFolder(DOCX_FOLDER, null);
+    }
+}
@@ -0,0 +1,89 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+
+import de.word_light.document_builder.documentParts.style.Style;
+
+
+/**
+ * Unit tests for {@link StyleApplier}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class StyleApplierTest {
+
+    private XWPFDocument document;
+
+    private Style style;
+
+
+    @BeforeEach
+    void setup() {
+
+        this.document = new XWPFDocument();
+        this.style = new Style(11, "times new roman", "2B01FF", true, false, false, ParagraphAlignment.CENTER, null);
+    }
+
+
+//----------- applyStyle()
+    @Test
+    void applyStyle_runLevel_shouldSetFormattingOnRuns() {
+
+        XWPFParagraph paragraph = this.document.createParagraph();
+        XWPFRun run = paragraph.createRun();
+
+        StyleApplier.RUN_LEVEL.applyStyle(paragraph, this.style, null);
+
+        assertEquals(this.style.getFontSize(), run.getFontSizeAsDouble().intValue());
+        assertEquals(this.style.getFontFamily(), run.getFontFamily());
+        assertTrue(run.isBold());
+        assertEquals(ParagraphAlignment.CENTER, paragraph.getAlignment());
+        assertNull(paragraph.getStyle());
+        assertNull(paragraph.getCTP().getPPr().getTabs());
+    }
+
+
+    @Test
+    void applyStyle_styleCatalog_shouldReferToNamedStyle() {
+
+        StyleCatalog styleCatalog = new StyleCatalog();
+        XWPFParagraph paragraph = this.document.createParagraph();
+        XWPFRun run = paragraph.createRun();
+
+        new StyleApplier(styleCatalog, true).applyStyle(paragraph, this.style, null);
+
+        assertEquals(styleCatalog.getStyleId(this.style, true), paragraph.getStyle());
+        assertFalse(run.isBold());
+    }
+
+
+    @Test
+    void applyStyle_styleNull_shouldNotThrow() {
+
+        assertDoesNotThrow(() -> StyleApplier.RUN_LEVEL.applyStyle(this.document.createParagraph(), null, null));
+    }
+
+
+    @AfterEach
+    void cleanUp() throws IOException {
+
+        this.document.close();
+    }
+}
@@ -0,0 +1,80 @@
+package de.word_light.document_builder.documentBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyles;
+
+import de.word_light.document_builder.documentParts.style.Style;
+
+
+/**
+ * Unit tests for {@link StyleCatalog}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class StyleCatalogTest {
+
+    private StyleCatalog styleCatalog;
+
+    private Style style;
+
+
+    @BeforeEach
+    void setup() {
+
+        this.styleCatalog = new StyleCatalog();
+        this.style = new Style(11, "times new roman", "2B01FF", true, false, false, ParagraphAlignment.CENTER, null);
+    }
+
+
+//----------- getStyleId()
+    @Test
+    void getStyleId_equalStyle_shouldReturnSameId() {
+
+        Style equalStyle = new Style(11, "times new roman", "2B01FF", true, false, false, ParagraphAlignment.RIGHT, null);
+
+        // text align is not part of the named style
+        assertEquals(this.styleCatalog.getStyleId(this.style, true), this.styleCatalog.getStyleId(equalStyle, true));
+    }
+
+
+    @Test
+    void getStyleId_differentStyle_shouldReturnNewId() {
+
+        Style differentStyle = new Style(12, "times new roman", "2B01FF", true, false, false, ParagraphAlignment.CENTER, null);
+
+        assertNotEquals(this.styleCatalog.getStyleId(this.style, true), this.styleCatalog.getStyleId(differentStyle, true));
+        assertNotEquals(this.styleCatalog.getStyleId(this.style, true), this.styleCatalog.getStyleId(this.style, false));
+    }
+
+
+//----------- getCTStyles()
+    @Test
+    void getCTStyles_shouldContainOneStylePerDistinctStyle() {
+
+        assertTrue(this.styleCatalog.isEmpty());
+
+        String styleId = this.styleCatalog.getStyleId(this.style, true);
+        this.styleCatalog.getStyleId(this.style, true);
+
+        assertFalse(this.styleCatalog.isEmpty());
+
+        CTStyles ctStyles = this.styleCatalog.getCTStyles();
+        assertEquals(1, ctStyles.sizeOfStyleArray());
+
+        CTStyle ctStyle = ctStyles.getStyleArray(0);
+        assertEquals(styleId, ctStyle.getStyleId());
+        assertEquals(this.style.getFontFamily(), ctStyle.getRPr().getRFontsArray(0).getAscii());
+        assertEquals(StyleCatalog.NUM_TAB_STOPS, ctStyle.getPPr().getTabs().sizeOfTabArray());
+    }
+}
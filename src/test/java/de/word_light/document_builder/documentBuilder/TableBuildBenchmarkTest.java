@@ -0,0 +1,83 @@
+package de.word_light.document_builder.documentBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.TableConfig;
+import de.word_light.document_builder.documentParts.style.Style;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Compares the time {@link DocumentBuilder#build()} takes for a large table filled cell by cell (as tables used to be
+ * filled, using {@link TableUtils#fillTableCell}) and row by row with copied cell properties. Only runs with
+ * {@code -Dbenchmark=true}, results are logged.<p>
+ *
+ * Both builds use the same valid layout (one column, no single column lines, table after the first paragraph), only
+ * {@link DocumentBuilder#setIsFillTablesByRow(boolean)} differs.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Log4j2
+public class TableBuildBenchmarkTest {
+
+    private static final int NUM_CELLS = 20000;
+
+    private static final int NUM_WARM_UP_RUNS = 3;
+
+    private static final int NUM_RUNS = 5;
+
+    private final Style style = new Style(11, "Calibri", "000000", false, false, false, ParagraphAlignment.LEFT, null);
+
+
+    @Test
+    void buildTable() {
+
+        List<BasicParagraph> content = new ArrayList<>();
+        content.add(new BasicParagraph("header", this.style));
+        content.add(new BasicParagraph("paragraph", this.style));
+        for (int i = 0; i < NUM_CELLS; i++)
+            content.add(new BasicParagraph("cell " + i, this.style));
+        content.add(new BasicParagraph("footer", this.style));
+
+        // one table in body with 4 columns
+        List<TableConfig> tableConfigs = List.of(new TableConfig(4, NUM_CELLS / 4, 2));
+
+        benchmark("cell by cell", content, tableConfigs, false);
+        benchmark("row by row", content, tableConfigs, true);
+    }
+
+
+    /**
+     * @param isFillTablesByRow false to fill the table cell by cell, true to fill it row by row
+     */
+    private void benchmark(String name, List<BasicParagraph> content, List<TableConfig> tableConfigs, boolean isFillTablesByRow) {
+
+        for (int i = 0; i < NUM_WARM_UP_RUNS; i++)
+            newDocumentBuilder(content, tableConfigs, isFillTablesByRow).build();
+
+        long nanos = System.nanoTime();
+        for (int i = 0; i < NUM_RUNS; i++)
+            newDocumentBuilder(content, tableConfigs, isFillTablesByRow).build();
+        nanos = System.nanoTime() - nanos;
+
+        log.info(String.format("DocumentBuilder.build() with table %s: %d ms per build, %d ns per cell", name, nanos / NUM_RUNS / 1_000_000, nanos / NUM_RUNS / NUM_CELLS));
+    }
+
+
+    private DocumentBuilder newDocumentBuilder(List<BasicParagraph> content, List<TableConfig> tableConfigs, boolean isFillTablesByRow) {
+
+        return new DocumentBuilder(content, "benchmark.docx", 1, 0, false, new HashMap<>(), tableConfigs)
+                    .setIsFillTablesByRow(isFillTablesByRow);
+    }
+}
@@ -0,0 +1,113 @@
+package de.word_light.document_builder.documentBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.sun.management.ThreadMXBean;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.TableConfig;
+import de.word_light.document_builder.documentParts.style.Style;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Compares the bytes allocated per table cell when styling it with a new {@link DocumentBuilder} (as table cells used to
+ * be styled) and with the shared {@link StyleApplier}. Only runs with {@code -Dbenchmark=true}, results are logged.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Log4j2
+public class TableCellAllocationBenchmarkTest {
+
+    private static final int NUM_CELLS = 20000;
+
+    private static final int NUM_WARM_UP_RUNS = 3;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Style style = new Style(11, "Calibri", "000000", false, false, false, ParagraphAlignment.LEFT, null);
+
+
+    @Test
+    void styleTableCell() {
+
+        benchmark("new DocumentBuilder().applyStyle()", paragraph -> new DocumentBuilder().applyStyle(paragraph, this.style));
+        benchmark("StyleApplier.RUN_LEVEL.applyStyle()", paragraph -> StyleApplier.RUN_LEVEL.applyStyle(paragraph, this.style, null));
+    }
+
+
+    @Test
+    void buildTable() {
+
+        List<BasicParagraph> content = new ArrayList<>();
+        content.add(new BasicParagraph("header", this.style));
+        for (int i = 0; i < NUM_CELLS; i++)
+            content.add(new BasicParagraph("cell " + i, this.style));
+        content.add(new BasicParagraph("footer", this.style));
+
+        // one table in body with 4 columns
+        List<TableConfig> tableConfigs = List.of(new TableConfig(4, NUM_CELLS / 4, 1));
+
+        for (int i = 0; i < NUM_WARM_UP_RUNS; i++)
+            new DocumentBuilder(content, "benchmark.docx", 1, 0, false, new HashMap<>(), tableConfigs).build();
+
+        long allocatedBytes = getAllocatedBytes();
+        new DocumentBuilder(content, "benchmark.docx", 1, 0, false, new HashMap<>(), tableConfigs).build();
+        allocatedBytes = getAllocatedBytes() - allocatedBytes;
+
+        log.info(String.format("DocumentBuilder.build() with table: %d bytes per cell", allocatedBytes / NUM_CELLS));
+    }
+
+
+    private void benchmark(String name, CellStyler cellStyler) {
+
+        try (XWPFDocument document = new XWPFDocument()) {
+            // prepare cells, so only styling is measured
+            List<XWPFParagraph> paragraphs = new ArrayList<>();
+            for (int i = 0; i < NUM_CELLS * (NUM_WARM_UP_RUNS + 1); i++) {
+                XWPFParagraph paragraph = document.createParagraph();
+                paragraph.createRun().setText("cell " + i);
+                paragraphs.add(paragraph);
+            }
+
+            for (int i = 0; i < NUM_CELLS * NUM_WARM_UP_RUNS; i++)
+                cellStyler.style(paragraphs.get(i));
+
+            long allocatedBytes = getAllocatedBytes();
+            for (int i = NUM_CELLS * NUM_WARM_UP_RUNS; i < paragraphs.size(); i++)
+                cellStyler.style(paragraphs.get(i));
+            allocatedBytes = getAllocatedBytes() - allocatedBytes;
+
+            log.info(String.format("%s: %d bytes per cell", name, allocatedBytes / NUM_CELLS));
+
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    private static long getAllocatedBytes() {
+
+        return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+
+    @FunctionalInterface
+    private interface CellStyler {
+
+        void style(XWPFParagraph paragraph);
+    }
+}
@@ -245,6 +245,34 @@ public class TableUtilsTest {
     }
 
 
+//---------- getTableIndex()
+    @Test
+    void getTableIndex_shouldFindTableOfEachCell() {
+
+        assertEquals(0, this.tableUtils.getTableIndex(this.headerTable.getEndIndex()));
+        assertEquals(1, this.tableUtils.getTableIndex(this.bodyTable.getStartIndex()));
+        assertEquals(1, this.tableUtils.getTableIndex(this.bodyTable.getEndIndex()));
+        assertEquals(2, this.tableUtils.getTableIndex(this.footerTable.getEndIndex()));
+        assertEquals(-1, this.tableUtils.getTableIndex(this.bodyTable.getEndIndex() + 1));
+        assertEquals(-1, this.tableUtils.getTableIndex(this.contentSize));
+    }
+
+
+    @Test
+    void getTableIndex_overlappingTables_firstShouldWin() {
+
+        // covers 1 to 6, overlapping the body table from 2 to 10
+        TableConfig overlappingTable = new TableConfig(2, 3, 1);
+        this.tableUtils.setTableConfigs(List.of(this.bodyTable, overlappingTable));
+
+        assertEquals(1, this.tableUtils.getTableIndex(1));
+        assertEquals(0, this.tableUtils.getTableIndex(2));
+        assertEquals(0, this.tableUtils.getTableIndex(6));
+        assertEquals(0, this.tableUtils.getTableIndex(this.bodyTable.getEndIndex()));
+        assertEquals(-1, this.tableUtils.getTableIndex(0));
+    }
+
+
     @AfterAll
     void cleanUp() throws IOException {
 
@@ -1,10 +1,15 @@
 package de.word_light.document_builder.documentParts;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,7 +17,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.word_light.document_builder.documentParts.ParagraphEdit.EditType;
 import de.word_light.document_builder.documentParts.style.Style;
+import de.word_light.document_builder.exception.ApiException;
 
 
 /**
@@ -153,6 +163,119 @@ public class DocumentWrapperTest {
     }
 
 
+//----------- setStyles()
+    @Test
+    void setStyles_shouldResolveStyleRefs() {
+
+        BasicParagraph first = new BasicParagraph("par1", null);
+        first.setStyleRef("body");
+        BasicParagraph second = new BasicParagraph("par2", null);
+        second.setStyleRef("body");
+
+        this.documentWrapper.setContent(List.of(first, second));
+        assertFalse(this.documentWrapper.isStyleRefsResolved());
+
+        this.documentWrapper.setStyles(Map.of("body", this.style));
+
+        // should share the same instance
+        assertSame(this.style, first.getStyle());
+        assertSame(this.style, second.getStyle());
+        assertTrue(this.documentWrapper.isStyleRefsResolved());
+    }
+
+
+    @Test
+    void setStyles_unknownKey_shouldNotBeResolved() {
+
+        BasicParagraph basicParagraph = new BasicParagraph("par1", null);
+        basicParagraph.setStyleRef("unknown");
+
+        this.documentWrapper.setStyles(Map.of("body", this.style));
+        this.documentWrapper.setContent(List.of(basicParagraph));
+
+        assertTrue(basicParagraph.isStyleSet());
+        assertFalse(this.documentWrapper.isStyleRefsResolved());
+    }
+
+
+    @Test
+    void setStyles_ownStyle_shouldNotBeReplaced() throws JsonProcessingException {
+
+        String json = """
+            {
+                "fileName": "Document_1.docx",
+                "tableConfigs": [],
+                "content": [
+                    {"text": "par1", "styleRef": "body"},
+                    {"text": "par2", "styleRef": "body", "style": {"fontSize": 12, "fontFamily": "Arial", "color": "000000", "bold": false, "italic": false, "underline": false, "textAlign": "LEFT"}}
+                ],
+                "styles": {
+                    "body": {"fontSize": 8, "fontFamily": "Calibri", "color": "000000", "bold": true, "italic": true, "underline": true, "textAlign": "LEFT"}
+                }
+            }
+            """;
+
+        DocumentWrapper documentWrapper = new ObjectMapper().readValue(json, DocumentWrapper.class);
+
+        assertEquals(8, documentWrapper.getContent().get(0).getStyle().getFontSize());
+        assertEquals(12, documentWrapper.getContent().get(1).getStyle().getFontSize());
+    }
+
+
+//----------- withEdits()
+    @Test
+    void withEdits_insert_shouldMoveTableConfigs() {
+
+        BasicParagraph newParagraph = new BasicParagraph("new", this.style);
+        DocumentWrapper editedWrapper = this.documentWrapper.withEdits(List.of(new ParagraphEdit(EditType.INSERT, 1, newParagraph, null)));
+
+        assertEquals(this.content.size() + 1, editedWrapper.getContent().size());
+        assertEquals(newParagraph, editedWrapper.getContent().get(1));
+        assertEquals(3, editedWrapper.getTableConfigs().get(0).getStartIndex());
+        assertEquals(6, editedWrapper.getTableConfigs().get(2).getStartIndex());
+
+        // should not alter original
+        assertEquals(this.content.size(), this.documentWrapper.getContent().size());
+        assertEquals(2, this.documentWrapper.getTableConfigs().get(0).getStartIndex());
+    }
+
+
+    @Test
+    void withEdits_delete_shouldMoveTableConfigs() {
+
+        DocumentWrapper editedWrapper = this.documentWrapper.withEdits(List.of(new ParagraphEdit(EditType.DELETE, 1, null, null)));
+
+        assertEquals(this.content.size() - 1, editedWrapper.getContent().size());
+        assertEquals(1, editedWrapper.getTableConfigs().get(0).getStartIndex());
+        assertEquals(4, editedWrapper.getTableConfigs().get(2).getStartIndex());
+    }
+
+
+    @Test
+    void withEdits_style_shouldNotAlterOriginalParagraph() {
+
+        Style newStyle = Style.getDefaultInstance();
+        DocumentWrapper editedWrapper = this.documentWrapper.withEdits(List.of(new ParagraphEdit(EditType.STYLE, 1, null, newStyle)));
+
+        assertEquals(newStyle, editedWrapper.getContent().get(1).getStyle());
+        assertEquals(this.content.get(1).getText(), editedWrapper.getContent().get(1).getText());
+        assertEquals(this.style, this.content.get(1).getStyle());
+    }
+
+
+    @Test
+    void withEdits_insideTableOrOutOfBounds_shouldThrow() {
+
+        BasicParagraph newParagraph = new BasicParagraph("new", this.style);
+
+        // inserting at start index moves the table
+        assertDoesNotThrow(() -> this.documentWrapper.withEdits(List.of(new ParagraphEdit(EditType.INSERT, 3, newParagraph, null))));
+        assertThrows(ApiException.class, () -> this.documentWrapper.withEdits(List.of(new ParagraphEdit(EditType.INSERT, 4, newParagraph, null))));
+        assertThrows(ApiException.class, () -> this.documentWrapper.withEdits(List.of(new ParagraphEdit(EditType.DELETE, 3, null, null))));
+        assertThrows(ApiException.class, () -> this.documentWrapper.withEdits(List.of(new ParagraphEdit(EditType.UPDATE, this.content.size(), newParagraph, null))));
+    }
+
+
     // TODO: add pattern tests
     // no special chars at start
     // correct chars at start -_. 
@@ -0,0 +1,98 @@
+package de.word_light.document_builder.documentParts;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import de.word_light.document_builder.documentParts.style.Style;
+import lombok.extern.log4j.Log4j2;
+
+
+/**
+ * Compares payload size and parse time of a {@link DocumentWrapper} encoded as json, CBOR and Smile for a few document
+ * sizes. Only runs with {@code -Dbenchmark=true}, results are logged.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Log4j2
+public class RequestEncodingBenchmarkTest {
+
+    private static final int[] NUM_PARAGRAPHS = {100, 10_000, 100_000};
+
+    private static final int NUM_WARM_UP_RUNS = 3;
+
+    private static final int NUM_RUNS = 10;
+
+
+    @Test
+    void parseDocumentWrapper() throws IOException {
+
+        List<ObjectMapper> objectMappers = List.of(configure(new JsonMapper()), configure(new CBORMapper()), configure(new SmileMapper()));
+
+        for (int numParagraphs : NUM_PARAGRAPHS) {
+            DocumentWrapper documentWrapper = createDocumentWrapper(numParagraphs);
+
+            for (ObjectMapper objectMapper : objectMappers)
+                benchmark(objectMapper, documentWrapper, numParagraphs);
+        }
+    }
+
+
+    private void benchmark(ObjectMapper objectMapper, DocumentWrapper documentWrapper, int numParagraphs) throws IOException {
+
+        byte[] bytes = objectMapper.writeValueAsBytes(documentWrapper);
+
+        for (int i = 0; i < NUM_WARM_UP_RUNS; i++)
+            objectMapper.readValue(bytes, DocumentWrapper.class);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < NUM_RUNS; i++)
+            objectMapper.readValue(bytes, DocumentWrapper.class);
+        double millisPerRun = (System.nanoTime() - start) / NUM_RUNS / 1_000_000.0;
+
+        log.info(String.format("%s %d paragraphs: %d bytes, %.2f ms", objectMapper.getFactory().getFormatName(), numParagraphs, bytes.length, millisPerRun));
+    }
+
+
+    /**
+     * @return given mapper ignoring computed properties like 'valid' when reading, like the one of the application does
+     */
+    private static ObjectMapper configure(ObjectMapper objectMapper) {
+
+        return objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+
+    /**
+     * @param numParagraphs number of body paragraphs
+     * @return wrapper with varying styles and a table in the middle
+     */
+    private static DocumentWrapper createDocumentWrapper(int numParagraphs) {
+
+        List<BasicParagraph> content = new ArrayList<>();
+        content.add(new BasicParagraph("header", Style.getDefaultInstance()));
+        for (int i = 0; i < numParagraphs; i++) {
+            Style style = new Style(8 + i % 5, "Calibri", "000000", i % 2 == 0, false, false, ParagraphAlignment.LEFT, null);
+            content.add(new BasicParagraph("Paragraph number " + i + " with some more text to look like an actual line.", style));
+        }
+        content.add(new BasicParagraph("footer", Style.getDefaultInstance()));
+
+        List<TableConfig> tableConfigs = new ArrayList<>(List.of(new TableConfig(4, 10, numParagraphs / 2)));
+
+        return new DocumentWrapper(content, tableConfigs, false, "benchmark.docx", 1, 0);
+    }
+}
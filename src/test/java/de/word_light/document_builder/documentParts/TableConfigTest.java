@@ -1,11 +1,18 @@
 package de.word_light.document_builder.documentParts;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import de.word_light.document_builder.documentParts.style.Style;
+
 
 /**
  * Unit tests for {@link TableConfig}.
@@ -46,4 +53,45 @@ public class TableConfigTest {
 
         assertTrue(this.tableConfig.isValid());
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void getEndIndex_withRows_shouldBeStartIndex() {
+
+        this.tableConfig.setRows(List.of(List.of("a"), List.of(), List.of(), List.of(), List.of()));
+
+        assertEquals(this.tableConfig.getStartIndex(), this.tableConfig.getEndIndex());
+    }
+
+
+    @Test
+    void isRowsValid_wrongNumberOfRows_shouldBeFalse() {
+
+        this.tableConfig.setRows(List.of(List.of("a", "b", "c")));
+        assertFalse(this.tableConfig.isRowsValid());
+
+        this.tableConfig.setNumRows(1);
+        assertTrue(this.tableConfig.isRowsValid());
+
+        // too many values
+        this.tableConfig.setRows(List.of(List.of("a", "b", "c", "d")));
+        assertFalse(this.tableConfig.isRowsValid());
+    }
+
+
+    @Test
+    void getCellStyle_shouldPreferHeaderThenColumnStyle() {
+
+        Style defaultStyle = Style.getDefaultInstance();
+        Style headerStyle = new Style(14, "arial", "000000", true, false, false, ParagraphAlignment.LEFT, null);
+        Style columnStyle = new Style(9, "arial", "000000", false, false, false, ParagraphAlignment.LEFT, null);
+
+        this.tableConfig.setHeaderStyle(headerStyle);
+        this.tableConfig.setColumnStyles(Arrays.asList(null, columnStyle));
+
+        assertEquals(headerStyle, this.tableConfig.getCellStyle(0, 1, defaultStyle));
+        assertEquals(defaultStyle, this.tableConfig.getCellStyle(1, 0, defaultStyle));
+        assertEquals(columnStyle, this.tableConfig.getCellStyle(1, 1, defaultStyle));
+        assertEquals(defaultStyle, this.tableConfig.getCellStyle(1, 2, defaultStyle));
+    }
+}
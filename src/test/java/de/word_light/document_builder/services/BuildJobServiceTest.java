@@ -0,0 +1,178 @@
+package de.word_light.document_builder.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import de.word_light.document_builder.documentBuilder.OutputProfile;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.services.BuildJob.BuildJobStatus;
+
+
+/**
+ * Unit tests for {@link BuildJobService}. Documents are not actually built, {@link DocumentBuildService#build} is stubbed.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class BuildJobServiceTest {
+
+    private static final byte[] DOCUMENT_BYTES = {1, 2, 3};
+
+    private BuildJobService buildJobService;
+
+    private ExecutorService jobExecutor;
+
+    private CountDownLatch blockBuild;
+
+
+    @BeforeEach
+    void setup() {
+
+        this.jobExecutor = Executors.newSingleThreadExecutor();
+        this.blockBuild = new CountDownLatch(0);
+
+        DocumentBuildService documentBuildService = new DocumentBuildService() {
+            @Override
+            public byte[] build(DocumentWrapper documentWrapper, OutputProfile outputProfile) {
+
+                awaitUnblock();
+
+                return DOCUMENT_BYTES;
+            }
+        };
+        ReflectionTestUtils.setField(documentBuildService, "IN_MEMORY_DOCUMENT_MAX_BYTES", Integer.MAX_VALUE);
+
+        this.buildJobService = new BuildJobService();
+        ReflectionTestUtils.setField(this.buildJobService, "documentBuildService", documentBuildService);
+        ReflectionTestUtils.setField(this.buildJobService, "jobExecutor", this.jobExecutor);
+        ReflectionTestUtils.setField(this.buildJobService, "JOB_TIMEOUT_SECONDS", 1L);
+        ReflectionTestUtils.setField(this.buildJobService, "JOB_RESULT_TTL_SECONDS", 0L);
+    }
+
+
+//----------- submit()
+    @Test
+    void submit_shouldBeDone_andHaveDocument() throws Exception {
+
+        BuildJob job = this.buildJobService.submit(createDocumentWrapper(), OutputProfile.DEFAULT);
+        job.getCompletion().get(5, TimeUnit.SECONDS);
+
+        assertEquals(BuildJobStatus.DONE, job.getStatus());
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        this.buildJobService.getBuiltDocument(job.getId()).writeTo(os);
+        assertArrayEquals(DOCUMENT_BYTES, os.toByteArray());
+    }
+
+
+    @Test
+    void submit_tooSlow_shouldBeTimedOut() throws Exception {
+
+        this.blockBuild = new CountDownLatch(1);
+
+        BuildJob job = this.buildJobService.submit(createDocumentWrapper(), OutputProfile.DEFAULT);
+        job.getCompletion().get(5, TimeUnit.SECONDS);
+
+        assertEquals(BuildJobStatus.TIMED_OUT, job.getStatus());
+    }
+
+
+    @Test
+    void submit_doneAfterTimeout_shouldStayTimedOut() throws Exception {
+
+        this.blockBuild = new CountDownLatch(1);
+
+        BuildJob job = this.buildJobService.submit(createDocumentWrapper(), OutputProfile.DEFAULT);
+        job.getCompletion().get(5, TimeUnit.SECONDS);
+
+        // let the build finish after the timeout
+        this.blockBuild.countDown();
+        this.jobExecutor.shutdown();
+        this.jobExecutor.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertEquals(BuildJobStatus.TIMED_OUT, job.getStatus());
+        assertNull(job.getBuiltDocument());
+        assertFalse(job.offer(new BuiltDocument(DOCUMENT_BYTES)));
+    }
+
+
+//----------- getJob()
+    @Test
+    void getJob_unknownId_shouldThrow404() {
+
+        ApiException exception = assertThrows(ApiException.class, () -> this.buildJobService.getJob("unknown"));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    }
+
+
+//----------- getBuiltDocument()
+    @Test
+    void getBuiltDocument_notDone_shouldThrow409() {
+
+        this.blockBuild = new CountDownLatch(1);
+
+        BuildJob job = this.buildJobService.submit(createDocumentWrapper(), OutputProfile.DEFAULT);
+
+        ApiException exception = assertThrows(ApiException.class, () -> this.buildJobService.getBuiltDocument(job.getId()));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatus());
+    }
+
+
+//----------- removeExpiredJobs()
+    @Test
+    void removeExpiredJobs_shouldRemoveFinishedJobs() throws Exception {
+
+        BuildJob job = this.buildJobService.submit(createDocumentWrapper(), OutputProfile.DEFAULT);
+        job.getCompletion().get(5, TimeUnit.SECONDS);
+
+        this.buildJobService.removeExpiredJobs();
+
+        assertThrows(ApiException.class, () -> this.buildJobService.getJob(job.getId()));
+    }
+
+
+    @AfterEach
+    void cleanUp() {
+
+        this.blockBuild.countDown();
+        this.jobExecutor.shutdownNow();
+    }
+
+
+    private void awaitUnblock() {
+
+        try {
+            this.blockBuild.await();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private DocumentWrapper createDocumentWrapper() {
+
+        return new DocumentWrapper(new ArrayList<>(), new ArrayList<>(), false, "Document_1.docx", 1, 0);
+    }
+}
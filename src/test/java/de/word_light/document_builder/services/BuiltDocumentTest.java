@@ -0,0 +1,79 @@
+package de.word_light.document_builder.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * Unit tests for {@link BuiltDocument}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class BuiltDocumentTest {
+
+    @TempDir
+    private Path folder;
+
+    private byte[] bytes = {1, 2, 3};
+
+
+//----------- writeTo()
+    @Test
+    void writeTo_inMemory_shouldWriteBytes() throws IOException {
+
+        BuiltDocument builtDocument = new BuiltDocument(this.bytes);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        builtDocument.writeTo(os);
+
+        assertTrue(builtDocument.isInMemory());
+        assertEquals(3, builtDocument.getLength());
+        assertArrayEquals(this.bytes, os.toByteArray());
+    }
+
+
+    @Test
+    void writeTo_file_shouldWriteFile() throws IOException {
+
+        File file = Files.write(this.folder.resolve("document.docx"), this.bytes).toFile();
+
+        BuiltDocument builtDocument = new BuiltDocument(file);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        builtDocument.writeTo(os);
+
+        assertFalse(builtDocument.isInMemory());
+        assertEquals(3, builtDocument.getLength());
+        assertArrayEquals(this.bytes, os.toByteArray());
+    }
+
+
+//----------- delete()
+    @Test
+    void delete_shouldNotExist() throws IOException {
+
+        BuiltDocument builtDocument = new BuiltDocument(this.bytes);
+        builtDocument.delete();
+        assertFalse(builtDocument.exists());
+
+        File file = Files.write(this.folder.resolve("document.docx"), this.bytes).toFile();
+        builtDocument = new BuiltDocument(file);
+        assertTrue(builtDocument.exists());
+
+        builtDocument.delete();
+        assertFalse(builtDocument.exists());
+        assertFalse(file.exists());
+    }
+}
@@ -0,0 +1,160 @@
+package de.word_light.document_builder.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import de.word_light.document_builder.documentBuilder.OutputProfile;
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.documentParts.style.Style;
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.exception.ServiceUnavailableException;
+
+
+/**
+ * Unit tests for {@link DocumentBuildService}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class DocumentBuildServiceTest {
+
+    private DocumentBuildService documentBuildService;
+
+    private ThreadPoolExecutor buildExecutor;
+
+    private CountDownLatch blockExecutor;
+
+
+    @BeforeEach
+    void setup() {
+
+        // one thread, one queued build, reject the rest
+        this.buildExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+        this.blockExecutor = new CountDownLatch(1);
+
+        this.documentBuildService = new DocumentBuildService();
+        ReflectionTestUtils.setField(this.documentBuildService, "buildExecutor", this.buildExecutor);
+        ReflectionTestUtils.setField(this.documentBuildService, "BUILD_RETRY_AFTER_SECONDS", 7L);
+        ReflectionTestUtils.setField(this.documentBuildService, "STREAMED_BUILD_START_TIMEOUT_SECONDS", 5L);
+    }
+
+
+//----------- buildDocument()
+    @Test
+    void buildDocument_queueFull_shouldThrow503WithRetryAfter() {
+
+        // occupy thread and queue
+        this.buildExecutor.submit(this::awaitUnblock);
+        this.buildExecutor.submit(this::awaitUnblock);
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                                                             () -> this.documentBuildService.buildDocument(createDocumentWrapper(), OutputProfile.DEFAULT));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(7, exception.getRetryAfterSeconds());
+    }
+
+
+//----------- admitStreamedBuild()
+    @Test
+    void admitStreamedBuild_queueFull_shouldThrow503BeforeWriting() {
+
+        // occupy thread and queue
+        this.buildExecutor.submit(this::awaitUnblock);
+        this.buildExecutor.submit(this::awaitUnblock);
+
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                                                             () -> this.documentBuildService.admitStreamedBuild(os -> os.write(1)));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(7, exception.getRetryAfterSeconds());
+    }
+
+
+    @Test
+    void admitStreamedBuild_shouldWriteOnBuildExecutor() throws Exception {
+
+        StreamingResponseBody body = this.documentBuildService.admitStreamedBuild(os -> os.write(Thread.currentThread().getName().getBytes()));
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        body.writeTo(os);
+
+        assertTrue(os.toString().startsWith("pool-"));
+    }
+
+
+    @Test
+    void admitStreamedBuild_buildFailed_shouldKeepStatus() {
+
+        StreamingResponseBody body = this.documentBuildService.admitStreamedBuild(os -> {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid row.");
+        });
+
+        ApiException exception = assertThrows(ApiException.class, () -> body.writeTo(new ByteArrayOutputStream()));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+//----------- getUniqueEntryName()
+    @Test
+    void getUniqueEntryName_shouldNumberDuplicates() {
+
+        List<String> entryNames = new ArrayList<>();
+        Set<String> takenNames = new HashSet<>();
+        for (int i = 0; i < 3; i++)
+            entryNames.add(DocumentBuildService.getUniqueEntryName("Document.docx", takenNames));
+
+        assertEquals(List.of("Document.docx", "Document (1).docx", "Document (2).docx"), entryNames);
+    }
+
+
+    @AfterEach
+    void cleanUp() {
+
+        this.blockExecutor.countDown();
+        this.buildExecutor.shutdownNow();
+    }
+
+
+    private void awaitUnblock() {
+
+        try {
+            this.blockExecutor.await();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private DocumentWrapper createDocumentWrapper() {
+
+        Style style = new Style(8, "Calibri", "000000", true, true, true, ParagraphAlignment.LEFT, null);
+        List<BasicParagraph> content = new ArrayList<>(List.of(new BasicParagraph("header", style), new BasicParagraph("text", style), new BasicParagraph("footer", style)));
+
+        return new DocumentWrapper(content, new ArrayList<>(), false, "Document_1.docx", 1, 0);
+    }
+}
@@ -0,0 +1,88 @@
+package de.word_light.document_builder.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.http.HttpStatus;
+
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.services.MergeRowReader.MergeRowFormat;
+
+
+/**
+ * Unit tests for {@link MergeRowReader}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class MergeRowReaderTest {
+
+//----------- NDJSON
+    @Test
+    void ndjson_shouldReadOneRowPerLine() throws IOException {
+
+        List<Map<String, String>> rows = readAll("{\"name\": \"Tom\", \"id\": 1}\n\n{\"name\": \"Jerry\", \"note\": null}\n", MergeRowFormat.NDJSON);
+
+        assertEquals(List.of(Map.of("name", "Tom", "id", "1"), Map.of("name", "Jerry")), rows);
+    }
+
+
+    @Test
+    void ndjson_notAnObject_shouldThrow400() {
+
+        ApiException exception = assertThrows(ApiException.class, () -> readAll("[1, 2]\n", MergeRowFormat.NDJSON));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+//----------- CSV
+    @Test
+    void csv_shouldReadHeaderAndQuotedValues() throws IOException {
+
+        List<Map<String, String>> rows = readAll("\uFEFFname,note\r\nTom,\"a, \"\"quoted\"\"\nnote\"\r\n\r\nJerry\n", MergeRowFormat.CSV);
+
+        assertEquals(List.of(Map.of("name", "Tom", "note", "a, \"quoted\"\nnote"), Map.of("name", "Jerry")), rows);
+    }
+
+
+    @Test
+    void csv_tooManyValues_shouldThrow400() {
+
+        ApiException exception = assertThrows(ApiException.class, () -> readAll("name\nTom,Jerry\n", MergeRowFormat.CSV));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+    @Test
+    void csv_empty_shouldHaveNoRows() throws IOException {
+
+        try (MergeRowReader reader = MergeRowReader.of(new ByteArrayInputStream(new byte[0]), MergeRowFormat.CSV)) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+
+    private List<Map<String, String>> readAll(String rows, MergeRowFormat format) throws IOException {
+
+        List<Map<String, String>> result = new ArrayList<>();
+
+        try (MergeRowReader reader = MergeRowReader.of(new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)), format)) {
+            reader.forEachRemaining(result::add);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,160 @@
+package de.word_light.document_builder.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.documentParts.DocumentWrapper;
+import de.word_light.document_builder.documentParts.TableConfig;
+import de.word_light.document_builder.documentParts.style.Style;
+
+
+/**
+ * Unit tests for {@link RenderCache}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class RenderCacheTest {
+
+    @TempDir
+    private Path folder;
+
+    private RenderCache renderCache;
+
+
+    @BeforeEach
+    void setup() {
+
+        this.renderCache = new RenderCache(10, 20, this.folder.toString());
+        this.renderCache.init();
+    }
+
+
+//----------- getKey()
+    @Test
+    void getKey_shouldIgnoreFileName() {
+
+        DocumentWrapper documentWrapper = createDocumentWrapper("text");
+        DocumentWrapper otherDocumentWrapper = createDocumentWrapper("text");
+        otherDocumentWrapper.setFileName("Other.docx");
+
+        assertEquals(RenderCache.getKey(documentWrapper), RenderCache.getKey(otherDocumentWrapper));
+    }
+
+
+    @Test
+    void getKey_shouldChangeWithContent() {
+
+        DocumentWrapper documentWrapper = createDocumentWrapper("text");
+        String key = RenderCache.getKey(documentWrapper);
+
+        assertNotEquals(key, RenderCache.getKey(createDocumentWrapper("other text")));
+
+        // style
+        documentWrapper.getContent().get(1).getStyle().setBold(false);
+        assertNotEquals(key, RenderCache.getKey(documentWrapper));
+    }
+
+
+    @Test
+    void getKey_shouldChangeWithPictures() {
+
+        DocumentWrapper documentWrapper = createDocumentWrapper("text");
+        documentWrapper.getPictures().put("picture.png", new byte[] {1, 2});
+        String key = RenderCache.getKey(documentWrapper);
+
+        documentWrapper.getPictures().put("picture.png", new byte[] {1, 3});
+        assertNotEquals(key, RenderCache.getKey(documentWrapper));
+    }
+
+
+//----------- get()
+    @Test
+    void get_notCached_shouldReturnNull() {
+
+        assertNull(this.renderCache.get("key"));
+        assertEquals(1, this.renderCache.getNumMisses());
+    }
+
+
+    @Test
+    void get_inMemory_shouldReturnBytes() {
+
+        byte[] bytes = {1, 2, 3};
+        this.renderCache.put("key", bytes);
+
+        assertArrayEquals(bytes, this.renderCache.get("key"));
+        assertEquals(1, this.renderCache.getNumMemoryHits());
+        assertEquals(0, this.renderCache.getDiskBytes());
+    }
+
+
+    @Test
+    void get_tooLargeForMemory_shouldReturnBytesFromDisk() {
+
+        byte[] bytes = new byte[15];
+        this.renderCache.put("key", bytes);
+
+        assertEquals(0, this.renderCache.getMemoryBytes());
+        assertEquals(15, this.renderCache.getDiskBytes());
+
+        assertArrayEquals(bytes, this.renderCache.get("key"));
+        assertEquals(1, this.renderCache.getNumDiskHits());
+    }
+
+
+//----------- put()
+    @Test
+    void put_memoryFull_shouldMoveEldestToDisk() {
+
+        this.renderCache.put("key1", new byte[6]);
+        this.renderCache.put("key2", new byte[6]);
+
+        assertEquals(6, this.renderCache.getMemoryBytes());
+        assertEquals(6, this.renderCache.getDiskBytes());
+
+        // moved back to memory, pushing key2 to disk
+        assertEquals(6, this.renderCache.get("key1").length);
+        assertEquals(1, this.renderCache.getNumDiskHits());
+        assertEquals(6, this.renderCache.get("key1").length);
+        assertEquals(1, this.renderCache.getNumMemoryHits());
+    }
+
+
+    @Test
+    void put_diskFull_shouldDeleteEldest() {
+
+        this.renderCache.put("key1", new byte[15]);
+        this.renderCache.put("key2", new byte[15]);
+
+        assertEquals(15, this.renderCache.getDiskBytes());
+        assertNull(this.renderCache.get("key1"));
+        assertEquals(15, this.renderCache.get("key2").length);
+    }
+
+
+    private DocumentWrapper createDocumentWrapper(String text) {
+
+        Style style = new Style(8, "Calibri", "000000", true, true, true, ParagraphAlignment.LEFT, null);
+        List<BasicParagraph> content = new ArrayList<>(List.of(new BasicParagraph("header", style),
+                                                               new BasicParagraph(text, style),
+                                                               new BasicParagraph("footer", style)));
+        List<TableConfig> tableConfigs = new ArrayList<>();
+
+        return new DocumentWrapper(content, tableConfigs, false, "Document_1.docx", 1, 0);
+    }
+}
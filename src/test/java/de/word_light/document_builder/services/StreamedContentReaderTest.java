@@ -0,0 +1,154 @@
+package de.word_light.document_builder.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.http.HttpStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.word_light.document_builder.documentParts.BasicParagraph;
+import de.word_light.document_builder.exception.ApiException;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+
+/**
+ * Unit tests for {@link StreamedContentReader}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class StreamedContentReaderTest {
+
+    private static final String STYLE = "{\"fontSize\": 11, \"fontFamily\": \"Calibri\", \"color\": \"000000\", \"bold\": false, \"italic\": false, \"underline\": false, \"textAlign\": \"LEFT\"}";
+
+    private ObjectMapper objectMapper;
+
+    private Validator validator;
+
+
+    @BeforeAll
+    void setup() {
+
+        this.objectMapper = new ObjectMapper();
+        this.validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+
+//----------- StreamedContentReader()
+    @Test
+    void constructor_shouldReadLayoutBeforeContent() throws IOException {
+
+        String json = "{\"fileName\": \"test.docx\", \"numColumns\": 2, \"landscape\": true, " +
+                      "\"tableConfigs\": [{\"numColumns\": 1, \"numRows\": 1, \"startIndex\": 1}], " +
+                      "\"content\": [{\"text\": \"header\", \"style\": " + STYLE + "}]}";
+
+        try (StreamedContentReader contentReader = read(json)) {
+            assertEquals("test.docx", contentReader.getLayout().getFileName());
+            assertEquals(2, contentReader.getLayout().getNumColumns());
+            assertTrue(contentReader.getLayout().isLandscape());
+            assertEquals(1, contentReader.getLayout().getTableConfigs().size());
+
+            // content is not read yet
+            assertTrue(contentReader.getLayout().getContent().isEmpty());
+            assertEquals(0, contentReader.getNumParagraphs());
+        }
+    }
+
+
+    @Test
+    void constructor_noContent_shouldThrow400() {
+
+        ApiException exception = assertThrows(ApiException.class, () -> read("{\"fileName\": \"test.docx\", \"tableConfigs\": []}"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+    @Test
+    void constructor_invalidLayout_shouldThrow() {
+
+        assertThrows(ConstraintViolationException.class, () -> read("{\"fileName\": \"test.docx\", \"numColumns\": 5, \"tableConfigs\": [], \"content\": []}"));
+    }
+
+
+//----------- next()
+    @Test
+    void next_shouldReadOneParagraphAtATime() throws IOException {
+
+        String json = "{\"fileName\": \"test.docx\", \"tableConfigs\": [], \"styles\": {\"body\": " + STYLE + "}, " +
+                      "\"content\": [{\"text\": \"header\", \"style\": " + STYLE + "}, {\"text\": \"text\", \"styleRef\": \"body\"}, {\"text\": \"footer\", \"styleRef\": \"body\"}]}";
+
+        try (StreamedContentReader contentReader = read(json)) {
+            List<BasicParagraph> content = new ArrayList<>();
+            contentReader.forEachRemaining(content::add);
+
+            assertEquals(3, contentReader.getNumParagraphs());
+            assertEquals("text", content.get(1).getText());
+            assertEquals(11, content.get(2).getStyle().getFontSize());
+            assertFalse(contentReader.hasNext());
+        }
+    }
+
+
+    @Test
+    void next_fieldAfterContent_shouldThrow400() {
+
+        String json = "{\"tableConfigs\": [], \"content\": [{\"text\": \"header\", \"style\": " + STYLE + "}], \"fileName\": \"test.docx\"}";
+
+        ApiException exception = assertThrows(ApiException.class, () -> {
+            try (StreamedContentReader contentReader = read(json)) {
+                contentReader.forEachRemaining(basicParagraph -> {});
+            }
+        });
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+    @Test
+    void next_tableExceedsContent_shouldThrow400() throws IOException {
+
+        String json = "{\"fileName\": \"test.docx\", \"tableConfigs\": [{\"numColumns\": 1, \"numRows\": 2, \"startIndex\": 0}], " +
+                      "\"content\": [{\"text\": \"header\", \"style\": " + STYLE + "}]}";
+
+        try (StreamedContentReader contentReader = read(json)) {
+            contentReader.next();
+
+            ApiException exception = assertThrows(ApiException.class, () -> contentReader.hasNext());
+            assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        }
+    }
+
+
+    @Test
+    void next_unknownStyleRef_shouldThrow400() throws IOException {
+
+        String json = "{\"fileName\": \"test.docx\", \"tableConfigs\": [], \"content\": [{\"text\": \"header\", \"styleRef\": \"missing\"}]}";
+
+        try (StreamedContentReader contentReader = read(json)) {
+            ApiException exception = assertThrows(ApiException.class, () -> contentReader.next());
+            assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        }
+    }
+
+
+    private StreamedContentReader read(String json) {
+
+        return new StreamedContentReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), this.objectMapper, this.validator);
+    }
+}
@@ -0,0 +1,77 @@
+package de.word_light.document_builder.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.http.HttpStatus;
+
+import de.word_light.document_builder.exception.ApiException;
+import de.word_light.document_builder.services.MergeRowReader.MergeRowFormat;
+
+
+/**
+ * Unit tests for {@link TableRowReader}.
+ *
+ * @since 0.1.0
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+public class TableRowReaderTest {
+
+//----------- NDJSON
+    @Test
+    void ndjson_shouldReadOneArrayPerLine() throws IOException {
+
+        List<List<String>> rows = readAll("[\"Tom\", 1, null]\n\n[\"Jerry\", {\"a\": true}]\n", MergeRowFormat.NDJSON);
+
+        assertEquals(List.of(List.of("Tom", "1", ""), List.of("Jerry", "{\"a\":true}")), rows);
+    }
+
+
+    @Test
+    void ndjson_notAnArray_shouldThrow400() {
+
+        ApiException exception = assertThrows(ApiException.class, () -> readAll("{\"name\": \"Tom\"}\n", MergeRowFormat.NDJSON));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+//----------- CSV
+    @Test
+    void csv_shouldReadFirstLineAsRow() throws IOException {
+
+        List<List<String>> rows = readAll("\uFEFFname,note\r\nTom,\"a, \"\"quoted\"\"\"\n", MergeRowFormat.CSV);
+
+        assertEquals(List.of(List.of("name", "note"), List.of("Tom", "a, \"quoted\"")), rows);
+    }
+
+
+    @Test
+    void csv_quoteNotClosed_shouldThrow400() {
+
+        ApiException exception = assertThrows(ApiException.class, () -> readAll("Tom,\"note\n", MergeRowFormat.CSV));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+
+    private List<List<String>> readAll(String rows, MergeRowFormat format) throws IOException {
+
+        List<List<String>> result = new ArrayList<>();
+
+        try (TableRowReader reader = TableRowReader.of(new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)), format)) {
+            reader.forEachRemaining(result::add);
+        }
+
+        return result;
+    }
+}